@@ -0,0 +1,69 @@
+package com.example.webfluxexample.health.api;
+
+import com.example.webfluxexample.health.model.Health;
+import com.example.webfluxexample.health.model.HealthStatus;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.codec.ServerSentEventHttpMessageWriter;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cost of encoding one health report as a server-sent event, which is paid once per subscriber per report,
+ * with the same codec WebFlux uses for the {@code /health/updates} stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HealthSerializationBenchmark {
+
+  private static final ResolvableType EVENT_TYPE = ResolvableType.forClassWithGenerics(ServerSentEvent.class, Health.class);
+
+  @Param({"10", "100"})
+  private int endpoints;
+
+  private ObjectMapper objectMapper;
+  private ServerSentEventHttpMessageWriter writer;
+  private ServerSentEvent<Health> event;
+
+  @Setup
+  public void setup() {
+    this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    this.writer = new ServerSentEventHttpMessageWriter(new Jackson2JsonEncoder(this.objectMapper));
+    final List<ServiceHealth> healthList = new ArrayList<>();
+    for (int i = 0; i < this.endpoints; i++) {
+      healthList.add(new ServiceHealth("Downstream" + i, HealthStatus.UP, Map.of("rttMillis", 1.5)));
+    }
+    this.event = ServerSentEvent.builder(new Health(Instant.now(), healthList)).build();
+  }
+
+  @Benchmark
+  public byte[] json() throws Exception {
+    return this.objectMapper.writeValueAsBytes(this.event.data());
+  }
+
+  @Benchmark
+  public MockServerHttpResponse serverSentEvent() {
+    final MockServerHttpResponse response = new MockServerHttpResponse();
+    this.writer.write(Mono.just(this.event), EVENT_TYPE, MediaType.TEXT_EVENT_STREAM, response, Map.of()).block();
+    return response;
+  }
+}
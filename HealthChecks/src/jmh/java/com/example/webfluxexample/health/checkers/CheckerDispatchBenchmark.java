@@ -0,0 +1,115 @@
+package com.example.webfluxexample.health.checkers;
+
+import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cost of routing one probe to its checker, which is paid for every endpoint on every sweep.
+ * The checkers are in-process stubs, so only the name lookup, validation and dispatch are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CheckerDispatchBenchmark {
+
+  @Param({"", "http", "KAFKA", "Mongo"})
+  private String type;
+
+  private HealthEndpoint endpoint;
+  private HealthCheckerTypes healthCheckerTypes;
+  private TypeAwareHealthChecker checker;
+
+  private static class StubHttpChecker extends HttpHealthChecker {
+    StubHttpChecker() {
+      super(null);
+    }
+
+    @Override
+    public boolean isHealthy(final HealthEndpoint endpoint) {
+      return true;
+    }
+
+    @Override
+    public Mono<ServiceHealth> checkHealth(final HealthEndpoint endpoint) {
+      return Mono.just(new ServiceHealth(endpoint.serviceName(), true));
+    }
+  }
+
+  private static class StubKafkaChecker extends KafkaHealthChecker {
+    StubKafkaChecker() {
+      super(null, null);
+    }
+
+    @Override
+    public boolean isHealthy(final HealthEndpoint endpoint) {
+      return true;
+    }
+
+    @Override
+    public Mono<ServiceHealth> checkHealth(final HealthEndpoint endpoint) {
+      return Mono.just(new ServiceHealth(endpoint.serviceName(), true));
+    }
+  }
+
+  private static class StubMongoChecker extends MongoHealthChecker {
+    StubMongoChecker() {
+      super(null);
+    }
+
+    @Override
+    public boolean isHealthy(final HealthEndpoint endpoint) {
+      return true;
+    }
+
+    @Override
+    public Mono<ServiceHealth> checkHealth(final HealthEndpoint endpoint) {
+      return Mono.just(new ServiceHealth(endpoint.serviceName(), true));
+    }
+  }
+
+  /**
+   * Wire the stub checkers the way the application context does, including the post-construct lookup table.
+   *
+   * @throws ReflectiveOperationException if the lookup table cannot be initialized
+   */
+  @Setup
+  public void setup() throws ReflectiveOperationException {
+    this.endpoint = new HealthEndpoint(true, this.type, "Downstream", "http", "localhost", 8080, "health");
+    this.healthCheckerTypes = new HealthCheckerTypes(new StubHttpChecker(), new StubKafkaChecker(), new StubMongoChecker());
+    final Method init = HealthCheckerTypes.class.getDeclaredMethod("init");
+    init.setAccessible(true);
+    init.invoke(this.healthCheckerTypes);
+    this.checker = new TypeAwareHealthChecker(this.healthCheckerTypes);
+  }
+
+  @Benchmark
+  public HealthCheckerTypes.Type fromName() {
+    return HealthCheckerTypes.fromName(this.type);
+  }
+
+  @Benchmark
+  public ReactiveHealthChecker getReactiveCheckerForName() {
+    return this.healthCheckerTypes.getReactiveCheckerForName(this.type);
+  }
+
+  @Benchmark
+  public boolean isHealthy() {
+    return this.checker.isHealthy(this.endpoint);
+  }
+
+  @Benchmark
+  public ServiceHealth checkHealth() {
+    return this.checker.checkHealth(this.endpoint).block();
+  }
+}
@@ -0,0 +1,85 @@
+package com.example.webfluxexample.health.service;
+
+import com.example.webfluxexample.health.model.Health;
+import com.example.webfluxexample.health.model.HealthStatus;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of building a health report and of diffing it against the previous one, as done once per sweep
+ * for the report and once per report for the delta stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HealthDiffBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int endpoints;
+
+  private List<String> serviceNames;
+  private HealthApiService.HealthDiff previous;
+  private Health unchanged;
+  private Health oneChanged;
+
+  @Setup
+  public void setup() {
+    this.serviceNames = new ArrayList<>();
+    for (int i = 0; i < this.endpoints; i++) {
+      this.serviceNames.add("Downstream" + i);
+    }
+    final Health health = this.buildHealth();
+    this.previous = HealthApiService.HealthDiff.EMPTY.next(health);
+    this.unchanged = this.buildHealth();
+
+    final List<ServiceHealth> healthList = new ArrayList<>(this.unchanged.healthList());
+    healthList.set(0, healthList.get(0).withStatus(HealthStatus.DOWN));
+    this.oneChanged = new Health(Instant.now(), healthList);
+  }
+
+  /**
+   * A report as the monitor builds it after a sweep.
+   *
+   * @return the report
+   */
+  @Benchmark
+  public Health buildHealth() {
+    final List<ServiceHealth> healthList = new ArrayList<>(this.serviceNames.size());
+    for (final String serviceName : this.serviceNames) {
+      healthList.add(new ServiceHealth(serviceName, HealthStatus.UP, Map.of("rttMillis", 1.5)));
+    }
+    return new Health(Instant.now(), healthList);
+  }
+
+  /**
+   * The report-changed check of the monitor, which compares whole lists.
+   *
+   * @return whether the report changed
+   */
+  @Benchmark
+  public boolean listEquals() {
+    return this.previous.health().healthList().equals(this.unchanged.healthList());
+  }
+
+  @Benchmark
+  public HealthApiService.HealthDiff diffUnchanged() {
+    return this.previous.next(this.unchanged);
+  }
+
+  @Benchmark
+  public HealthApiService.HealthDiff diffOneChanged() {
+    return this.previous.next(this.oneChanged);
+  }
+}
@@ -0,0 +1,227 @@
+package com.example.webfluxexample.loadtest;
+
+import com.example.webfluxexample.Application;
+import com.example.webfluxexample.health.model.Health;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Load test of the health service: probes N generated HTTP endpoints served by {@link StubServers} and
+ * streams {@code /health/updates} to M subscribers, all in one JVM on loopback without Kafka or Mongo.
+ * Every report interval it prints:
+ * <ul>
+ *   <li>sweeps: count, mean and max duration, and overruns, from the service's own meters.</li>
+ *   <li>fan-out: time from a report being built to a subscriber receiving it, p50, p99 and max.</li>
+ *   <li>heap used and committed, and live threads of the service (excluding stub and client threads).</li>
+ * </ul>
+ * Options, as {@code --loadtest.<name>=<value>}: endpoints (1000), subscribers (100), duration-seconds (60),
+ * report-seconds (10), stub-servers (4), slow-percent (10), failing-percent (5), flapping-percent (5),
+ * slow-millis (500), flap-millis (5000). Any other argument is passed to the service, for example
+ * {@code --health-checks.period-millis=5000}.
+ */
+public class HealthLoadTest {
+  private static final Logger log = LoggerFactory.getLogger(HealthLoadTest.class);
+
+  private static final String CLIENT_THREAD_PREFIX = "loadtest-client";
+
+  private final SimpleCommandLinePropertySource options;
+  private final MeterRegistry loadTestRegistry = new SimpleMeterRegistry();
+  private final AtomicInteger connectedSubscribers = new AtomicInteger();
+  private final AtomicLong receivedEvents = new AtomicLong();
+  private final AtomicLong subscriberErrors = new AtomicLong();
+  private final Timer fanOutLatency;
+
+  private HealthLoadTest(final String[] args) {
+    this.options = new SimpleCommandLinePropertySource(args);
+    this.fanOutLatency = Timer.builder("loadtest.fanout.latency")
+        .publishPercentiles(0.5, 0.99)
+        .distributionStatisticExpiry(Duration.ofSeconds(this.option("report-seconds", 10)))
+        .distributionStatisticBufferLength(1)
+        .register(this.loadTestRegistry);
+  }
+
+  public static void main(final String[] args) throws InterruptedException {
+    new HealthLoadTest(args).run(args);
+    System.exit(0);
+  }
+
+  private void run(final String[] args) throws InterruptedException {
+    final int endpoints = this.option("endpoints", 1000);
+    final int subscribers = this.option("subscribers", 100);
+    final Duration duration = Duration.ofSeconds(this.option("duration-seconds", 60));
+    final Duration reportInterval = Duration.ofSeconds(this.option("report-seconds", 10));
+
+    try (StubServers stubs = new StubServers(
+        this.option("stub-servers", 4),
+        Duration.ofMillis(this.option("slow-millis", 500)),
+        Duration.ofMillis(this.option("flap-millis", 5000)))) {
+      final SpringApplication application = new SpringApplication(Application.class);
+      // Without Kafka or Mongo their clients keep retrying in the background; only the HTTP endpoints are probed.
+      application.setDefaultProperties(Map.of(
+          "logging.level.org.mongodb.driver", "warn",
+          "logging.level.org.apache.kafka", "error",
+          "logging.level.com.example.webfluxexample.health.service.HealthApiService", "warn",
+          "logging.level.com.example.webfluxexample.health.service.HealthMonitor", "error"));
+      final Map<String, Object> properties = this.serviceProperties(endpoints, subscribers, stubs.getPorts());
+      application.addInitializers(context -> context.getEnvironment().getPropertySources()
+          .addFirst(new MapPropertySource("loadtest", properties)));
+      try (ConfigurableApplicationContext context = application.run(args)) {
+        final int port = ((ReactiveWebServerApplicationContext) context).getWebServer().getPort();
+        final MeterRegistry serviceRegistry = context.getBean(MeterRegistry.class);
+        log.info("Load test: {} endpoints, {} subscribers, {} against port {}", endpoints, subscribers, duration, port);
+
+        final LoopResources clientLoops = LoopResources.create(CLIENT_THREAD_PREFIX, 2, true);
+        final Disposable.Composite subscriptions = Disposables.composite();
+        try {
+          final WebClient webClient = this.webClient(port, subscribers, clientLoops);
+          for (int i = 0; i < subscribers; i++) {
+            subscriptions.add(this.subscribe(webClient));
+          }
+
+          final long deadline = System.nanoTime() + duration.toNanos();
+          while (System.nanoTime() < deadline) {
+            Thread.sleep(Math.min(reportInterval.toMillis(), TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()) + 1));
+            this.report(serviceRegistry);
+          }
+        } finally {
+          subscriptions.dispose();
+          clientLoops.disposeLater().block();
+        }
+      }
+    }
+  }
+
+  /**
+   * Endpoints spread round robin over the stub servers, with the configured share of each variant.
+   */
+  private Map<String, Object> serviceProperties(final int endpoints, final int subscribers, final List<Integer> ports) {
+    final int slow = endpoints * this.option("slow-percent", 10) / 100;
+    final int failing = endpoints * this.option("failing-percent", 5) / 100;
+    final int flapping = endpoints * this.option("flapping-percent", 5) / 100;
+    final Map<String, Object> properties = new HashMap<>();
+    properties.put("server.port", 0);
+    properties.put("health-checks.enabled", true);
+    properties.put("health-checks.stream-max-subscribers", Math.max(subscribers, 1000));
+    for (int i = 0; i < endpoints; i++) {
+      final String variant = i < slow ? "slow" : i < slow + failing ? "failing" : i < slow + failing + flapping ? "flapping" : "ok";
+      final String prefix = "health-checks.endpoints[" + i + "].";
+      properties.put(prefix + "enabled", true);
+      properties.put(prefix + "type", "HTTP");
+      properties.put(prefix + "service-name", "stub-" + variant + "-" + i);
+      properties.put(prefix + "scheme", "http");
+      properties.put(prefix + "host", "127.0.0.1");
+      properties.put(prefix + "port", ports.get(i % ports.size()));
+      properties.put(prefix + "path", "/" + variant + "/" + i);
+    }
+    log.info("Generated {} endpoints: {} slow, {} failing, {} flapping", endpoints, slow, failing, flapping);
+    return properties;
+  }
+
+  private WebClient webClient(final int port, final int subscribers, final LoopResources loopResources) {
+    final ConnectionProvider connectionProvider = ConnectionProvider.builder(CLIENT_THREAD_PREFIX)
+        .maxConnections(subscribers)
+        .pendingAcquireMaxCount(-1)
+        .build();
+    final HttpClient httpClient = HttpClient.create(connectionProvider).runOn(loopResources);
+    return WebClient.builder()
+        .baseUrl("http://127.0.0.1:" + port)
+        .clientConnector(new ReactorClientHttpConnector(httpClient))
+        .build();
+  }
+
+  /**
+   * Subscribe to the update stream, timing every report after the replayed one.
+   */
+  private Disposable subscribe(final WebClient webClient) {
+    return webClient.get()
+        .uri("/health/updates")
+        .accept(MediaType.TEXT_EVENT_STREAM)
+        .retrieve()
+        .bodyToFlux(Health.class)
+        .doOnSubscribe(subscription -> this.connectedSubscribers.incrementAndGet())
+        .doFinally(signal -> this.connectedSubscribers.decrementAndGet())
+        .skip(1)
+        .doOnNext(health -> {
+          this.receivedEvents.incrementAndGet();
+          this.fanOutLatency.record(Duration.between(health.timestamp(), Instant.now()));
+        })
+        .onErrorResume(e -> {
+          this.subscriberErrors.incrementAndGet();
+          log.debug("Load test subscriber failed", e);
+          return Flux.empty();
+        })
+        .subscribe();
+  }
+
+  private void report(final MeterRegistry serviceRegistry) {
+    final Timer sweeps = serviceRegistry.find("health.sweep.duration").timer();
+    final Counter overruns = serviceRegistry.find("health.sweep.overruns").counter();
+    final MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    final long serviceThreads = Arrays.stream(threads.getThreadInfo(threads.getAllThreadIds()))
+        .filter(info -> info != null && !isLoadTestThread(info))
+        .count();
+    final Map<Double, Double> fanOut = new HashMap<>();
+    for (final ValueAtPercentile percentile : this.fanOutLatency.takeSnapshot().percentileValues()) {
+      fanOut.put(percentile.percentile(), percentile.value(TimeUnit.MILLISECONDS));
+    }
+
+    final List<String> line = new ArrayList<>();
+    line.add(String.format("sweeps=%d mean=%.1fms max=%.1fms overruns=%.0f",
+        sweeps == null ? 0 : sweeps.count(),
+        sweeps == null ? 0.0 : sweeps.mean(TimeUnit.MILLISECONDS),
+        sweeps == null ? 0.0 : sweeps.max(TimeUnit.MILLISECONDS),
+        overruns == null ? 0.0 : overruns.count()));
+    line.add(String.format("fanout p50=%.1fms p99=%.1fms max=%.1fms events=%d",
+        fanOut.getOrDefault(0.5, 0.0),
+        fanOut.getOrDefault(0.99, 0.0),
+        this.fanOutLatency.max(TimeUnit.MILLISECONDS),
+        this.receivedEvents.get()));
+    line.add(String.format("subscribers=%d errors=%d", this.connectedSubscribers.get(), this.subscriberErrors.get()));
+    line.add(String.format("heap used=%dMB committed=%dMB", heap.getUsed() >> 20, heap.getCommitted() >> 20));
+    line.add(String.format("threads service=%d total=%d peak=%d", serviceThreads, threads.getThreadCount(), threads.getPeakThreadCount()));
+    log.info("Load test: {}", String.join(" | ", line));
+  }
+
+  private static boolean isLoadTestThread(final ThreadInfo info) {
+    return info.getThreadName().startsWith(StubServers.THREAD_PREFIX) || info.getThreadName().startsWith(CLIENT_THREAD_PREFIX);
+  }
+
+  private int option(final String name, final int defaultValue) {
+    final String value = this.options.getProperty("loadtest." + name);
+    return value == null ? defaultValue : Integer.parseInt(value);
+  }
+}
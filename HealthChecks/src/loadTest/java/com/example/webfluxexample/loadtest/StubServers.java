@@ -0,0 +1,74 @@
+package com.example.webfluxexample.loadtest;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Stub downstream services on loopback, each answering every endpoint variant:
+ * <ul>
+ *   <li>{@code /ok/{id}}: 200 immediately.</li>
+ *   <li>{@code /slow/{id}}: 200 after the slow delay.</li>
+ *   <li>{@code /failing/{id}}: 503 immediately.</li>
+ *   <li>{@code /flapping/{id}}: alternates between 200 and 503 every flap period, out of phase per id.</li>
+ * </ul>
+ * The servers run on their own event loops, so their threads are not mistaken for the health service's.
+ */
+public class StubServers implements AutoCloseable {
+  private static final Logger log = LoggerFactory.getLogger(StubServers.class);
+
+  public static final String THREAD_PREFIX = "loadtest-stub";
+
+  private final LoopResources loopResources;
+  private final List<DisposableServer> servers = new ArrayList<>();
+
+  /**
+   * Constructor.
+   *
+   * @param count the number of servers
+   * @param slowDelay how long slow endpoints take to answer
+   * @param flapPeriod how long flapping endpoints stay in each state
+   */
+  public StubServers(final int count, final Duration slowDelay, final Duration flapPeriod) {
+    this.loopResources = LoopResources.create(THREAD_PREFIX, 2, true);
+    for (int i = 0; i < count; i++) {
+      this.servers.add(HttpServer.create()
+          .host("127.0.0.1")
+          .port(0)
+          .runOn(this.loopResources)
+          .route(routes -> routes
+              .get("/ok/{id}", (request, response) -> response.status(HttpResponseStatus.OK).send())
+              .get("/slow/{id}", (request, response) -> Mono.delay(slowDelay)
+                  .then(response.status(HttpResponseStatus.OK).send()))
+              .get("/failing/{id}", (request, response) -> response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send())
+              .get("/flapping/{id}", (request, response) -> flapping(request, response, flapPeriod)))
+          .bindNow());
+    }
+    log.info("Started {} stub servers on ports {}", count, this.getPorts());
+  }
+
+  private static Mono<Void> flapping(final HttpServerRequest request, final HttpServerResponse response, final Duration flapPeriod) {
+    final long id = Long.parseLong(request.param("id"));
+    final boolean healthy = (System.currentTimeMillis() / flapPeriod.toMillis() + id) % 2 == 0;
+    return response.status(healthy ? HttpResponseStatus.OK : HttpResponseStatus.SERVICE_UNAVAILABLE).send().then();
+  }
+
+  public List<Integer> getPorts() {
+    return this.servers.stream().map(DisposableServer::port).toList();
+  }
+
+  @Override
+  public void close() {
+    this.servers.forEach(DisposableServer::disposeNow);
+    this.loopResources.disposeLater().block();
+  }
+}
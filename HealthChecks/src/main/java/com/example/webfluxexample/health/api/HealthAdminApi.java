@@ -0,0 +1,160 @@
+package com.example.webfluxexample.health.api;
+
+import com.example.webfluxexample.health.config.HealthConfig;
+import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.model.EndpointChanges;
+import com.example.webfluxexample.health.service.HealthEndpointsReloader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Live reconfiguration of the health endpoints.
+ * Open subscriber streams stay connected across changes. Disabled unless {@code health-checks.admin-api-enabled} is set.
+ * When {@code health-checks.admin-api-token} is set, every request must carry it as a bearer token, otherwise the
+ * API is unauthenticated and must only be reachable from a management network.
+ */
+@RestController
+@RequestMapping("/health/admin/endpoints")
+public class HealthAdminApi {
+  private static final Logger log = LoggerFactory.getLogger(HealthAdminApi.class);
+  private static final String BEARER = "Bearer ";
+
+  private final HealthEndpointsReloader reloader;
+  private final HealthConfig healthConfig;
+
+  public HealthAdminApi(
+      final HealthEndpointsReloader reloader,
+      final HealthConfig healthConfig) {
+    this.reloader = reloader;
+    this.healthConfig = healthConfig;
+    if (healthConfig.isAdminApiEnabled() && !hasToken(healthConfig)) {
+      log.warn("Health admin API is enabled without a token, only expose it on a management network");
+    }
+  }
+
+  /**
+   * The endpoints currently checked.
+   *
+   * @param authorization the bearer token, when one is configured
+   * @return all endpoints
+   */
+  @GetMapping
+  public ResponseEntity<List<HealthEndpoint>> getEndpoints(
+      @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) final String authorization) {
+    final HttpStatus rejected = this.reject(authorization);
+    if (rejected != null) {
+      return ResponseEntity.status(rejected.value()).build();
+    }
+    return ResponseEntity.ok(this.reloader.getEndpoints());
+  }
+
+  /**
+   * Replace all endpoints.
+   *
+   * @param authorization the bearer token, when one is configured
+   * @param endpoints the new endpoints, in report order
+   * @return what changed
+   */
+  @PutMapping
+  public ResponseEntity<EndpointChanges> replaceEndpoints(
+      @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) final String authorization,
+      @RequestBody final List<HealthEndpoint> endpoints) {
+    return this.change(authorization, () -> this.reloader.replaceEndpoints(endpoints));
+  }
+
+  /**
+   * Add an endpoint, or update the endpoint with the same service name.
+   *
+   * @param authorization the bearer token, when one is configured
+   * @param endpoint the endpoint
+   * @return what changed
+   */
+  @PostMapping
+  public ResponseEntity<EndpointChanges> putEndpoint(
+      @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) final String authorization,
+      @RequestBody final HealthEndpoint endpoint) {
+    return this.change(authorization, () -> this.reloader.putEndpoint(endpoint));
+  }
+
+  /**
+   * Remove an endpoint.
+   *
+   * @param authorization the bearer token, when one is configured
+   * @param serviceName the service name
+   * @return what changed, or not found if there is no such endpoint
+   */
+  @DeleteMapping("/{serviceName}")
+  public ResponseEntity<EndpointChanges> removeEndpoint(
+      @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) final String authorization,
+      @PathVariable final String serviceName) {
+    final ResponseEntity<EndpointChanges> response = this.change(authorization, () -> this.reloader.removeEndpoint(serviceName));
+    if (response.getBody() != null && response.getBody().isEmpty()) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND.value()).build();
+    }
+    return response;
+  }
+
+  /**
+   * Re-read the endpoints from the application configuration.
+   *
+   * @param authorization the bearer token, when one is configured
+   * @return what changed
+   */
+  @PostMapping("/refresh")
+  public ResponseEntity<EndpointChanges> refresh(
+      @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) final String authorization) {
+    return this.change(authorization, this.reloader::reloadFromEnvironment);
+  }
+
+  private static boolean hasToken(final HealthConfig healthConfig) {
+    return healthConfig.getAdminApiToken() != null && !healthConfig.getAdminApiToken().isBlank();
+  }
+
+  /**
+   * Why a request is refused, if it is.
+   *
+   * @param authorization the authorization header of the request
+   * @return not implemented while the API is disabled, unauthorized without the configured token, otherwise null
+   */
+  private HttpStatus reject(final String authorization) {
+    if (!this.healthConfig.isAdminApiEnabled()) {
+      return HttpStatus.NOT_IMPLEMENTED;
+    }
+    if (!hasToken(this.healthConfig)) {
+      return null;
+    }
+    final String token = authorization != null && authorization.startsWith(BEARER) ? authorization.substring(BEARER.length()) : "";
+    // Compared in constant time, so the response time does not reveal how much of the token matched.
+    return MessageDigest.isEqual(
+        token.getBytes(StandardCharsets.UTF_8),
+        this.healthConfig.getAdminApiToken().getBytes(StandardCharsets.UTF_8)) ? null : HttpStatus.UNAUTHORIZED;
+  }
+
+  private ResponseEntity<EndpointChanges> change(final String authorization, final Supplier<EndpointChanges> change) {
+    final HttpStatus rejected = this.reject(authorization);
+    if (rejected != null) {
+      return ResponseEntity.status(rejected.value()).build();
+    }
+    try {
+      return ResponseEntity.ok(change.get());
+    } catch (final IllegalArgumentException e) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST.value()).build();
+    }
+  }
+}
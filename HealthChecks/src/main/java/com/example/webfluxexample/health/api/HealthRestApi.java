@@ -1,13 +1,21 @@
 package com.example.webfluxexample.health.api;
 
+import com.example.webfluxexample.health.codec.HealthProtobuf;
 import com.example.webfluxexample.health.config.HealthConfig;
 import com.example.webfluxexample.health.model.Health;
+import com.example.webfluxexample.health.model.HealthGraphUpdate;
+import com.example.webfluxexample.health.model.HealthStatistics;
+import com.example.webfluxexample.health.model.HealthUpdate;
 import com.example.webfluxexample.health.service.HealthApiService;
+import java.time.Duration;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -28,10 +36,12 @@ public class HealthRestApi {
 
   /**
    * Environment Health updates.
+   * Server-sent events by default, or length-delimited protobuf frames when accepting {@code application/x-protobuf}.
+   * Responds with service unavailable when the subscriber limit is reached.
    *
    * @return a stream of updates
    */
-  @GetMapping(value = "/updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @GetMapping(value = "/updates", produces = {MediaType.TEXT_EVENT_STREAM_VALUE, HealthProtobuf.MEDIA_TYPE_VALUE})
   public ResponseEntity<Flux<Health>> getHealthUpdates() {
     if (!this.healthConfig.isEnabled()) {
       return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED.value()).build();
@@ -40,16 +50,96 @@ public class HealthRestApi {
   }
 
   /**
-   * Health snapshot.
+   * Environment Health deltas.
+   * Sends a snapshot first, then only the services that changed, plus periodic heartbeats.
    *
+   * @return a stream of snapshot, delta and heartbeat events
+   */
+  @GetMapping(value = "/updates", params = "mode=delta", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<Flux<ServerSentEvent<HealthUpdate>>> getHealthDeltas() {
+    if (!this.healthConfig.isEnabled()) {
+      return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED.value()).build();
+    }
+    return ResponseEntity.ok(this.healthApiService.streamHealthDeltas());
+  }
+
+  /**
+   * Dependency graph of the services, with their own and rolled-up status.
+   *
+   * @return every node of the graph.
+   */
+  @GetMapping(value = "/graph", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<Mono<HealthGraphUpdate>> getHealthGraph() {
+    if (!this.healthConfig.isEnabled()) {
+      return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED.value()).build();
+    }
+    return ResponseEntity.ok(this.healthApiService.getHealthGraph());
+  }
+
+  /**
+   * Dependency graph changes.
+   * Sends a snapshot of the graph first, then only the nodes whose status changed, plus periodic heartbeats.
+   *
+   * @return a stream of snapshot, delta and heartbeat events
+   */
+  @GetMapping(value = "/graph/updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<Flux<ServerSentEvent<HealthGraphUpdate>>> getHealthGraphUpdates() {
+    if (!this.healthConfig.isEnabled()) {
+      return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED.value()).build();
+    }
+    return ResponseEntity.ok(this.healthApiService.streamHealthGraph());
+  }
+
+  /**
+   * Health snapshot, as JSON or as a length-delimited protobuf frame.
+   *
+   * @param maxStalenessMillis optional maximum age of each endpoint result, older results are probed again.
    * @return single health.
    */
-  @GetMapping(value = "/snapshot", produces = MediaType.APPLICATION_JSON_VALUE)
-  public ResponseEntity<Mono<Health>> getHealthSnapshot() {
+  @GetMapping(value = "/snapshot", produces = {MediaType.APPLICATION_JSON_VALUE, HealthProtobuf.MEDIA_TYPE_VALUE})
+  public ResponseEntity<Mono<Health>> getHealthSnapshot(
+      @RequestParam(required = false) final Long maxStalenessMillis) {
+    if (!this.healthConfig.isEnabled()) {
+      return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED.value()).build();
+    }
+    if (maxStalenessMillis == null) {
+      return ResponseEntity.ok(this.healthApiService.getHealthSnapshot());
+    }
+    return ResponseEntity.ok(this.healthApiService.getHealthSnapshot(Duration.ofMillis(maxStalenessMillis)));
+  }
+
+  /**
+   * Uptime and probe latency of every service.
+   *
+   * @param windowMillis optional window to report on.
+   * @return statistics per service.
+   */
+  @GetMapping(value = "/history", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<Flux<HealthStatistics>> getHealthHistory(
+      @RequestParam(required = false) final Long windowMillis) {
     if (!this.healthConfig.isEnabled()) {
       return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED.value()).build();
     }
-    return ResponseEntity.ok(this.healthApiService.getHealthSnapshot());
+    return ResponseEntity.ok(this.healthApiService.getHealthStatistics(windowMillis));
+  }
+
+  /**
+   * Uptime, probe latency and recent transitions of one service.
+   *
+   * @param serviceName the service name.
+   * @param windowMillis optional window to report on.
+   * @return statistics, or not found if the service has never been probed.
+   */
+  @GetMapping(value = "/history/{serviceName}", produces = MediaType.APPLICATION_JSON_VALUE)
+  public Mono<ResponseEntity<HealthStatistics>> getServiceHealthHistory(
+      @PathVariable final String serviceName,
+      @RequestParam(required = false) final Long windowMillis) {
+    if (!this.healthConfig.isEnabled()) {
+      return Mono.just(ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED.value()).build());
+    }
+    return this.healthApiService.getHealthStatistics(serviceName, windowMillis)
+        .map(ResponseEntity::ok)
+        .defaultIfEmpty(ResponseEntity.notFound().build());
   }
 
 }
@@ -0,0 +1,57 @@
+package com.example.webfluxexample.health.api;
+
+import com.example.webfluxexample.health.codec.HealthProtobufEncoder;
+import com.example.webfluxexample.health.config.HealthConfig;
+import com.example.webfluxexample.health.service.HealthApiService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Environment Health updates over WebSocket, one binary message per report holding a length-delimited
+ * protobuf frame.
+ * Closes with status 1013 (try again later) when the subscriber limit is reached.
+ */
+@Component
+public class HealthWebSocketHandler implements WebSocketHandler {
+  private static final Logger log = LoggerFactory.getLogger(HealthWebSocketHandler.class);
+
+  private final HealthApiService healthApiService;
+  private final HealthConfig healthConfig;
+  private final HealthProtobufEncoder encoder;
+
+  /**
+   * Constructor.
+   *
+   * @param healthApiService source of the updates
+   * @param healthConfig health configuration
+   * @param encoder encodes the reports, shared with the HTTP stream
+   */
+  public HealthWebSocketHandler(
+      final HealthApiService healthApiService,
+      final HealthConfig healthConfig,
+      final HealthProtobufEncoder encoder) {
+    this.healthApiService = healthApiService;
+    this.healthConfig = healthConfig;
+    this.encoder = encoder;
+  }
+
+  @Override
+  public Mono<Void> handle(final WebSocketSession session) {
+    if (!this.healthConfig.isEnabled()) {
+      return session.close(CloseStatus.POLICY_VIOLATION.withReason("Health checks are disabled"));
+    }
+    return session.send(this.healthApiService.streamHealthUpdates()
+            .map(health -> session.binaryMessage(factory -> factory.wrap(this.encoder.toDelimitedByteArray(health))))
+            .takeUntilOther(session.closeStatus()))
+        .onErrorResume(ResponseStatusException.class, e -> {
+          log.info("Rejecting WebSocket subscriber: {}", e.getReason());
+          return session.close(CloseStatus.SERVICE_OVERLOAD.withReason(e.getReason()));
+        });
+  }
+}
@@ -32,6 +32,7 @@ public class HealthCheckerTypes {
   private final MongoHealthChecker mongoHealthChecker;
 
   private final Map<Type, HealthChecker> healthCheckers = new EnumMap<>(HealthCheckerTypes.Type.class);
+  private final Map<Type, ReactiveHealthChecker> reactiveHealthCheckers = new EnumMap<>(HealthCheckerTypes.Type.class);
 
   /**
    * Initialize the lookup table of checkers/
@@ -41,6 +42,9 @@ public class HealthCheckerTypes {
     this.healthCheckers.put(Type.HTTP, this.httpHealthChecker);
     this.healthCheckers.put(Type.KAFKA, this.kafkaHealthChecker);
     this.healthCheckers.put(Type.MONGO, this.mongoHealthChecker);
+    this.reactiveHealthCheckers.put(Type.HTTP, this.httpHealthChecker);
+    this.reactiveHealthCheckers.put(Type.KAFKA, this.kafkaHealthChecker);
+    this.reactiveHealthCheckers.put(Type.MONGO, this.mongoHealthChecker);
   }
 
   /**
@@ -80,4 +84,25 @@ public class HealthCheckerTypes {
   public HealthChecker getCheckerForName(final String name) {
     return this.getCheckerForType(HealthCheckerTypes.fromName(name));
   }
+
+  /**
+   * Get reactive checker for a type.
+   *
+   * @param type the checker type.
+   * @return a ReactiveHealthChecker
+   */
+  public ReactiveHealthChecker getReactiveCheckerForType(final HealthCheckerTypes.Type type) {
+    Objects.requireNonNull(type);
+    return this.reactiveHealthCheckers.get(type);
+  }
+
+  /**
+   * Get reactive checker for a type name.
+   *
+   * @param name the checker type name.
+   * @return a ReactiveHealthChecker
+   */
+  public ReactiveHealthChecker getReactiveCheckerForName(final String name) {
+    return this.getReactiveCheckerForType(HealthCheckerTypes.fromName(name));
+  }
 }
@@ -1,58 +1,59 @@
 package com.example.webfluxexample.health.checkers;
 
 import com.example.webfluxexample.health.config.HealthEndpoint;
-import com.example.webfluxexample.health.web.SecureWebClient;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import com.example.webfluxexample.health.web.WebClientRegistry;
 import java.time.Duration;
 import java.util.Objects;
-import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.util.DefaultUriBuilderFactory;
-import org.springframework.web.util.UriBuilderFactory;
+import reactor.core.publisher.Mono;
 
 @Component
-public class HttpHealthChecker  implements HealthChecker {
+public class HttpHealthChecker  implements HealthChecker, ReactiveHealthChecker {
   private static final Logger log = LoggerFactory.getLogger(HttpHealthChecker.class);
   public static final Duration WEB_CLIENT_DURATION = Duration.ofSeconds(10);
 
-  private static final UriBuilderFactory uriBuilderFactory = new DefaultUriBuilderFactory();
+  private final WebClientRegistry webClientRegistry;
+
+  public HttpHealthChecker(final WebClientRegistry webClientRegistry) {
+    this.webClientRegistry = webClientRegistry;
+  }
 
   @Override
   public boolean isHealthy(final HealthEndpoint endpoint) {
+    return this.checkHealth(endpoint)
+        .map(ServiceHealth::healthy)
+        .blockOptional()
+        .orElse(false);
+  }
+
+  @Override
+  public Mono<ServiceHealth> checkHealth(final HealthEndpoint endpoint) {
 
     Objects.requireNonNull(endpoint);
     if (endpoint.host() == null || endpoint.host().isEmpty()) {
-      throw new RuntimeException("Health endpoint requires host:" +  endpoint);
-    }
-
-    String scheme = endpoint.scheme();
-    if (scheme == null || scheme.isEmpty()) {
-      scheme = "http";
+      return Mono.error(new RuntimeException("Health endpoint requires host:" +  endpoint));
     }
 
-    try {
-      final String url = uriBuilderFactory.builder()
-          .scheme(scheme)
-          .host(endpoint.host())
-          .port(endpoint.port())
-          .path(endpoint.path())
-          .build()
-          .toString();
-
-      log.debug("Checking health endpoint: {}", url);
-
-      final WebClient webClient = url.startsWith("https") ? SecureWebClient.getInsecureTrustWebClient(url) : WebClient.create(url);
-      final Optional<ResponseEntity<Void>> response = webClient.get().retrieve().toBodilessEntity().blockOptional(WEB_CLIENT_DURATION);
-      if (response.isEmpty() || response.get().getStatusCode().isError()) {
-        return false;
-      }
-    } catch (final Exception e) {
-      log.debug("Health check failed while checking {}", endpoint.serviceName(), e);
-      return false;
-    }
-    return true;
+    final String scheme = endpoint.scheme() == null || endpoint.scheme().isEmpty() ? "http" : endpoint.scheme();
+    return Mono.defer(() -> {
+          final WebClient webClient = this.webClientRegistry.getWebClient(scheme, endpoint.host(), endpoint.port());
+          log.debug("Checking health endpoint: {}://{}:{}{}", scheme, endpoint.host(), endpoint.port(), endpoint.path());
+          return webClient.get()
+              .uri(uriBuilder -> uriBuilder.path(endpoint.path()).build())
+              .retrieve()
+              .toBodilessEntity();
+        })
+        .timeout(WEB_CLIENT_DURATION)
+        .map(response -> !response.getStatusCode().isError())
+        .defaultIfEmpty(false)
+        .onErrorResume(e -> {
+          log.debug("Health check failed while checking {}", endpoint.serviceName(), e);
+          return Mono.just(false);
+        })
+        .map(healthy -> new ServiceHealth(endpoint.serviceName(), healthy));
   }
 }
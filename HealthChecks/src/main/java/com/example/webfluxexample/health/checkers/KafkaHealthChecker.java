@@ -1,34 +1,149 @@
 package com.example.webfluxexample.health.checkers;
 
 import com.example.webfluxexample.health.config.HealthEndpoint;
-import org.apache.kafka.clients.admin.Admin;
-import org.apache.kafka.clients.admin.DescribeClusterOptions;
-import org.apache.kafka.clients.admin.DescribeClusterResult;
+import com.example.webfluxexample.health.config.KafkaHealthConfig;
+import com.example.webfluxexample.health.kafka.KafkaCanary;
+import com.example.webfluxexample.health.kafka.KafkaCluster;
+import com.example.webfluxexample.health.kafka.KafkaClusterRegistry;
+import com.example.webfluxexample.health.kafka.KafkaClusterSnapshot;
+import com.example.webfluxexample.health.model.HealthStatus;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
+/**
+ * Checks a Kafka cluster from its background-refreshed metadata snapshot, so a probe makes no round trip.
+ * The endpoint is healthy when the cluster was described recently, every partition of its topics has a leader,
+ * and its consumer groups lag by no more than the configured maximum.
+ * Endpoints with canary topics are also deep probed with a canary round trip through every partition of those
+ * topics, in parallel with the snapshot. The details then report the produce and end-to-end latency of each
+ * partition, and the endpoint is degraded while some partitions fail the round trip and down while all do.
+ */
 @Component
-public class KafkaHealthChecker implements HealthChecker {
+public class KafkaHealthChecker implements HealthChecker, ReactiveHealthChecker {
 
-  private final Admin admin;
+  private final KafkaClusterRegistry clusterRegistry;
+  private final KafkaHealthConfig config;
 
-  public KafkaHealthChecker(final Admin admin) {
-    this.admin = admin;
+  public KafkaHealthChecker(final KafkaClusterRegistry clusterRegistry, final KafkaHealthConfig config) {
+    this.clusterRegistry = clusterRegistry;
+    this.config = config;
   }
 
   @Override
   public boolean isHealthy(final HealthEndpoint endpoint) {
-    final DescribeClusterOptions options = new DescribeClusterOptions()
-        .timeoutMs(1000);
+    return this.checkHealth(endpoint)
+        .map(ServiceHealth::healthy)
+        .blockOptional()
+        .orElse(false);
+  }
+
+  @Override
+  public Mono<ServiceHealth> checkHealth(final HealthEndpoint endpoint) {
+    if (endpoint.canaryTopics().isEmpty()) {
+      return Mono.defer(() -> this.clusterRegistry.getCluster(endpoint).snapshot(endpoint.topics(), endpoint.consumerGroups()))
+          .map(snapshot -> this.evaluate(endpoint, snapshot));
+    }
+    return Mono.defer(() -> {
+      final KafkaCluster cluster = this.clusterRegistry.getCluster(endpoint);
+      return Mono.zip(
+              cluster.snapshot(endpoint.topics(), endpoint.consumerGroups()),
+              cluster.canary(endpoint.canaryTopics(), Duration.ofMillis(this.config.getCanaryTimeoutMillis()))
+                  .map(CanaryOutcome::new)
+                  .onErrorResume(e -> Mono.just(new CanaryOutcome(String.valueOf(e.getMessage())))))
+          .map(result -> this.evaluateCanary(this.evaluate(endpoint, result.getT1()), result.getT2()));
+    });
+  }
+
+  private record CanaryOutcome(List<KafkaCanary.PartitionResult> partitions, String error) {
+    private CanaryOutcome(final List<KafkaCanary.PartitionResult> partitions) {
+      this(partitions, null);
+    }
 
-    final DescribeClusterResult clusterDescription = this.admin.describeCluster(options);
+    private CanaryOutcome(final String error) {
+      this(List.of(), error);
+    }
+  }
+
+  private ServiceHealth evaluateCanary(final ServiceHealth clusterHealth, final CanaryOutcome canary) {
+    final Map<String, Object> details = new LinkedHashMap<>(clusterHealth.details());
+    HealthStatus status = clusterHealth.status();
+    if (canary.error() != null) {
+      details.put("canaryError", canary.error());
+      return new ServiceHealth(clusterHealth.serviceName(), HealthStatus.DOWN, Collections.unmodifiableMap(details));
+    }
+
+    final Map<String, Object> partitions = new LinkedHashMap<>();
+    int failed = 0;
+    for (final KafkaCanary.PartitionResult partition : canary.partitions()) {
+      final Map<String, Object> result = new LinkedHashMap<>();
+      if (partition.produceNanos() >= 0) {
+        result.put("produceMillis", toMillis(partition.produceNanos()));
+      }
+      if (partition.endToEndNanos() >= 0) {
+        result.put("endToEndMillis", toMillis(partition.endToEndNanos()));
+      }
+      if (partition.error() != null) {
+        result.put("error", partition.error());
+        failed++;
+      }
+      partitions.put(partition.partition(), result);
+    }
+    details.put("canary", partitions);
 
-    // In order to trip health indicator DOWN retrieve data from one of  future objects otherwise indicator is UP even when Kafka is down!!!
-    // When Kafka is not connected future.get() throws an exception which in turn sets the indicator DOWN.
-    try {
-      clusterDescription.clusterId().get();
-    } catch (final Exception e) {
-      return false;
+    if (canary.partitions().isEmpty() || failed == canary.partitions().size()) {
+      status = HealthStatus.DOWN;
+    } else if (failed > 0) {
+      status = status.worst(HealthStatus.DEGRADED);
     }
-    return true;
+    return new ServiceHealth(clusterHealth.serviceName(), status, Collections.unmodifiableMap(details));
+  }
+
+  private static double toMillis(final long nanos) {
+    return TimeUnit.NANOSECONDS.toMicros(nanos) / 1000.0;
+  }
+
+  private ServiceHealth evaluate(final HealthEndpoint endpoint, final KafkaClusterSnapshot snapshot) {
+    final Map<String, Object> details = new LinkedHashMap<>();
+    boolean healthy = snapshot.error() == null;
+    if (snapshot.error() != null) {
+      details.put("error", snapshot.error());
+    } else {
+      details.put("clusterId", snapshot.clusterId());
+      details.put("brokers", snapshot.brokers());
+    }
+
+    final long ageMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - snapshot.lastSuccessNanos());
+    if (snapshot.lastSuccessNanos() == 0 || ageMillis > this.config.getMaxStalenessMillis()) {
+      healthy = false;
+    }
+
+    final List<String> unavailableTopics = endpoint.topics().stream()
+        .filter(topic -> !snapshot.topicLeaders().getOrDefault(topic, false))
+        .toList();
+    if (!unavailableTopics.isEmpty()) {
+      healthy = false;
+      details.put("unavailableTopics", unavailableTopics);
+    }
+
+    if (!endpoint.consumerGroups().isEmpty()) {
+      final Map<String, Long> lag = new LinkedHashMap<>();
+      for (final String group : endpoint.consumerGroups()) {
+        final long groupLag = snapshot.consumerLag().getOrDefault(group, -1L);
+        lag.put(group, groupLag);
+        if (groupLag < 0 || (this.config.getMaxConsumerLag() > 0 && groupLag > this.config.getMaxConsumerLag())) {
+          healthy = false;
+        }
+      }
+      details.put("consumerLag", lag);
+    }
+
+    return new ServiceHealth(endpoint.serviceName(), healthy, Collections.unmodifiableMap(details));
   }
 }
@@ -1,25 +1,93 @@
 package com.example.webfluxexample.health.checkers;
 
 import com.example.webfluxexample.health.config.HealthEndpoint;
-import org.springframework.data.mongodb.core.MongoTemplate;
+import com.example.webfluxexample.health.model.HealthStatus;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import com.example.webfluxexample.health.mongo.MongoClientRegistry;
+import com.mongodb.MongoCommandException;
+import com.mongodb.connection.ServerConnectionState;
+import com.mongodb.connection.ServerDescription;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.bson.Document;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
+/**
+ * Checks a Mongo deployment with the {@code hello} command on the reactive driver, falling back to
+ * {@code isMaster} for servers that predate {@code hello}.
+ * A replica set is healthy only while it has a primary, and degraded while any member is unreachable.
+ * The details report the command round trip time and the state and round trip time of each member,
+ * as last seen by the driver's background monitoring.
+ */
 @Component
-public class MongoHealthChecker implements HealthChecker {
+public class MongoHealthChecker implements HealthChecker, ReactiveHealthChecker {
 
-  private final MongoTemplate mongoTemplate;
+  private final MongoClientRegistry clientRegistry;
 
-  public MongoHealthChecker(final MongoTemplate mongoTemplate) {
-    this.mongoTemplate = mongoTemplate;
+  public MongoHealthChecker(final MongoClientRegistry clientRegistry) {
+    this.clientRegistry = clientRegistry;
   }
 
   @Override
   public boolean isHealthy(final HealthEndpoint endpoint) {
-    try {
-      this.mongoTemplate.executeCommand("{ isMaster: 1 }");
-    } catch (final Exception exception) {
-      return false;
+    return this.checkHealth(endpoint)
+        .map(ServiceHealth::healthy)
+        .blockOptional()
+        .orElse(false);
+  }
+
+  @Override
+  public Mono<ServiceHealth> checkHealth(final HealthEndpoint endpoint) {
+    return Mono.defer(() -> {
+          final MongoClient client = this.clientRegistry.getClient(endpoint);
+          final MongoDatabase admin = client.getDatabase("admin");
+          final long start = System.nanoTime();
+          return Mono.from(admin.runCommand(new Document("hello", 1)))
+              .onErrorResume(MongoCommandException.class, e -> Mono.from(admin.runCommand(new Document("isMaster", 1))))
+              .map(reply -> this.evaluate(endpoint, client, reply, System.nanoTime() - start));
+        })
+        .onErrorResume(e -> Mono.just(new ServiceHealth(endpoint.serviceName(), false, Map.of("error", String.valueOf(e.getMessage())))));
+  }
+
+  private ServiceHealth evaluate(final HealthEndpoint endpoint, final MongoClient client, final Document reply, final long rttNanos) {
+    final Map<String, Object> details = new LinkedHashMap<>();
+    details.put("rttMillis", toMillis(rttNanos));
+
+    HealthStatus status = HealthStatus.UP;
+    final String setName = reply.getString("setName");
+    if (setName != null) {
+      final String primary = reply.getString("primary");
+      details.put("setName", setName);
+      details.put("primary", primary);
+      status = primary != null ? HealthStatus.UP : HealthStatus.DOWN;
     }
-    return true;
+
+    final List<ServerDescription> servers = client.getClusterDescription().getServerDescriptions();
+    if (!servers.isEmpty()) {
+      details.put("members", servers.stream().map(MongoHealthChecker::member).toList());
+      if (status == HealthStatus.UP && servers.stream().anyMatch(server -> server.getState() != ServerConnectionState.CONNECTED)) {
+        status = HealthStatus.DEGRADED;
+      }
+    }
+    return new ServiceHealth(endpoint.serviceName(), status, Collections.unmodifiableMap(details));
+  }
+
+  private static Map<String, Object> member(final ServerDescription server) {
+    final Map<String, Object> member = new LinkedHashMap<>();
+    member.put("address", server.getAddress().toString());
+    member.put("type", server.getType().name());
+    member.put("state", server.getState().name());
+    member.put("rttMillis", toMillis(server.getRoundTripTimeNanos()));
+    return member;
+  }
+
+  private static double toMillis(final long nanos) {
+    return TimeUnit.NANOSECONDS.toMicros(nanos) / 1000.0;
   }
 }
@@ -0,0 +1,13 @@
+package com.example.webfluxexample.health.checkers;
+
+import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking health checker.
+ * Implementations must not block the subscribing thread; failures are reported as an unhealthy {@link ServiceHealth}.
+ */
+public interface ReactiveHealthChecker {
+  Mono<ServiceHealth> checkHealth(HealthEndpoint endpoint);
+}
@@ -1,14 +1,16 @@
 package com.example.webfluxexample.health.checkers;
 
 import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.model.ServiceHealth;
 import java.util.Objects;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 /**
  * The type Type aware health checker.
  */
 @Component("top-level-checker")
-public class TypeAwareHealthChecker implements HealthChecker {
+public class TypeAwareHealthChecker implements HealthChecker, ReactiveHealthChecker {
   private final HealthCheckerTypes healthCheckType;
 
   /**
@@ -22,6 +24,21 @@ public class TypeAwareHealthChecker implements HealthChecker {
 
   @Override
   public boolean isHealthy(final HealthEndpoint endpoint) {
+    validate(endpoint);
+    return this.healthCheckType.getCheckerForName(endpoint.type()).isHealthy(endpoint);
+  }
+
+  @Override
+  public Mono<ServiceHealth> checkHealth(final HealthEndpoint endpoint) {
+    try {
+      validate(endpoint);
+      return this.healthCheckType.getReactiveCheckerForName(endpoint.type()).checkHealth(endpoint);
+    } catch (final RuntimeException e) {
+      return Mono.error(e);
+    }
+  }
+
+  private static void validate(final HealthEndpoint endpoint) {
     Objects.requireNonNull(endpoint);
     if (!endpoint.enabled()) {
       throw new RuntimeException("Asked to check disabled health endpoint: " + endpoint);
@@ -29,6 +46,5 @@ public class TypeAwareHealthChecker implements HealthChecker {
     if (endpoint.serviceName() == null || endpoint.serviceName().isEmpty()) {
       throw new RuntimeException("Health endpoint requires service name: {}" + endpoint);
     }
-    return this.healthCheckType.getCheckerForName(endpoint.type()).isHealthy(endpoint);
   }
 }
@@ -0,0 +1,215 @@
+package com.example.webfluxexample.health.codec;
+
+import com.example.webfluxexample.health.model.Health;
+import com.example.webfluxexample.health.model.HealthStatus;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.NullValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.Value;
+import com.google.protobuf.WireFormat;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.util.MimeType;
+
+/**
+ * Protobuf encoding of {@link Health} reports, following {@code src/main/proto/health.proto}.
+ * The records are written directly with {@link CodedOutputStream} into a buffer of the exact size, without
+ * building intermediate message objects; only non-empty details go through {@link Struct}.
+ */
+public final class HealthProtobuf {
+
+  public static final MimeType MIME_TYPE = new MimeType("application", "x-protobuf");
+  public static final String MEDIA_TYPE_VALUE = "application/x-protobuf";
+
+  private static final int HEALTH_TIMESTAMP = 1;
+  private static final int HEALTH_HEALTH_LIST = 2;
+  private static final int SERVICE_NAME = 1;
+  private static final int SERVICE_HEALTHY = 2;
+  private static final int SERVICE_STATUS = 3;
+  private static final int SERVICE_DETAILS = 4;
+
+  private static final HealthStatus[] STATUSES = {HealthStatus.UP, HealthStatus.SLOW, HealthStatus.DEGRADED, HealthStatus.DOWN};
+
+  private HealthProtobuf() {
+  }
+
+  /**
+   * Encode a report as one length-delimited frame.
+   *
+   * @param health the report
+   * @return the varint length followed by the message
+   */
+  public static byte[] toDelimitedByteArray(final Health health) {
+    final Timestamp timestamp = toTimestamp(health.timestamp());
+    final List<ServiceHealth> healthList = health.healthList();
+    final Struct[] details = new Struct[healthList.size()];
+    final int[] sizes = new int[healthList.size()];
+    int size = CodedOutputStream.computeMessageSize(HEALTH_TIMESTAMP, timestamp);
+    for (int index = 0; index < healthList.size(); index++) {
+      final ServiceHealth serviceHealth = healthList.get(index);
+      details[index] = serviceHealth.details().isEmpty() ? null : toStruct(serviceHealth.details());
+      sizes[index] = serializedSize(serviceHealth, details[index]);
+      size += CodedOutputStream.computeTagSize(HEALTH_HEALTH_LIST) + CodedOutputStream.computeUInt32SizeNoTag(sizes[index]) + sizes[index];
+    }
+
+    final byte[] bytes = new byte[CodedOutputStream.computeUInt32SizeNoTag(size) + size];
+    final CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+    try {
+      output.writeUInt32NoTag(size);
+      output.writeMessage(HEALTH_TIMESTAMP, timestamp);
+      for (int index = 0; index < healthList.size(); index++) {
+        output.writeTag(HEALTH_HEALTH_LIST, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(sizes[index]);
+        writeServiceHealth(output, healthList.get(index), details[index]);
+      }
+      output.checkNoSpaceLeft();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes;
+  }
+
+  /**
+   * Decode one length-delimited frame.
+   *
+   * @param input positioned at the start of a frame
+   * @return the report, or null at the end of the input
+   * @throws IOException if the frame is malformed
+   */
+  public static Health parseDelimitedFrom(final CodedInputStream input) throws IOException {
+    if (input.isAtEnd()) {
+      return null;
+    }
+    final int limit = input.pushLimit(input.readRawVarint32());
+    Instant timestamp = Instant.EPOCH;
+    final List<ServiceHealth> healthList = new ArrayList<>();
+    for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+      switch (WireFormat.getTagFieldNumber(tag)) {
+        case HEALTH_TIMESTAMP -> {
+          final Timestamp value = input.readMessage(Timestamp.parser(), ExtensionRegistryLite.getEmptyRegistry());
+          timestamp = Instant.ofEpochSecond(value.getSeconds(), value.getNanos());
+        }
+        case HEALTH_HEALTH_LIST -> {
+          final int serviceLimit = input.pushLimit(input.readRawVarint32());
+          healthList.add(readServiceHealth(input));
+          input.popLimit(serviceLimit);
+        }
+        default -> input.skipField(tag);
+      }
+    }
+    input.popLimit(limit);
+    return new Health(timestamp, healthList);
+  }
+
+  private static int serializedSize(final ServiceHealth serviceHealth, final Struct details) {
+    int size = CodedOutputStream.computeStringSize(SERVICE_NAME, serviceHealth.serviceName());
+    if (serviceHealth.healthy()) {
+      size += CodedOutputStream.computeBoolSize(SERVICE_HEALTHY, true);
+    }
+    if (serviceHealth.status().ordinal() != 0) {
+      size += CodedOutputStream.computeEnumSize(SERVICE_STATUS, statusNumber(serviceHealth.status()));
+    }
+    if (details != null) {
+      size += CodedOutputStream.computeMessageSize(SERVICE_DETAILS, details);
+    }
+    return size;
+  }
+
+  private static void writeServiceHealth(final CodedOutputStream output, final ServiceHealth serviceHealth, final Struct details) throws IOException {
+    output.writeString(SERVICE_NAME, serviceHealth.serviceName());
+    if (serviceHealth.healthy()) {
+      output.writeBool(SERVICE_HEALTHY, true);
+    }
+    if (serviceHealth.status().ordinal() != 0) {
+      output.writeEnum(SERVICE_STATUS, statusNumber(serviceHealth.status()));
+    }
+    if (details != null) {
+      output.writeMessage(SERVICE_DETAILS, details);
+    }
+  }
+
+  private static ServiceHealth readServiceHealth(final CodedInputStream input) throws IOException {
+    String serviceName = "";
+    HealthStatus status = HealthStatus.UP;
+    Map<String, Object> details = Map.of();
+    for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+      switch (WireFormat.getTagFieldNumber(tag)) {
+        case SERVICE_NAME -> serviceName = input.readStringRequireUtf8();
+        case SERVICE_STATUS -> {
+          final int number = input.readEnum();
+          status = number >= 0 && number < STATUSES.length ? STATUSES[number] : HealthStatus.DOWN;
+        }
+        case SERVICE_DETAILS -> details = fromStruct(input.readMessage(Struct.parser(), ExtensionRegistryLite.getEmptyRegistry()));
+        // The healthy flag is implied by the status.
+        default -> input.skipField(tag);
+      }
+    }
+    return new ServiceHealth(serviceName, status, details);
+  }
+
+  private static int statusNumber(final HealthStatus status) {
+    return switch (status) {
+      case UP -> 0;
+      case SLOW -> 1;
+      case DEGRADED -> 2;
+      case DOWN -> 3;
+    };
+  }
+
+  private static Timestamp toTimestamp(final Instant instant) {
+    return Timestamp.newBuilder()
+        .setSeconds(instant.getEpochSecond())
+        .setNanos(instant.getNano())
+        .build();
+  }
+
+  private static Struct toStruct(final Map<?, ?> map) {
+    final Struct.Builder struct = Struct.newBuilder();
+    map.forEach((key, value) -> struct.putFields(String.valueOf(key), toValue(value)));
+    return struct.build();
+  }
+
+  private static Value toValue(final Object value) {
+    if (value == null) {
+      return Value.newBuilder().setNullValue(NullValue.NULL_VALUE).build();
+    } else if (value instanceof Number number) {
+      return Value.newBuilder().setNumberValue(number.doubleValue()).build();
+    } else if (value instanceof Boolean bool) {
+      return Value.newBuilder().setBoolValue(bool).build();
+    } else if (value instanceof Map<?, ?> map) {
+      return Value.newBuilder().setStructValue(toStruct(map)).build();
+    } else if (value instanceof Iterable<?> iterable) {
+      final ListValue.Builder list = ListValue.newBuilder();
+      iterable.forEach(item -> list.addValues(toValue(item)));
+      return Value.newBuilder().setListValue(list).build();
+    }
+    return Value.newBuilder().setStringValue(String.valueOf(value)).build();
+  }
+
+  private static Map<String, Object> fromStruct(final Struct struct) {
+    final Map<String, Object> map = new LinkedHashMap<>();
+    struct.getFieldsMap().forEach((key, value) -> map.put(key, fromValue(value)));
+    return map;
+  }
+
+  private static Object fromValue(final Value value) {
+    return switch (value.getKindCase()) {
+      case NUMBER_VALUE -> value.getNumberValue();
+      case STRING_VALUE -> value.getStringValue();
+      case BOOL_VALUE -> value.getBoolValue();
+      case STRUCT_VALUE -> fromStruct(value.getStructValue());
+      case LIST_VALUE -> value.getListValue().getValuesList().stream().map(HealthProtobuf::fromValue).toList();
+      default -> null;
+    };
+  }
+}
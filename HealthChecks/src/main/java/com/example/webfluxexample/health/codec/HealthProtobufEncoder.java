@@ -0,0 +1,83 @@
+package com.example.webfluxexample.health.codec;
+
+import com.example.webfluxexample.health.model.Health;
+import java.util.List;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+/**
+ * Writes {@link Health} reports as length-delimited protobuf frames, one frame per report.
+ * Registered as a streaming media type, so every frame of an update stream is flushed as it is written.
+ * The last encoded report is kept, so a report fanned out to many subscribers is encoded once.
+ */
+public class HealthProtobufEncoder implements HttpMessageEncoder<Health> {
+
+  private static final List<MimeType> MIME_TYPES = List.of(HealthProtobuf.MIME_TYPE);
+  private static final List<MediaType> STREAMING_MEDIA_TYPES = List.of(MediaType.asMediaType(HealthProtobuf.MIME_TYPE));
+
+  private record Encoded(Health health, byte[] bytes) {
+  }
+
+  private volatile Encoded lastEncoded = new Encoded(null, null);
+
+  @Override
+  public boolean canEncode(final ResolvableType elementType, final MimeType mimeType) {
+    return Health.class.isAssignableFrom(elementType.toClass())
+        && mimeType != null
+        && HealthProtobuf.MIME_TYPE.isCompatibleWith(mimeType)
+        && !mimeType.isWildcardType();
+  }
+
+  @Override
+  public Flux<DataBuffer> encode(
+      final Publisher<? extends Health> inputStream,
+      final DataBufferFactory bufferFactory,
+      final ResolvableType elementType,
+      final MimeType mimeType,
+      final Map<String, Object> hints) {
+    return Flux.from(inputStream).map(health -> this.encodeValue(health, bufferFactory, elementType, mimeType, hints));
+  }
+
+  @Override
+  public DataBuffer encodeValue(
+      final Health health,
+      final DataBufferFactory bufferFactory,
+      final ResolvableType valueType,
+      final MimeType mimeType,
+      final Map<String, Object> hints) {
+    return bufferFactory.wrap(this.toDelimitedByteArray(health));
+  }
+
+  /**
+   * Encode a report, reusing the previous encoding of the same report.
+   *
+   * @param health the report
+   * @return the length-delimited frame, not to be modified
+   */
+  public byte[] toDelimitedByteArray(final Health health) {
+    final Encoded encoded = this.lastEncoded;
+    if (encoded.health() == health) {
+      return encoded.bytes();
+    }
+    final byte[] bytes = HealthProtobuf.toDelimitedByteArray(health);
+    this.lastEncoded = new Encoded(health, bytes);
+    return bytes;
+  }
+
+  @Override
+  public List<MimeType> getEncodableMimeTypes() {
+    return MIME_TYPES;
+  }
+
+  @Override
+  public List<MediaType> getStreamingMediaTypes() {
+    return STREAMING_MEDIA_TYPES;
+  }
+}
@@ -36,6 +36,190 @@ public class HealthConfig {
     this.periodMillis = periodMillis;
   }
 
+  public int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+
+  public void setMaxConcurrency(final int maxConcurrency) {
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  public long getProbeTimeoutMillis() {
+    return probeTimeoutMillis;
+  }
+
+  public void setProbeTimeoutMillis(final long probeTimeoutMillis) {
+    this.probeTimeoutMillis = probeTimeoutMillis;
+  }
+
+  public long getSweepTimeoutMillis() {
+    return sweepTimeoutMillis;
+  }
+
+  public void setSweepTimeoutMillis(final long sweepTimeoutMillis) {
+    this.sweepTimeoutMillis = sweepTimeoutMillis;
+  }
+
+  public long getHeartbeatMillis() {
+    return heartbeatMillis;
+  }
+
+  public void setHeartbeatMillis(final long heartbeatMillis) {
+    this.heartbeatMillis = heartbeatMillis;
+  }
+
+  public long getCoalesceMillis() {
+    return coalesceMillis;
+  }
+
+  public void setCoalesceMillis(final long coalesceMillis) {
+    this.coalesceMillis = coalesceMillis;
+  }
+
+  public boolean isAdaptiveSchedulingEnabled() {
+    return adaptiveSchedulingEnabled;
+  }
+
+  public void setAdaptiveSchedulingEnabled(final boolean adaptiveSchedulingEnabled) {
+    this.adaptiveSchedulingEnabled = adaptiveSchedulingEnabled;
+  }
+
+  public long getMinIntervalMillis() {
+    return minIntervalMillis;
+  }
+
+  public void setMinIntervalMillis(final long minIntervalMillis) {
+    this.minIntervalMillis = minIntervalMillis;
+  }
+
+  public long getMaxIntervalMillis() {
+    return maxIntervalMillis;
+  }
+
+  public void setMaxIntervalMillis(final long maxIntervalMillis) {
+    this.maxIntervalMillis = maxIntervalMillis;
+  }
+
+  public double getJitterRatio() {
+    return jitterRatio;
+  }
+
+  public void setJitterRatio(final double jitterRatio) {
+    this.jitterRatio = jitterRatio;
+  }
+
+  public long getSnapshotMaxStalenessMillis() {
+    return snapshotMaxStalenessMillis;
+  }
+
+  public void setSnapshotMaxStalenessMillis(final long snapshotMaxStalenessMillis) {
+    this.snapshotMaxStalenessMillis = snapshotMaxStalenessMillis;
+  }
+
+  public int getHistorySize() {
+    return historySize;
+  }
+
+  public void setHistorySize(final int historySize) {
+    this.historySize = historySize;
+  }
+
+  public long getHistoryWindowMillis() {
+    return historyWindowMillis;
+  }
+
+  public void setHistoryWindowMillis(final long historyWindowMillis) {
+    this.historyWindowMillis = historyWindowMillis;
+  }
+
+  public int getStreamBufferSize() {
+    return streamBufferSize;
+  }
+
+  public void setStreamBufferSize(final int streamBufferSize) {
+    this.streamBufferSize = streamBufferSize;
+  }
+
+  public String getStreamOverflow() {
+    return streamOverflow;
+  }
+
+  public void setStreamOverflow(final String streamOverflow) {
+    this.streamOverflow = streamOverflow;
+  }
+
+  public int getStreamMaxSubscribers() {
+    return streamMaxSubscribers;
+  }
+
+  public void setStreamMaxSubscribers(final int streamMaxSubscribers) {
+    this.streamMaxSubscribers = streamMaxSubscribers;
+  }
+
+  public long getStreamIdleTimeoutMillis() {
+    return streamIdleTimeoutMillis;
+  }
+
+  public void setStreamIdleTimeoutMillis(final long streamIdleTimeoutMillis) {
+    this.streamIdleTimeoutMillis = streamIdleTimeoutMillis;
+  }
+
+  public long getLatencyThresholdMillis() {
+    return latencyThresholdMillis;
+  }
+
+  public void setLatencyThresholdMillis(final long latencyThresholdMillis) {
+    this.latencyThresholdMillis = latencyThresholdMillis;
+  }
+
+  public boolean isCircuitBreakerEnabled() {
+    return circuitBreakerEnabled;
+  }
+
+  public void setCircuitBreakerEnabled(final boolean circuitBreakerEnabled) {
+    this.circuitBreakerEnabled = circuitBreakerEnabled;
+  }
+
+  public int getCircuitBreakerFailureThreshold() {
+    return circuitBreakerFailureThreshold;
+  }
+
+  public void setCircuitBreakerFailureThreshold(final int circuitBreakerFailureThreshold) {
+    this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+  }
+
+  public long getCircuitBreakerOpenMillis() {
+    return circuitBreakerOpenMillis;
+  }
+
+  public void setCircuitBreakerOpenMillis(final long circuitBreakerOpenMillis) {
+    this.circuitBreakerOpenMillis = circuitBreakerOpenMillis;
+  }
+
+  public String getProbeExecution() {
+    return probeExecution;
+  }
+
+  public void setProbeExecution(final String probeExecution) {
+    this.probeExecution = probeExecution;
+  }
+
+  public boolean isAdminApiEnabled() {
+    return adminApiEnabled;
+  }
+
+  public void setAdminApiEnabled(final boolean adminApiEnabled) {
+    this.adminApiEnabled = adminApiEnabled;
+  }
+
+  public String getAdminApiToken() {
+    return adminApiToken;
+  }
+
+  public void setAdminApiToken(final String adminApiToken) {
+    this.adminApiToken = adminApiToken;
+  }
+
   public List<HealthEndpoint> getEndpoints() {
     return endpoints;
   }
@@ -47,5 +231,28 @@ public class HealthConfig {
   private boolean enabled;
   private long initialDelayMillis;
   private long periodMillis;
+  private int maxConcurrency;
+  private long probeTimeoutMillis;
+  private long sweepTimeoutMillis;
+  private long heartbeatMillis;
+  private long coalesceMillis;
+  private boolean adaptiveSchedulingEnabled;
+  private long minIntervalMillis;
+  private long maxIntervalMillis;
+  private double jitterRatio;
+  private long snapshotMaxStalenessMillis;
+  private int historySize;
+  private long historyWindowMillis;
+  private int streamBufferSize;
+  private String streamOverflow;
+  private int streamMaxSubscribers;
+  private long streamIdleTimeoutMillis;
+  private long latencyThresholdMillis;
+  private boolean circuitBreakerEnabled;
+  private int circuitBreakerFailureThreshold;
+  private long circuitBreakerOpenMillis;
+  private String probeExecution;
+  private boolean adminApiEnabled;
+  private String adminApiToken;
   private List<HealthEndpoint> endpoints;
 }
@@ -1,5 +1,16 @@
 package com.example.webfluxexample.health.config;
 
+import java.util.List;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+
+/**
+ * A configured health endpoint.
+ * The interval settings override the adaptive scheduling defaults in {@link HealthConfig} when greater than zero.
+ * Kafka endpoints may list topics that must have a leader for every partition, and consumer groups whose lag is checked.
+ * Kafka endpoints with canary topics are deep probed: a canary record is written to and read back from every partition.
+ * An endpoint may depend on other endpoints by service name; an unhealthy dependency degrades its rolled-up status.
+ * A healthy probe slower than the latency threshold reports the endpoint as slow, overriding the default when greater than zero.
+ */
 public record HealthEndpoint(
   boolean enabled,
   String type,
@@ -7,6 +18,32 @@ public record HealthEndpoint(
   String scheme,
   String host,
   int port,
-  String path
+  String path,
+  long minIntervalMillis,
+  long maxIntervalMillis,
+  List<String> topics,
+  List<String> consumerGroups,
+  List<String> dependsOn,
+  long latencyThresholdMillis,
+  List<String> canaryTopics
 ) {
+
+  @ConstructorBinding
+  public HealthEndpoint {
+    topics = topics == null ? List.of() : List.copyOf(topics);
+    consumerGroups = consumerGroups == null ? List.of() : List.copyOf(consumerGroups);
+    dependsOn = dependsOn == null ? List.of() : List.copyOf(dependsOn);
+    canaryTopics = canaryTopics == null ? List.of() : List.copyOf(canaryTopics);
+  }
+
+  public HealthEndpoint(
+      final boolean enabled,
+      final String type,
+      final String serviceName,
+      final String scheme,
+      final String host,
+      final int port,
+      final String path) {
+    this(enabled, type, serviceName, scheme, host, port, path, 0, 0, List.of(), List.of(), List.of(), 0, List.of());
+  }
 }
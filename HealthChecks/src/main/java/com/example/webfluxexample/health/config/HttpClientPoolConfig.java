@@ -0,0 +1,61 @@
+package com.example.webfluxexample.health.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "health-checks.http-client")
+public class HttpClientPoolConfig {
+
+  public int getMaxConnections() {
+    return maxConnections;
+  }
+
+  public void setMaxConnections(final int maxConnections) {
+    this.maxConnections = maxConnections;
+  }
+
+  public long getMaxIdleMillis() {
+    return maxIdleMillis;
+  }
+
+  public void setMaxIdleMillis(final long maxIdleMillis) {
+    this.maxIdleMillis = maxIdleMillis;
+  }
+
+  public long getMaxLifeMillis() {
+    return maxLifeMillis;
+  }
+
+  public void setMaxLifeMillis(final long maxLifeMillis) {
+    this.maxLifeMillis = maxLifeMillis;
+  }
+
+  public long getEvictionIntervalMillis() {
+    return evictionIntervalMillis;
+  }
+
+  public void setEvictionIntervalMillis(final long evictionIntervalMillis) {
+    this.evictionIntervalMillis = evictionIntervalMillis;
+  }
+
+  /**
+   * Maximum pooled connections per remote host.
+   */
+  private int maxConnections = 4;
+
+  /**
+   * Pooled connections and registered clients idle for longer than this are evicted.
+   */
+  private long maxIdleMillis = 60000;
+
+  /**
+   * Pooled connections older than this are closed, so DNS and certificate changes are picked up.
+   */
+  private long maxLifeMillis = 600000;
+
+  /**
+   * How often idle connections and clients are evicted in the background.
+   */
+  private long evictionIntervalMillis = 30000;
+}
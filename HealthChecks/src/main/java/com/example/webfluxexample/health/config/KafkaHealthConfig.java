@@ -0,0 +1,74 @@
+package com.example.webfluxexample.health.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "health-checks.kafka")
+public class KafkaHealthConfig {
+
+  public long getRefreshIntervalMillis() {
+    return refreshIntervalMillis;
+  }
+
+  public void setRefreshIntervalMillis(final long refreshIntervalMillis) {
+    this.refreshIntervalMillis = refreshIntervalMillis;
+  }
+
+  public long getMaxStalenessMillis() {
+    return maxStalenessMillis;
+  }
+
+  public void setMaxStalenessMillis(final long maxStalenessMillis) {
+    this.maxStalenessMillis = maxStalenessMillis;
+  }
+
+  public int getRequestTimeoutMillis() {
+    return requestTimeoutMillis;
+  }
+
+  public void setRequestTimeoutMillis(final int requestTimeoutMillis) {
+    this.requestTimeoutMillis = requestTimeoutMillis;
+  }
+
+  public long getMaxConsumerLag() {
+    return maxConsumerLag;
+  }
+
+  public void setMaxConsumerLag(final long maxConsumerLag) {
+    this.maxConsumerLag = maxConsumerLag;
+  }
+
+  public long getCanaryTimeoutMillis() {
+    return canaryTimeoutMillis;
+  }
+
+  public void setCanaryTimeoutMillis(final long canaryTimeoutMillis) {
+    this.canaryTimeoutMillis = canaryTimeoutMillis;
+  }
+
+  /**
+   * How often the metadata snapshot of each cluster is refreshed in the background.
+   */
+  private long refreshIntervalMillis = 5000;
+
+  /**
+   * A cluster whose last successful refresh is older than this is reported unhealthy.
+   */
+  private long maxStalenessMillis = 15000;
+
+  /**
+   * Timeout of each admin request made by a refresh.
+   */
+  private int requestTimeoutMillis = 3000;
+
+  /**
+   * Consumer groups lagging by more than this many records are reported unhealthy, 0 to only report the lag.
+   */
+  private long maxConsumerLag;
+
+  /**
+   * How long a canary round trip through one partition may take before the partition is reported unavailable.
+   */
+  private long canaryTimeoutMillis = 5000;
+}
@@ -0,0 +1,61 @@
+package com.example.webfluxexample.health.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "health-checks.mongo")
+public class MongoHealthConfig {
+
+  public int getConnectTimeoutMillis() {
+    return connectTimeoutMillis;
+  }
+
+  public void setConnectTimeoutMillis(final int connectTimeoutMillis) {
+    this.connectTimeoutMillis = connectTimeoutMillis;
+  }
+
+  public long getServerSelectionTimeoutMillis() {
+    return serverSelectionTimeoutMillis;
+  }
+
+  public void setServerSelectionTimeoutMillis(final long serverSelectionTimeoutMillis) {
+    this.serverSelectionTimeoutMillis = serverSelectionTimeoutMillis;
+  }
+
+  public long getHeartbeatFrequencyMillis() {
+    return heartbeatFrequencyMillis;
+  }
+
+  public void setHeartbeatFrequencyMillis(final long heartbeatFrequencyMillis) {
+    this.heartbeatFrequencyMillis = heartbeatFrequencyMillis;
+  }
+
+  public int getMaxPoolSize() {
+    return maxPoolSize;
+  }
+
+  public void setMaxPoolSize(final int maxPoolSize) {
+    this.maxPoolSize = maxPoolSize;
+  }
+
+  /**
+   * Timeout for opening a connection to a Mongo server.
+   */
+  private int connectTimeoutMillis = 2000;
+
+  /**
+   * How long a probe waits for a reachable server before failing.
+   */
+  private long serverSelectionTimeoutMillis = 2000;
+
+  /**
+   * How often the driver refreshes the state and round trip time of each replica set member.
+   */
+  private long heartbeatFrequencyMillis = 10000;
+
+  /**
+   * Maximum connections per Mongo server. Probes run one command at a time, so this can stay small.
+   */
+  private int maxPoolSize = 2;
+}
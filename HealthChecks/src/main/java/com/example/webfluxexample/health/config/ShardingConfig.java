@@ -0,0 +1,127 @@
+package com.example.webfluxexample.health.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "health-checks.sharding")
+public class ShardingConfig {
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(final boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public String getReplicaId() {
+    return replicaId;
+  }
+
+  public void setReplicaId(final String replicaId) {
+    this.replicaId = replicaId;
+  }
+
+  public String getTopic() {
+    return topic;
+  }
+
+  public void setTopic(final String topic) {
+    this.topic = topic;
+  }
+
+  public int getPartitions() {
+    return partitions;
+  }
+
+  public void setPartitions(final int partitions) {
+    this.partitions = partitions;
+  }
+
+  public short getReplicationFactor() {
+    return replicationFactor;
+  }
+
+  public void setReplicationFactor(final short replicationFactor) {
+    this.replicationFactor = replicationFactor;
+  }
+
+  public int getVirtualNodes() {
+    return virtualNodes;
+  }
+
+  public void setVirtualNodes(final int virtualNodes) {
+    this.virtualNodes = virtualNodes;
+  }
+
+  public long getHeartbeatMillis() {
+    return heartbeatMillis;
+  }
+
+  public void setHeartbeatMillis(final long heartbeatMillis) {
+    this.heartbeatMillis = heartbeatMillis;
+  }
+
+  public long getMemberTimeoutMillis() {
+    return memberTimeoutMillis;
+  }
+
+  public void setMemberTimeoutMillis(final long memberTimeoutMillis) {
+    this.memberTimeoutMillis = memberTimeoutMillis;
+  }
+
+  public long getResultTimeoutMillis() {
+    return resultTimeoutMillis;
+  }
+
+  public void setResultTimeoutMillis(final long resultTimeoutMillis) {
+    this.resultTimeoutMillis = resultTimeoutMillis;
+  }
+
+  /**
+   * Split the endpoints across replicas instead of probing every endpoint from every replica.
+   */
+  private boolean enabled;
+
+  /**
+   * Unique id of this replica, defaults to the host name.
+   */
+  private String replicaId;
+
+  /**
+   * Compacted topic the replicas share membership and probe results over.
+   */
+  private String topic = "health-checks-shards";
+
+  /**
+   * Partitions of the topic, when it is created by the replicas.
+   */
+  private int partitions = 1;
+
+  /**
+   * Replication factor of the topic, when it is created by the replicas.
+   */
+  private short replicationFactor = 1;
+
+  /**
+   * Points per replica on the consistent hash ring. More points spread endpoints more evenly.
+   */
+  private int virtualNodes = 64;
+
+  /**
+   * How often each replica announces itself.
+   */
+  private long heartbeatMillis = 5000;
+
+  /**
+   * Replicas not heard from in this long are dropped from the ring, and their endpoints move to the others.
+   */
+  private long memberTimeoutMillis = 20000;
+
+  /**
+   * Results shared by other replicas and not re-shared in this long are reported down. Owners re-share a
+   * result only when they probe the endpoint, so keep this above the adaptive max interval.
+   */
+  private long resultTimeoutMillis = 360000;
+}
@@ -1,9 +1,26 @@
 package com.example.webfluxexample.health.config;
 
+/**
+ * Keystore settings of a TLS client.
+ *
+ * @param trustStorePath location of the trust store
+ * @param trustStorePassword password of the trust store
+ * @param keyStorePath location of the key store holding the client key
+ * @param keyAlias alias of the client key in the key store
+ * @param keyStorePassword password of the key store and of the client key
+ */
 public record SslConfigProperties(
     String trustStorePath,
     String trustStorePassword,
+    String keyStorePath,
     String keyAlias,
     String keyStorePassword
 ) {
+
+  @Override
+  public String toString() {
+    return "SslConfigProperties[trustStorePath=" + this.trustStorePath
+        + ", keyStorePath=" + this.keyStorePath
+        + ", keyAlias=" + this.keyAlias + "]";
+  }
 }
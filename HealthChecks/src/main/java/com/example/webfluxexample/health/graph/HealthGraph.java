@@ -0,0 +1,200 @@
+package com.example.webfluxexample.health.graph;
+
+import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.model.HealthGraphUpdate;
+import com.example.webfluxexample.health.model.HealthNode;
+import com.example.webfluxexample.health.model.HealthStatus;
+import com.example.webfluxexample.health.model.HealthUpdate;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dependency graph of the health endpoints with incrementally rolled-up status.
+ * A service's rolled-up status is the worst of its own status and the impact of its dependencies:
+ * a slow dependency makes it slow, an unhealthy or degraded dependency degrades it.
+ * When a service's status changes only it and its transitive dependents are re-evaluated, and propagation
+ * stops at the first dependent whose rolled-up status does not change, so an update costs O(changed).
+ * Dependencies that would create a cycle are ignored.
+ * The graph can be reconfigured with new endpoints, keeping the last status of the services that remain.
+ */
+public class HealthGraph {
+  private static final Logger log = LoggerFactory.getLogger(HealthGraph.class);
+
+  private static final class Node {
+    private final String serviceName;
+    private final List<Node> dependencies = new ArrayList<>();
+    private final List<Node> dependents = new ArrayList<>();
+    private HealthStatus status;
+    private HealthStatus rolledUpStatus;
+
+    private Node(final String serviceName) {
+      this.serviceName = serviceName;
+    }
+
+    private HealthNode toHealthNode() {
+      return new HealthNode(
+          this.serviceName,
+          this.status,
+          this.rolledUpStatus,
+          this.dependencies.stream().map(dependency -> dependency.serviceName).toList());
+    }
+  }
+
+  private final Map<String, Node> nodes = new LinkedHashMap<>();
+  private long version;
+
+  /**
+   * Constructor.
+   *
+   * @param endpoints the endpoints, in report order
+   */
+  public HealthGraph(final List<HealthEndpoint> endpoints) {
+    this.build(endpoints);
+  }
+
+  private void build(final List<HealthEndpoint> endpoints) {
+    endpoints.forEach(endpoint -> this.nodes.put(endpoint.serviceName(), new Node(endpoint.serviceName())));
+    for (final HealthEndpoint endpoint : endpoints) {
+      final Node node = this.nodes.get(endpoint.serviceName());
+      for (final String dependencyName : endpoint.dependsOn()) {
+        final Node dependency = this.nodes.get(dependencyName);
+        if (dependency == null) {
+          log.warn("Ignoring unknown dependency {} of {}", dependencyName, endpoint.serviceName());
+        } else if (dependency == node || reaches(dependency, node)) {
+          log.warn("Ignoring dependency {} of {}, it would create a cycle", dependencyName, endpoint.serviceName());
+        } else {
+          node.dependencies.add(dependency);
+          dependency.dependents.add(node);
+        }
+      }
+    }
+  }
+
+  /**
+   * Rebuild the graph for new endpoints.
+   * Services that remain keep their own status, and every rolled-up status is recomputed.
+   *
+   * @param endpoints the new endpoints, in report order
+   * @return a snapshot of the rebuilt graph at a new version
+   */
+  public synchronized HealthGraphUpdate reconfigure(final List<HealthEndpoint> endpoints) {
+    final Map<String, Node> previous = new HashMap<>(this.nodes);
+    this.nodes.clear();
+    this.build(endpoints);
+    for (final Node node : this.nodes.values()) {
+      final Node old = previous.get(node.serviceName);
+      node.status = old == null ? null : old.status;
+    }
+    final Set<Node> rolledUp = new HashSet<>();
+    this.nodes.values().forEach(node -> rollUpDependenciesFirst(node, rolledUp));
+    this.version++;
+    return this.snapshot();
+  }
+
+  private static void rollUpDependenciesFirst(final Node node, final Set<Node> rolledUp) {
+    if (rolledUp.add(node)) {
+      node.dependencies.forEach(dependency -> rollUpDependenciesFirst(dependency, rolledUp));
+      node.rolledUpStatus = rollUp(node);
+    }
+  }
+
+  private static boolean reaches(final Node from, final Node to) {
+    final Deque<Node> pending = new ArrayDeque<>(List.of(from));
+    final Set<Node> visited = new HashSet<>();
+    while (!pending.isEmpty()) {
+      final Node node = pending.pop();
+      if (node == to) {
+        return true;
+      }
+      if (visited.add(node)) {
+        pending.addAll(node.dependencies);
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Apply probe results and roll up the status of the affected dependents.
+   * Results whose status did not change cost one comparison.
+   *
+   * @param results the probe results
+   * @return the nodes whose own or rolled-up status changed, or null if none did
+   */
+  public synchronized HealthGraphUpdate update(final Collection<ServiceHealth> results) {
+    final Set<Node> changed = new LinkedHashSet<>();
+    final Deque<Node> pending = new ArrayDeque<>();
+    for (final ServiceHealth result : results) {
+      final Node node = this.nodes.get(result.serviceName());
+      if (node != null && node.status != result.status()) {
+        node.status = result.status();
+        changed.add(node);
+        pending.add(node);
+      }
+    }
+
+    while (!pending.isEmpty()) {
+      final Node node = pending.poll();
+      final HealthStatus rolledUpStatus = rollUp(node);
+      if (rolledUpStatus != node.rolledUpStatus) {
+        node.rolledUpStatus = rolledUpStatus;
+        changed.add(node);
+        pending.addAll(node.dependents);
+      }
+    }
+
+    if (changed.isEmpty()) {
+      return null;
+    }
+    this.version++;
+    return new HealthGraphUpdate(
+        HealthUpdate.Type.DELTA,
+        this.version,
+        Instant.now(),
+        changed.stream().map(Node::toHealthNode).toList());
+  }
+
+  private static HealthStatus rollUp(final Node node) {
+    if (node.status == null) {
+      return null;
+    }
+    HealthStatus rolledUpStatus = node.status;
+    for (final Node dependency : node.dependencies) {
+      if (dependency.rolledUpStatus == HealthStatus.SLOW) {
+        rolledUpStatus = rolledUpStatus.worst(HealthStatus.SLOW);
+      } else if (dependency.rolledUpStatus == HealthStatus.DEGRADED || dependency.rolledUpStatus == HealthStatus.DOWN) {
+        rolledUpStatus = rolledUpStatus.worst(HealthStatus.DEGRADED);
+      }
+    }
+    return rolledUpStatus;
+  }
+
+  /**
+   * Every node of the graph.
+   *
+   * @return a snapshot at the current version
+   */
+  public synchronized HealthGraphUpdate snapshot() {
+    return new HealthGraphUpdate(
+        HealthUpdate.Type.SNAPSHOT,
+        this.version,
+        Instant.now(),
+        this.nodes.values().stream().map(Node::toHealthNode).toList());
+  }
+
+  public synchronized long getVersion() {
+    return this.version;
+  }
+}
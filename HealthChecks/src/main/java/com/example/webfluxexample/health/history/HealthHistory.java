@@ -0,0 +1,68 @@
+package com.example.webfluxexample.health.history;
+
+import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.model.HealthStatistics;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import com.example.webfluxexample.health.service.ProbeListener;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory probe history of every endpoint, for uptime and latency reporting.
+ */
+public class HealthHistory implements ProbeListener {
+
+  private final int capacity;
+  private final Map<String, ProbeHistory> histories = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param capacity the number of probes kept per endpoint
+   */
+  public HealthHistory(final int capacity) {
+    this.capacity = capacity;
+  }
+
+  @Override
+  public void onProbe(final HealthEndpoint endpoint, final ServiceHealth health, final long latencyNanos) {
+    this.histories
+        .computeIfAbsent(health.serviceName(), name -> new ProbeHistory(name, this.capacity))
+        .record(System.currentTimeMillis(), latencyNanos, health.healthy());
+  }
+
+  /**
+   * Statistics of one service.
+   *
+   * @param serviceName the service name
+   * @param windowMillis the window to report on
+   * @return the statistics, or null if the service has never been probed
+   */
+  public HealthStatistics getStatistics(final String serviceName, final long windowMillis) {
+    final ProbeHistory history = this.histories.get(serviceName);
+    return history == null ? null : history.statistics(System.currentTimeMillis(), windowMillis);
+  }
+
+  /**
+   * Statistics of every probed service.
+   *
+   * @param windowMillis the window to report on
+   * @return the statistics of each service
+   */
+  public List<HealthStatistics> getStatistics(final long windowMillis) {
+    final long now = System.currentTimeMillis();
+    return this.histories.values().stream()
+        .map(history -> history.statistics(now, windowMillis))
+        .toList();
+  }
+
+  /**
+   * Drop the history of a service that is no longer checked.
+   *
+   * @param serviceName the service name
+   */
+  public void forget(final String serviceName) {
+    this.histories.remove(serviceName);
+  }
+}
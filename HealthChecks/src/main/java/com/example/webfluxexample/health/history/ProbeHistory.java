@@ -0,0 +1,106 @@
+package com.example.webfluxexample.health.history;
+
+import com.example.webfluxexample.health.model.HealthStatistics;
+import com.example.webfluxexample.health.model.HealthTransition;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fixed-size ring buffer of the probe outcomes of one endpoint.
+ * Samples are kept in parallel primitive arrays, so recording a probe does not allocate.
+ */
+public class ProbeHistory {
+
+  private final String serviceName;
+  private final long[] timestampsMillis;
+  private final int[] latenciesMicros;
+  private final boolean[] healthy;
+  private int next;
+  private int size;
+
+  /**
+   * Constructor.
+   *
+   * @param serviceName the service name
+   * @param capacity the number of probes kept
+   */
+  public ProbeHistory(final String serviceName, final int capacity) {
+    this.serviceName = serviceName;
+    this.timestampsMillis = new long[capacity];
+    this.latenciesMicros = new int[capacity];
+    this.healthy = new boolean[capacity];
+  }
+
+  /**
+   * Record a probe, overwriting the oldest one when the buffer is full.
+   *
+   * @param timestampMillis when the probe finished
+   * @param latencyNanos how long the probe took
+   * @param isHealthy the probe outcome
+   */
+  public synchronized void record(final long timestampMillis, final long latencyNanos, final boolean isHealthy) {
+    this.timestampsMillis[this.next] = timestampMillis;
+    this.latenciesMicros[this.next] = (int) Math.min(Integer.MAX_VALUE, latencyNanos / 1000);
+    this.healthy[this.next] = isHealthy;
+    this.next = (this.next + 1) % this.timestampsMillis.length;
+    this.size = Math.min(this.size + 1, this.timestampsMillis.length);
+  }
+
+  /**
+   * Compute statistics over the probes that finished within the window.
+   *
+   * @param nowMillis the end of the window
+   * @param windowMillis the length of the window
+   * @return the statistics
+   */
+  public HealthStatistics statistics(final long nowMillis, final long windowMillis) {
+    final int[] latencies;
+    final List<HealthTransition> transitions = new ArrayList<>();
+    int samples = 0;
+    int healthyCount = 0;
+
+    synchronized (this) {
+      final int capacity = this.timestampsMillis.length;
+      final int oldest = (this.next - this.size + capacity) % capacity;
+      int first = this.size;
+      for (int offset = 0; offset < this.size; offset++) {
+        if (nowMillis - this.timestampsMillis[(oldest + offset) % capacity] <= windowMillis) {
+          first = offset;
+          break;
+        }
+      }
+
+      latencies = new int[this.size - first];
+      for (int offset = first; offset < this.size; offset++) {
+        final int index = (oldest + offset) % capacity;
+        latencies[samples++] = this.latenciesMicros[index];
+        if (this.healthy[index]) {
+          healthyCount++;
+        }
+        if (offset > 0 && this.healthy[index] != this.healthy[(index - 1 + capacity) % capacity]) {
+          transitions.add(new HealthTransition(Instant.ofEpochMilli(this.timestampsMillis[index]), this.healthy[index]));
+        }
+      }
+    }
+
+    Arrays.sort(latencies);
+    return new HealthStatistics(
+        this.serviceName,
+        windowMillis,
+        samples,
+        samples == 0 ? 0 : 100.0 * healthyCount / samples,
+        percentileMillis(latencies, 0.50),
+        percentileMillis(latencies, 0.99),
+        transitions);
+  }
+
+  private static double percentileMillis(final int[] sortedMicros, final double percentile) {
+    if (sortedMicros.length == 0) {
+      return 0;
+    }
+    final int rank = (int) Math.ceil(percentile * sortedMicros.length) - 1;
+    return sortedMicros[Math.max(0, rank)] / 1000.0;
+  }
+}
@@ -0,0 +1,341 @@
+package com.example.webfluxexample.health.kafka;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.DescribeTopicsOptions;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.config.SecurityConfig;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Canary round trips through the partitions of a Kafka cluster.
+ * A probe writes one canary record to every partition of its topics in parallel and waits for each to be read
+ * back, measuring the produce and end-to-end latency per partition.
+ * One producer and one consumer are kept for the lifetime of the cluster. The consumer is not in a consumer
+ * group: it is assigned the probed partitions from the end, on its own poll thread, and matches the records
+ * it reads to the pending probes by key. Records that are not canaries of this instance are skipped.
+ * Writes are sent from the canary's own sender thread, since a send blocks while the producer waits for
+ * metadata, so a probe never blocks the thread that subscribes to it.
+ */
+public class KafkaCanary implements AutoCloseable {
+  private static final Logger log = LoggerFactory.getLogger(KafkaCanary.class);
+
+  private static final Duration POLL_TIMEOUT = Duration.ofMillis(100);
+  private static final Set<String> CONNECTION_KEYS = Set.of(
+      CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG,
+      CommonClientConfigs.CLIENT_DNS_LOOKUP_CONFIG,
+      CommonClientConfigs.SECURITY_PROTOCOL_CONFIG,
+      SecurityConfig.SECURITY_PROVIDERS_CONFIG);
+  private static final List<String> SECURITY_PREFIXES = List.of("ssl.", "sasl.");
+
+  /**
+   * Outcome of the round trip through one partition.
+   *
+   * @param partition the topic and partition, such as orders-0
+   * @param produceNanos time until the write was acknowledged, -1 if it was not
+   * @param endToEndNanos time until the record was read back, -1 if it was not
+   * @param error why the round trip failed, null if it succeeded
+   */
+  public record PartitionResult(String partition, long produceNanos, long endToEndNanos, String error) {
+  }
+
+  private final String name;
+  private final Admin admin;
+  private final int requestTimeoutMillis;
+  private final Producer<byte[], byte[]> producer;
+  private final ExecutorService sender;
+  private final KafkaConsumer<byte[], byte[]> consumer;
+  private final String keyPrefix = UUID.randomUUID() + "-";
+  private final AtomicLong sequence = new AtomicLong();
+  private final Map<String, CompletableFuture<Long>> pending = new ConcurrentHashMap<>();
+  private final Queue<Runnable> consumerTasks = new ConcurrentLinkedQueue<>();
+  private final Set<TopicPartition> assigned = new HashSet<>();
+  private final Thread pollThread;
+  private volatile boolean running = true;
+
+  /**
+   * Constructor.
+   *
+   * @param name the cluster name, for logging
+   * @param admin the admin client of the cluster, used to list the partitions of the topics
+   * @param clientProperties settings of the cluster, only the bootstrap servers and security settings are used
+   * @param requestTimeoutMillis the timeout of each admin request and of each write
+   */
+  public KafkaCanary(
+      final String name,
+      final Admin admin,
+      final Map<String, Object> clientProperties,
+      final int requestTimeoutMillis) {
+    this(name, admin, clientProperties, requestTimeoutMillis, createProducer(name, clientProperties, requestTimeoutMillis));
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param name the cluster name, for logging
+   * @param admin the admin client of the cluster, used to list the partitions of the topics
+   * @param clientProperties settings of the cluster, only the bootstrap servers and security settings are used
+   * @param requestTimeoutMillis the timeout of each admin request and of each write
+   * @param producer writes the canary records, closed with the canary
+   */
+  KafkaCanary(
+      final String name,
+      final Admin admin,
+      final Map<String, Object> clientProperties,
+      final int requestTimeoutMillis,
+      final Producer<byte[], byte[]> producer) {
+    this.name = name;
+    this.admin = admin;
+    this.requestTimeoutMillis = requestTimeoutMillis;
+    this.producer = producer;
+    this.sender = Executors.newSingleThreadExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "kafka-canary-sender-" + name);
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    final Map<String, Object> consumerProperties = connectionProperties(clientProperties);
+    consumerProperties.put(ConsumerConfig.CLIENT_ID_CONFIG, "health-checks-canary-consumer-" + name);
+    consumerProperties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+    consumerProperties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+    consumerProperties.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+    consumerProperties.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, 50);
+    consumerProperties.put(ConsumerConfig.REQUEST_TIMEOUT_MS_CONFIG, requestTimeoutMillis);
+    consumerProperties.put(ConsumerConfig.DEFAULT_API_TIMEOUT_MS_CONFIG, requestTimeoutMillis);
+    consumerProperties.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+    consumerProperties.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+    this.consumer = new KafkaConsumer<>(consumerProperties);
+
+    this.pollThread = new Thread(this::pollLoop, "kafka-canary-" + name);
+    this.pollThread.setDaemon(true);
+    this.pollThread.start();
+  }
+
+  private static Producer<byte[], byte[]> createProducer(
+      final String name,
+      final Map<String, Object> clientProperties,
+      final int requestTimeoutMillis) {
+    final Map<String, Object> producerProperties = connectionProperties(clientProperties);
+    producerProperties.put(ProducerConfig.CLIENT_ID_CONFIG, "health-checks-canary-producer-" + name);
+    producerProperties.put(ProducerConfig.ACKS_CONFIG, "all");
+    producerProperties.put(ProducerConfig.LINGER_MS_CONFIG, 0);
+    producerProperties.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, requestTimeoutMillis);
+    producerProperties.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, requestTimeoutMillis);
+    producerProperties.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, requestTimeoutMillis);
+    producerProperties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+    producerProperties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+    return new KafkaProducer<>(producerProperties);
+  }
+
+  /**
+   * The connection and security settings of the cluster, without the admin client settings that the producer
+   * and consumer would log as unknown.
+   *
+   * @param clientProperties settings of the cluster
+   * @return a mutable copy of the connection and security settings
+   */
+  static Map<String, Object> connectionProperties(final Map<String, Object> clientProperties) {
+    final Map<String, Object> properties = new HashMap<>();
+    clientProperties.forEach((key, value) -> {
+      if (CONNECTION_KEYS.contains(key) || SECURITY_PREFIXES.stream().anyMatch(key::startsWith)) {
+        properties.put(key, value);
+      }
+    });
+    return properties;
+  }
+
+  /**
+   * Make a round trip through every partition of the given topics, in parallel.
+   *
+   * @param topics the canary topics
+   * @param timeout how long each round trip may take
+   * @return the result of every partition, or an error if the partitions could not be listed
+   */
+  public Mono<List<PartitionResult>> probe(final Collection<String> topics, final Duration timeout) {
+    return this.partitions(topics)
+        .flatMap(partitions -> this.assign(partitions)
+            .then(Flux.fromIterable(partitions)
+                .flatMap(partition -> this.roundTrip(partition, timeout))
+                .collectSortedList((a, b) -> a.partition().compareTo(b.partition()))));
+  }
+
+  /**
+   * Stop reading the partitions of the topics that are no longer probed.
+   *
+   * @param topics the canary topics still probed
+   */
+  public void retain(final Set<String> topics) {
+    this.consumerTasks.add(() -> {
+      if (this.assigned.removeIf(partition -> !topics.contains(partition.topic()))) {
+        this.consumer.assign(this.assigned);
+      }
+    });
+    this.consumer.wakeup();
+  }
+
+  private Mono<List<TopicPartition>> partitions(final Collection<String> topics) {
+    return Mono.fromCompletionStage(() -> this.admin
+            .describeTopics(Set.copyOf(topics), new DescribeTopicsOptions().timeoutMs(this.requestTimeoutMillis))
+            .allTopicNames()
+            .toCompletionStage())
+        .map(descriptions -> descriptions.values().stream()
+            .flatMap(description -> description.partitions().stream()
+                .map(partition -> new TopicPartition(description.name(), partition.partition())))
+            .toList());
+  }
+
+  /**
+   * Add partitions to the consumer's assignment, positioned at their end.
+   * Completes once the positions are known, so a canary written afterwards is read back.
+   */
+  private Mono<Void> assign(final List<TopicPartition> partitions) {
+    return Mono.defer(() -> {
+      final CompletableFuture<Void> assignment = new CompletableFuture<>();
+      this.consumerTasks.add(() -> {
+        final Set<TopicPartition> added = new HashSet<>(partitions);
+        added.removeAll(this.assigned);
+        if (!added.isEmpty()) {
+          this.assigned.addAll(added);
+          this.consumer.assign(this.assigned);
+          this.consumer.seekToEnd(added);
+        }
+        while (true) {
+          try {
+            added.forEach(this.consumer::position);
+            assignment.complete(null);
+            return;
+          } catch (final WakeupException e) {
+            // A wakeup meant for the poll, the positions are still wanted.
+          } catch (final RuntimeException e) {
+            this.assigned.removeAll(added);
+            this.consumer.assign(this.assigned);
+            assignment.completeExceptionally(e);
+            return;
+          }
+        }
+      });
+      this.consumer.wakeup();
+      return Mono.fromCompletionStage(assignment);
+    });
+  }
+
+  private Mono<PartitionResult> roundTrip(final TopicPartition partition, final Duration timeout) {
+    return Mono.defer(() -> {
+      final String key = this.keyPrefix + this.sequence.incrementAndGet();
+      final CompletableFuture<Long> received = new CompletableFuture<>();
+      this.pending.put(key, received);
+      final long start = System.nanoTime();
+      final CompletableFuture<Long> acknowledged = new CompletableFuture<>();
+      final ProducerRecord<byte[], byte[]> record = new ProducerRecord<>(partition.topic(), partition.partition(),
+          key.getBytes(StandardCharsets.UTF_8), ByteBuffer.allocate(Long.BYTES).putLong(System.currentTimeMillis()).array());
+      try {
+        this.sender.execute(() -> {
+          try {
+            this.producer.send(record, (metadata, e) -> {
+              if (e == null) {
+                acknowledged.complete(System.nanoTime());
+              } else {
+                acknowledged.completeExceptionally(e);
+              }
+            });
+          } catch (final RuntimeException e) {
+            acknowledged.completeExceptionally(e);
+          }
+        });
+      } catch (final RuntimeException e) {
+        acknowledged.completeExceptionally(e);
+      }
+      return Mono.fromCompletionStage(acknowledged)
+          .flatMap(acknowledgedNanos -> Mono.fromCompletionStage(received)
+              .map(receivedNanos -> new PartitionResult(partition.toString(), acknowledgedNanos - start, receivedNanos - start, null))
+              .timeout(timeout.minusNanos(acknowledgedNanos - start), Mono.just(
+                  new PartitionResult(partition.toString(), acknowledgedNanos - start, -1, "Not read back within " + timeout.toMillis() + " ms"))))
+          .timeout(timeout, Mono.error(new TimeoutException("Not acknowledged within " + timeout.toMillis() + " ms")))
+          .onErrorResume(e -> Mono.just(new PartitionResult(partition.toString(), -1, -1, String.valueOf(e.getMessage()))))
+          .doFinally(signal -> this.pending.remove(key));
+    });
+  }
+
+  private void pollLoop() {
+    try {
+      this.poll();
+    } finally {
+      this.consumer.close(Duration.ofMillis(this.requestTimeoutMillis));
+      this.pending.values().forEach(received -> received.cancel(false));
+    }
+  }
+
+  private void poll() {
+    while (this.running) {
+      try {
+        for (Runnable task = this.consumerTasks.poll(); task != null; task = this.consumerTasks.poll()) {
+          task.run();
+        }
+        if (this.assigned.isEmpty()) {
+          TimeUnit.MILLISECONDS.sleep(POLL_TIMEOUT.toMillis());
+          continue;
+        }
+        for (final ConsumerRecord<byte[], byte[]> record : this.consumer.poll(POLL_TIMEOUT)) {
+          if (record.key() != null) {
+            final CompletableFuture<Long> received = this.pending.remove(new String(record.key(), StandardCharsets.UTF_8));
+            if (received != null) {
+              received.complete(System.nanoTime());
+            }
+          }
+        }
+      } catch (final WakeupException e) {
+        // Woken up to run a task or to stop.
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (final RuntimeException e) {
+        log.debug("Kafka canary consumer of {} failed to poll", this.name, e);
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    this.running = false;
+    this.consumer.wakeup();
+    try {
+      this.pollThread.join(this.requestTimeoutMillis);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    this.sender.shutdownNow();
+    this.producer.close(Duration.ofMillis(this.requestTimeoutMillis));
+  }
+}
@@ -0,0 +1,278 @@
+package com.example.webfluxexample.health.kafka;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.DescribeClusterOptions;
+import org.apache.kafka.clients.admin.DescribeClusterResult;
+import org.apache.kafka.clients.admin.DescribeTopicsOptions;
+import org.apache.kafka.clients.admin.ListConsumerGroupOffsetsOptions;
+import org.apache.kafka.clients.admin.ListOffsetsOptions;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * One monitored Kafka cluster.
+ * Keeps a metadata snapshot that is refreshed in the background, so a probe only reads the snapshot.
+ * Topics and consumer groups are watched from the first probe that asks for them, until no endpoint probes them.
+ * The canary producer and consumer are created by the first deep probe, and kept until the cluster is closed.
+ */
+public class KafkaCluster implements AutoCloseable {
+  private static final Logger log = LoggerFactory.getLogger(KafkaCluster.class);
+
+  private final String name;
+  private final Admin admin;
+  private final boolean ownsAdmin;
+  private final int requestTimeoutMillis;
+  private final Map<String, Object> clientProperties;
+  private final Set<String> topics = ConcurrentHashMap.newKeySet();
+  private final Set<String> consumerGroups = ConcurrentHashMap.newKeySet();
+  private final AtomicReference<KafkaClusterSnapshot> snapshot = new AtomicReference<>();
+  private final Disposable refreshTask;
+  private Mono<KafkaClusterSnapshot> inFlight;
+  private long inFlightGeneration;
+  private long watchGeneration;
+  private long snapshotGeneration;
+  private KafkaCanary canary;
+
+  /**
+   * Constructor.
+   *
+   * @param name the cluster name, for logging
+   * @param admin the admin client of the cluster
+   * @param ownsAdmin whether the admin client is closed with the cluster
+   * @param refreshInterval how often the snapshot is refreshed
+   * @param requestTimeoutMillis the timeout of each admin request
+   * @param clientProperties connection settings of the cluster, for the canary producer and consumer
+   */
+  public KafkaCluster(
+      final String name,
+      final Admin admin,
+      final boolean ownsAdmin,
+      final Duration refreshInterval,
+      final int requestTimeoutMillis,
+      final Map<String, Object> clientProperties) {
+    this.name = name;
+    this.admin = admin;
+    this.ownsAdmin = ownsAdmin;
+    this.requestTimeoutMillis = requestTimeoutMillis;
+    this.clientProperties = Map.copyOf(clientProperties);
+    this.refreshTask = Schedulers.parallel().schedulePeriodically(
+        () -> this.refresh(0).subscribe(),
+        refreshInterval.toMillis(),
+        refreshInterval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Get the latest snapshot, covering the given topics and consumer groups.
+   * Only the first probe, or the first probe asking for a new topic or group, waits for a refresh. A probe that
+   * adds a topic or group does not join a refresh started before it did, since that refresh would not cover them.
+   *
+   * @param topics topics that must be in the snapshot
+   * @param consumerGroups consumer groups that must be in the snapshot
+   * @return the snapshot
+   */
+  public Mono<KafkaClusterSnapshot> snapshot(final Collection<String> topics, final Collection<String> consumerGroups) {
+    return Mono.defer(() -> {
+      final KafkaClusterSnapshot current = this.snapshot.get();
+      if (current != null && current.covers(topics, consumerGroups)) {
+        return Mono.just(current);
+      }
+      return this.refresh(this.watch(topics, consumerGroups));
+    });
+  }
+
+  /**
+   * Watch more topics and consumer groups.
+   *
+   * @return the watch generation a refresh must have started at to cover them
+   */
+  private synchronized long watch(final Collection<String> topics, final Collection<String> consumerGroups) {
+    final boolean addedTopics = this.topics.addAll(topics);
+    final boolean addedGroups = this.consumerGroups.addAll(consumerGroups);
+    if (addedTopics || addedGroups) {
+      this.watchGeneration++;
+    }
+    return this.watchGeneration;
+  }
+
+  /**
+   * Stop watching the topics and consumer groups that are no longer probed.
+   * They drop out of the snapshot at the next refresh.
+   *
+   * @param topics topics still probed
+   * @param consumerGroups consumer groups still probed
+   * @param canaryTopics canary topics still probed
+   */
+  public void retain(final Set<String> topics, final Set<String> consumerGroups, final Set<String> canaryTopics) {
+    this.topics.retainAll(topics);
+    this.consumerGroups.retainAll(consumerGroups);
+    synchronized (this) {
+      if (this.canary != null) {
+        this.canary.retain(canaryTopics);
+      }
+    }
+  }
+
+  /**
+   * Canary round trips through every partition of the given topics.
+   *
+   * @param topics the canary topics
+   * @param timeout how long each round trip may take
+   * @return the result of every partition
+   */
+  public Mono<List<KafkaCanary.PartitionResult>> canary(final Collection<String> topics, final Duration timeout) {
+    return Mono.defer(() -> this.getCanary().probe(topics, timeout));
+  }
+
+  private synchronized KafkaCanary getCanary() {
+    if (this.canary == null) {
+      log.info("Starting Kafka canary for {}", this.name);
+      this.canary = new KafkaCanary(this.name, this.admin, this.clientProperties, this.requestTimeoutMillis);
+    }
+    return this.canary;
+  }
+
+  /**
+   * Refresh the snapshot, joining the in-flight refresh if it started at the given watch generation or later.
+   *
+   * @param minGeneration the oldest watch generation the refresh may have started at
+   * @return the refreshed snapshot
+   */
+  private synchronized Mono<KafkaClusterSnapshot> refresh(final long minGeneration) {
+    if (this.inFlight == null || this.inFlightGeneration < minGeneration) {
+      final long generation = this.watchGeneration;
+      this.inFlightGeneration = generation;
+      this.inFlight = this.describe()
+          .doOnNext(refreshed -> this.publish(refreshed, generation))
+          .doFinally(signal -> this.clearInFlight(generation))
+          .cache();
+    }
+    return this.inFlight;
+  }
+
+  /**
+   * Publish a refreshed snapshot, unless a refresh that started later already published one.
+   */
+  private synchronized void publish(final KafkaClusterSnapshot refreshed, final long generation) {
+    if (generation >= this.snapshotGeneration) {
+      this.snapshotGeneration = generation;
+      this.snapshot.set(refreshed);
+    }
+  }
+
+  private synchronized void clearInFlight(final long generation) {
+    if (this.inFlightGeneration == generation) {
+      this.inFlight = null;
+    }
+  }
+
+  private Mono<KafkaClusterSnapshot> describe() {
+    final DescribeClusterResult cluster = this.admin.describeCluster(new DescribeClusterOptions().timeoutMs(this.requestTimeoutMillis));
+    return Mono.zip(
+            Mono.fromCompletionStage(cluster.clusterId().toCompletionStage()),
+            Mono.fromCompletionStage(cluster.nodes().toCompletionStage()),
+            this.describeTopics(),
+            this.describeConsumerLag())
+        .map(result -> new KafkaClusterSnapshot(
+            result.getT1(),
+            result.getT2().size(),
+            result.getT3(),
+            result.getT4(),
+            null,
+            System.nanoTime()))
+        .onErrorResume(e -> {
+          log.debug("Could not describe Kafka cluster {}", this.name, e);
+          final KafkaClusterSnapshot previous = this.snapshot.get();
+          return Mono.just(new KafkaClusterSnapshot(
+              null,
+              0,
+              this.topics.stream().collect(Collectors.toMap(topic -> topic, topic -> false)),
+              this.consumerGroups.stream().collect(Collectors.toMap(group -> group, group -> -1L)),
+              String.valueOf(e.getMessage()),
+              previous == null ? 0 : previous.lastSuccessNanos()));
+        });
+  }
+
+  private Mono<Map<String, Boolean>> describeTopics() {
+    if (this.topics.isEmpty()) {
+      return Mono.just(Map.of());
+    }
+    final Map<String, KafkaFuture<TopicDescription>> descriptions = this.admin
+        .describeTopics(Set.copyOf(this.topics), new DescribeTopicsOptions().timeoutMs(this.requestTimeoutMillis))
+        .topicNameValues();
+    return Flux.fromIterable(descriptions.entrySet())
+        .flatMap(entry -> Mono.fromCompletionStage(entry.getValue().toCompletionStage())
+            .map(description -> description.partitions().stream()
+                .allMatch(partition -> partition.leader() != null && !partition.leader().isEmpty()))
+            .onErrorReturn(false)
+            .map(available -> Map.entry(entry.getKey(), available)))
+        .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+  }
+
+  private Mono<Map<String, Long>> describeConsumerLag() {
+    return Flux.fromIterable(Set.copyOf(this.consumerGroups))
+        .flatMap(group -> this.consumerLag(group)
+            .onErrorResume(e -> {
+              log.debug("Could not compute the lag of consumer group {} on {}", group, this.name, e);
+              return Mono.just(-1L);
+            })
+            .map(lag -> Map.entry(group, lag)))
+        .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+  }
+
+  private Mono<Long> consumerLag(final String group) {
+    return Mono.fromCompletionStage(this.admin
+            .listConsumerGroupOffsets(group, new ListConsumerGroupOffsetsOptions().timeoutMs(this.requestTimeoutMillis))
+            .partitionsToOffsetAndMetadata()
+            .toCompletionStage())
+        .flatMap(committed -> {
+          final Map<TopicPartition, OffsetSpec> latest = committed.keySet().stream()
+              .collect(Collectors.toMap(partition -> partition, partition -> OffsetSpec.latest()));
+          if (latest.isEmpty()) {
+            return Mono.just(0L);
+          }
+          return Mono.fromCompletionStage(this.admin
+                  .listOffsets(latest, new ListOffsetsOptions().timeoutMs(this.requestTimeoutMillis))
+                  .all()
+                  .toCompletionStage())
+              .map(endOffsets -> endOffsets.entrySet().stream()
+                  .mapToLong(end -> {
+                    final OffsetAndMetadata offset = committed.get(end.getKey());
+                    return offset == null ? 0 : Math.max(0, end.getValue().offset() - offset.offset());
+                  })
+                  .sum());
+        });
+  }
+
+  @Override
+  public void close() {
+    this.refreshTask.dispose();
+    synchronized (this) {
+      if (this.canary != null) {
+        this.canary.close();
+        this.canary = null;
+      }
+    }
+    if (this.ownsAdmin) {
+      this.admin.close(Duration.ofMillis(this.requestTimeoutMillis));
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package com.example.webfluxexample.health.kafka;
+
+import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.config.KafkaHealthConfig;
+import com.example.webfluxexample.health.service.HealthEndpointsChangedEvent;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registry of monitored Kafka clusters keyed by bootstrap address.
+ * Endpoints with a host get their own {@link Admin} client, built from the application Kafka settings with
+ * the endpoint as bootstrap server. Endpoints without a host share the application {@link Admin}.
+ */
+@Component
+public class KafkaClusterRegistry implements DisposableBean {
+  private static final Logger log = LoggerFactory.getLogger(KafkaClusterRegistry.class);
+
+  public static final int DEFAULT_PORT = 9092;
+  private static final String DEFAULT_CLUSTER = "default";
+  private static final String KAFKA = "KAFKA";
+
+  private final Admin defaultAdmin;
+  private final KafkaAdmin kafkaAdmin;
+  private final KafkaHealthConfig config;
+  private final Map<String, KafkaCluster> clusters = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param defaultAdmin the application admin client, used for endpoints without a host
+   * @param kafkaAdmin the application Kafka settings, used to build per-cluster admin clients
+   * @param config Kafka health configuration
+   */
+  public KafkaClusterRegistry(final Admin defaultAdmin, final KafkaAdmin kafkaAdmin, final KafkaHealthConfig config) {
+    this.defaultAdmin = defaultAdmin;
+    this.kafkaAdmin = kafkaAdmin;
+    this.config = config;
+  }
+
+  /**
+   * Get the cluster of an endpoint, creating it on first use.
+   *
+   * @param endpoint the endpoint
+   * @return the cluster
+   */
+  public KafkaCluster getCluster(final HealthEndpoint endpoint) {
+    final String bootstrap = bootstrapServers(endpoint);
+    KafkaCluster cluster = this.clusters.get(bootstrap);
+    if (cluster == null) {
+      cluster = this.clusters.computeIfAbsent(bootstrap, this::createCluster);
+    }
+    return cluster;
+  }
+
+  private KafkaCluster createCluster(final String bootstrap) {
+    log.info("Monitoring Kafka cluster {}", bootstrap);
+    final Duration refreshInterval = Duration.ofMillis(this.config.getRefreshIntervalMillis());
+    if (DEFAULT_CLUSTER.equals(bootstrap)) {
+      return new KafkaCluster(bootstrap, this.defaultAdmin, false, refreshInterval, this.config.getRequestTimeoutMillis(),
+          this.kafkaAdmin.getConfigurationProperties());
+    }
+    final Map<String, Object> properties = new HashMap<>(this.kafkaAdmin.getConfigurationProperties());
+    properties.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
+    properties.put(AdminClientConfig.CLIENT_ID_CONFIG, "health-checks-" + bootstrap);
+    properties.put(AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG, this.config.getRequestTimeoutMillis());
+    properties.put(AdminClientConfig.DEFAULT_API_TIMEOUT_MS_CONFIG, this.config.getRequestTimeoutMillis());
+    return new KafkaCluster(bootstrap, Admin.create(properties), true, refreshInterval, this.config.getRequestTimeoutMillis(), properties);
+  }
+
+  /**
+   * Close the clusters no longer used by any enabled Kafka endpoint, and stop watching the topics and
+   * consumer groups no longer probed on the others.
+   *
+   * @param event the reconfiguration
+   */
+  @EventListener
+  public void onEndpointsChanged(final HealthEndpointsChangedEvent event) {
+    final Map<String, List<HealthEndpoint>> used = event.endpoints().stream()
+        .filter(endpoint -> endpoint.enabled() && KAFKA.equalsIgnoreCase(endpoint.type()))
+        .collect(Collectors.groupingBy(KafkaClusterRegistry::bootstrapServers));
+    this.clusters.entrySet().removeIf(entry -> {
+      final List<HealthEndpoint> endpoints = used.get(entry.getKey());
+      if (endpoints != null) {
+        entry.getValue().retain(
+            endpoints.stream().flatMap(endpoint -> endpoint.topics().stream()).collect(Collectors.toSet()),
+            endpoints.stream().flatMap(endpoint -> endpoint.consumerGroups().stream()).collect(Collectors.toSet()),
+            endpoints.stream().flatMap(endpoint -> endpoint.canaryTopics().stream()).collect(Collectors.toSet()));
+        return false;
+      }
+      log.info("No longer monitoring Kafka cluster {}", entry.getKey());
+      entry.getValue().close();
+      return true;
+    });
+  }
+
+  private static String bootstrapServers(final HealthEndpoint endpoint) {
+    if (endpoint.host() == null || endpoint.host().isBlank()) {
+      return DEFAULT_CLUSTER;
+    }
+    return endpoint.host() + ":" + (endpoint.port() > 0 ? endpoint.port() : DEFAULT_PORT);
+  }
+
+  @Override
+  public void destroy() {
+    this.clusters.values().forEach(KafkaCluster::close);
+    this.clusters.clear();
+  }
+}
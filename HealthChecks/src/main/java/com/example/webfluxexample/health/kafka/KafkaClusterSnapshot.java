@@ -0,0 +1,34 @@
+package com.example.webfluxexample.health.kafka;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Metadata of a Kafka cluster, as of its last background refresh.
+ *
+ * @param clusterId the cluster id, null if the cluster could not be described
+ * @param brokers the number of live brokers
+ * @param topicLeaders per watched topic, whether every partition has a leader
+ * @param consumerLag per watched consumer group, the total lag in records, or -1 if it could not be computed
+ * @param error the reason the cluster could not be described, null on success
+ * @param lastSuccessNanos the {@link System#nanoTime()} of the last successful refresh, 0 if there was none
+ */
+public record KafkaClusterSnapshot(
+    String clusterId,
+    int brokers,
+    Map<String, Boolean> topicLeaders,
+    Map<String, Long> consumerLag,
+    String error,
+    long lastSuccessNanos) {
+
+  /**
+   * Whether the snapshot has data for all the given topics and consumer groups.
+   *
+   * @param topics the topics
+   * @param consumerGroups the consumer groups
+   * @return true if all are present
+   */
+  public boolean covers(final Collection<String> topics, final Collection<String> consumerGroups) {
+    return this.topicLeaders.keySet().containsAll(topics) && this.consumerLag.keySet().containsAll(consumerGroups);
+  }
+}
@@ -0,0 +1,201 @@
+package com.example.webfluxexample.health.metrics;
+
+import com.example.webfluxexample.health.config.HealthConfig;
+import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import com.example.webfluxexample.health.service.CircuitBreaker;
+import com.example.webfluxexample.health.service.ProbeListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+/**
+ * Micrometer meters of the health monitor.
+ * <ul>
+ *   <li>{@code health.probe.latency}: timer with percentile histogram per service, type and outcome.</li>
+ *   <li>{@code health.service.up}: 1 while the last probe of a service was healthy, 0 otherwise.</li>
+ *   <li>{@code health.circuit.state}: circuit breaker state per service, 0 closed, 1 half-open, 2 open.</li>
+ *   <li>{@code health.circuit.short.circuits}: probes skipped per service because its breaker was open.</li>
+ *   <li>{@code health.sweep.duration}: time taken by each sweep.</li>
+ *   <li>{@code health.sweep.overruns}: sweeps skipped because the previous one was still running.</li>
+ *   <li>{@code health.sse.subscribers}: active subscribers per stream.</li>
+ *   <li>{@code health.sse.dropped}: updates dropped for slow subscribers, per stream.</li>
+ *   <li>{@code health.sse.disconnects}: subscribers rejected or disconnected, per stream and reason.</li>
+ * </ul>
+ * Meters of each service are resolved once and cached, so recording a probe does not look up the registry.
+ */
+@Component
+public class HealthMetrics implements ProbeListener {
+
+  public static final String TAG_SERVICE_NAME = "serviceName";
+  public static final String TAG_TYPE = "type";
+
+  private final MeterRegistry meterRegistry;
+  private final Map<String, ServiceMeters> serviceMeters = new ConcurrentHashMap<>();
+  private final Map<String, AtomicInteger> subscribers = new ConcurrentHashMap<>();
+  private final Timer sweepDuration;
+  private final Counter sweepOverruns;
+
+  private static final class ServiceMeters {
+    private final List<Meter> meters = new ArrayList<>();
+    private final Timer healthyLatency;
+    private final Timer unhealthyLatency;
+    private final Counter shortCircuits;
+    private final AtomicInteger up = new AtomicInteger();
+    private final AtomicInteger circuitState = new AtomicInteger();
+
+    private ServiceMeters(final MeterRegistry meterRegistry, final String serviceName, final String type) {
+      this.healthyLatency = latencyTimer(meterRegistry, serviceName, type, "healthy");
+      this.unhealthyLatency = latencyTimer(meterRegistry, serviceName, type, "unhealthy");
+      this.shortCircuits = Counter.builder("health.circuit.short.circuits")
+          .description("Probes skipped because the circuit breaker of the service was open")
+          .tag(TAG_SERVICE_NAME, serviceName)
+          .tag(TAG_TYPE, type)
+          .register(meterRegistry);
+      this.meters.add(this.healthyLatency);
+      this.meters.add(this.unhealthyLatency);
+      this.meters.add(this.shortCircuits);
+      this.meters.add(Gauge.builder("health.service.up", this.up, AtomicInteger::get)
+          .description("1 if the last probe of the service was healthy, 0 otherwise")
+          .tag(TAG_SERVICE_NAME, serviceName)
+          .tag(TAG_TYPE, type)
+          .register(meterRegistry));
+      this.meters.add(Gauge.builder("health.circuit.state", this.circuitState, AtomicInteger::get)
+          .description("Circuit breaker state of the service, 0 closed, 1 half-open, 2 open")
+          .tag(TAG_SERVICE_NAME, serviceName)
+          .tag(TAG_TYPE, type)
+          .register(meterRegistry));
+    }
+
+    private static Timer latencyTimer(final MeterRegistry meterRegistry, final String serviceName, final String type, final String outcome) {
+      return Timer.builder("health.probe.latency")
+          .description("Latency of health probes")
+          .tag(TAG_SERVICE_NAME, serviceName)
+          .tag(TAG_TYPE, type)
+          .tag("outcome", outcome)
+          .publishPercentileHistogram()
+          .register(meterRegistry);
+    }
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param meterRegistry the registry to publish to
+   */
+  public HealthMetrics(final MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+    this.sweepDuration = Timer.builder("health.sweep.duration")
+        .description("Time taken to probe the due endpoints")
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+    this.sweepOverruns = Counter.builder("health.sweep.overruns")
+        .description("Sweeps skipped because the previous sweep was still running")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public void onProbe(final HealthEndpoint endpoint, final ServiceHealth health, final long latencyNanos) {
+    final ServiceMeters meters = this.getServiceMeters(endpoint);
+    (health.healthy() ? meters.healthyLatency : meters.unhealthyLatency).record(latencyNanos, TimeUnit.NANOSECONDS);
+    meters.up.set(health.healthy() ? 1 : 0);
+  }
+
+  @Override
+  public void onCircuitStateChange(final HealthEndpoint endpoint, final CircuitBreaker.State state) {
+    this.getServiceMeters(endpoint).circuitState.set(state.ordinal());
+  }
+
+  @Override
+  public void onShortCircuit(final HealthEndpoint endpoint) {
+    this.getServiceMeters(endpoint).shortCircuits.increment();
+  }
+
+  /**
+   * Remove the meters of a service that is no longer checked.
+   *
+   * @param serviceName the service name
+   */
+  public void forget(final String serviceName) {
+    final ServiceMeters meters = this.serviceMeters.remove(serviceName);
+    if (meters != null) {
+      meters.meters.forEach(this.meterRegistry::remove);
+    }
+  }
+
+  private ServiceMeters getServiceMeters(final HealthEndpoint endpoint) {
+    return this.serviceMeters.computeIfAbsent(endpoint.serviceName(),
+        name -> new ServiceMeters(this.meterRegistry, name, typeOf(endpoint)));
+  }
+
+  /**
+   * Record the duration of a completed sweep.
+   *
+   * @param durationNanos the sweep duration
+   */
+  public void recordSweep(final long durationNanos) {
+    this.sweepDuration.record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Count a sweep that was skipped because the previous one was still running.
+   */
+  public void recordSweepOverrun() {
+    this.sweepOverruns.increment();
+  }
+
+  /**
+   * Count the active subscribers of a stream.
+   *
+   * @param stream the stream name, used as the {@code stream} tag
+   * @param flux the stream
+   * @param <T> the element type
+   * @return the stream, counting each subscriber until it cancels or the stream terminates
+   */
+  public <T> Flux<T> trackSubscribers(final String stream, final Flux<T> flux) {
+    final AtomicInteger count = this.subscribers.computeIfAbsent(stream, name -> {
+      final AtomicInteger gauge = new AtomicInteger();
+      Gauge.builder("health.sse.subscribers", gauge, AtomicInteger::get)
+          .description("Active health stream subscribers")
+          .tag("stream", name)
+          .register(this.meterRegistry);
+      return gauge;
+    });
+    return flux
+        .doOnSubscribe(subscription -> count.incrementAndGet())
+        .doFinally(signal -> count.decrementAndGet());
+  }
+
+  /**
+   * Count an update dropped because a subscriber's buffer was full.
+   *
+   * @param stream the stream name
+   */
+  public void recordStreamDropped(final String stream) {
+    this.meterRegistry.counter("health.sse.dropped", "stream", stream).increment();
+  }
+
+  /**
+   * Count a subscriber that was rejected or disconnected by the stream.
+   *
+   * @param stream the stream name
+   * @param reason why, such as idle, overflow or rejected
+   */
+  public void recordStreamDisconnect(final String stream, final String reason) {
+    this.meterRegistry.counter("health.sse.disconnects", "stream", stream, "reason", reason).increment();
+  }
+
+  private static String typeOf(final HealthEndpoint endpoint) {
+    return endpoint.type() == null ? HealthConfig.HTTP : endpoint.type().toUpperCase();
+  }
+}
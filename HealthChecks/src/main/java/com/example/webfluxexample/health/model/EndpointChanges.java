@@ -0,0 +1,22 @@
+package com.example.webfluxexample.health.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.util.List;
+
+/**
+ * The effect of a reconfiguration of the health endpoints.
+ *
+ * @param added services that are now checked
+ * @param updated services whose endpoint settings changed
+ * @param removed services that are no longer checked
+ */
+public record EndpointChanges(
+    List<String> added,
+    List<String> updated,
+    List<String> removed) {
+
+  @JsonIgnore
+  public boolean isEmpty() {
+    return this.added.isEmpty() && this.updated.isEmpty() && this.removed.isEmpty();
+  }
+}
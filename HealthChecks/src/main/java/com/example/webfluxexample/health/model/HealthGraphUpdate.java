@@ -0,0 +1,21 @@
+package com.example.webfluxexample.health.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * An event on the dependency graph stream.
+ * The first event is a snapshot of every node, later events carry only the nodes whose own or rolled-up
+ * status changed, and heartbeats carry nothing.
+ *
+ * @param type the kind of update
+ * @param version the graph version, increasing by one with every delta
+ * @param timestamp when the graph changed, or when the heartbeat was sent
+ * @param nodes all nodes for a snapshot, the changed nodes for a delta
+ */
+public record HealthGraphUpdate(
+    HealthUpdate.Type type,
+    long version,
+    Instant timestamp,
+    List<HealthNode> nodes) {
+}
@@ -0,0 +1,18 @@
+package com.example.webfluxexample.health.model;
+
+import java.util.List;
+
+/**
+ * A service in the dependency graph.
+ *
+ * @param serviceName the service name
+ * @param status the status of the service's own probe
+ * @param rolledUpStatus the status including its dependencies: an unhealthy dependency degrades the service
+ * @param dependsOn the services it depends on
+ */
+public record HealthNode(
+    String serviceName,
+    HealthStatus status,
+    HealthStatus rolledUpStatus,
+    List<String> dependsOn) {
+}
@@ -0,0 +1,24 @@
+package com.example.webfluxexample.health.model;
+
+import java.util.List;
+
+/**
+ * Probe statistics of a service over a time window.
+ *
+ * @param serviceName the service name
+ * @param windowMillis the window the statistics cover
+ * @param samples probes in the window
+ * @param uptimePercent percentage of healthy probes in the window
+ * @param p50LatencyMillis median probe latency
+ * @param p99LatencyMillis 99th percentile probe latency
+ * @param transitions health changes in the window, oldest first
+ */
+public record HealthStatistics(
+    String serviceName,
+    long windowMillis,
+    int samples,
+    double uptimePercent,
+    double p50LatencyMillis,
+    double p99LatencyMillis,
+    List<HealthTransition> transitions) {
+}
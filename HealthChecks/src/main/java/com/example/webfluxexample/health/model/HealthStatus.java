@@ -0,0 +1,34 @@
+package com.example.webfluxexample.health.model;
+
+/**
+ * Health status of a service, from best to worst.
+ * Only {@link #DOWN} counts as unhealthy.
+ */
+public enum HealthStatus {
+  /**
+   * Healthy and responding within its latency threshold.
+   */
+  UP,
+  /**
+   * Healthy, but slower than its latency threshold.
+   */
+  SLOW,
+  /**
+   * Serving, with reduced redundancy or an unhealthy dependency.
+   */
+  DEGRADED,
+  /**
+   * Not serving.
+   */
+  DOWN;
+
+  /**
+   * The worse of two statuses.
+   *
+   * @param other the other status
+   * @return the status with the higher severity
+   */
+  public HealthStatus worst(final HealthStatus other) {
+    return other.ordinal() > this.ordinal() ? other : this;
+  }
+}
@@ -0,0 +1,14 @@
+package com.example.webfluxexample.health.model;
+
+import java.time.Instant;
+
+/**
+ * A change of a service between healthy and unhealthy.
+ *
+ * @param timestamp when the probe observing the change finished
+ * @param healthy the new health
+ */
+public record HealthTransition(
+    Instant timestamp,
+    boolean healthy) {
+}
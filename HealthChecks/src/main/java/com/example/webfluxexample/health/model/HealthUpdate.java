@@ -0,0 +1,30 @@
+package com.example.webfluxexample.health.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * An event on the delta health stream.
+ * The first event is a full snapshot, later events carry only the services that changed, and
+ * heartbeats carry nothing.
+ *
+ * @param type the kind of update
+ * @param timestamp when the health was checked, or when the heartbeat was sent
+ * @param healthList all services for a snapshot, the changed services for a delta
+ * @param removedServices services that are no longer checked
+ */
+public record HealthUpdate(
+    Type type,
+    Instant timestamp,
+    List<ServiceHealth> healthList,
+    List<String> removedServices) {
+
+  /**
+   * Types of health updates.
+   */
+  public enum Type {
+    SNAPSHOT,
+    DELTA,
+    HEARTBEAT,
+  }
+}
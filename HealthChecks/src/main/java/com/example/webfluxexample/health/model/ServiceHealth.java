@@ -1,6 +1,76 @@
 package com.example.webfluxexample.health.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The health of one service.
+ * The service is healthy unless its status is {@link HealthStatus#DOWN}.
+ * Details such as round trip times or consumer lag change on every probe, so they are left out of
+ * {@link #equals(Object)}: a change in details alone is not a change in health.
+ *
+ * @param serviceName the service name
+ * @param healthy whether the service is healthy
+ * @param status the service status, derived from healthy when null
+ * @param details checker specific details, may be empty
+ */
 public record ServiceHealth(
     String serviceName,
-    boolean healthy) {
+    boolean healthy,
+    HealthStatus status,
+    @JsonInclude(JsonInclude.Include.NON_EMPTY) Map<String, Object> details) {
+
+  public ServiceHealth {
+    status = status == null ? (healthy ? HealthStatus.UP : HealthStatus.DOWN) : status;
+    healthy = status != HealthStatus.DOWN;
+    details = details == null ? Map.of() : details;
+  }
+
+  public ServiceHealth(final String serviceName, final boolean healthy) {
+    this(serviceName, healthy, null, Map.of());
+  }
+
+  public ServiceHealth(final String serviceName, final boolean healthy, final Map<String, Object> details) {
+    this(serviceName, healthy, null, details);
+  }
+
+  public ServiceHealth(final String serviceName, final HealthStatus status, final Map<String, Object> details) {
+    this(serviceName, status != HealthStatus.DOWN, status, details);
+  }
+
+  /**
+   * Copy with another status.
+   *
+   * @param newStatus the status
+   * @return the copy
+   */
+  public ServiceHealth withStatus(final HealthStatus newStatus) {
+    return new ServiceHealth(this.serviceName, newStatus, this.details);
+  }
+
+  /**
+   * Two results are equal when they are for the same service with the same status.
+   * Details and the derived healthy flag are not compared, so deduplicating reports by equality drops
+   * updates whose only change is in their details; compare {@link #details()} explicitly where it matters.
+   *
+   * @param o the other object
+   * @return true if it is a result for the same service with the same status
+   */
+  @Override
+  public boolean equals(final Object o) {
+    return o instanceof ServiceHealth other
+        && this.status == other.status
+        && Objects.equals(this.serviceName, other.serviceName);
+  }
+
+  /**
+   * Hash of the service name and status, consistent with {@link #equals(Object)}.
+   *
+   * @return the hash
+   */
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.serviceName, this.status);
+  }
 }
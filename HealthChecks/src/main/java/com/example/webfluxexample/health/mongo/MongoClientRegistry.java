@@ -0,0 +1,119 @@
+package com.example.webfluxexample.health.mongo;
+
+import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.config.MongoHealthConfig;
+import com.example.webfluxexample.health.service.HealthEndpointsChangedEvent;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registry of reactive Mongo clients keyed by connection string.
+ * Endpoints with a host get their own small client; endpoints without a host share the application client.
+ * Each client monitors its replica set members in the background, so member state and round trip time are
+ * available without issuing a command.
+ */
+@Component
+public class MongoClientRegistry implements DisposableBean {
+  private static final Logger log = LoggerFactory.getLogger(MongoClientRegistry.class);
+
+  public static final String DEFAULT_SCHEME = "mongodb";
+  private static final String MONGO = "MONGO";
+
+  private final MongoClient defaultClient;
+  private final MongoHealthConfig config;
+  private final Map<String, MongoClient> clients = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param defaultClient the application client, used for endpoints without a host
+   * @param config Mongo health configuration
+   */
+  public MongoClientRegistry(final MongoClient defaultClient, final MongoHealthConfig config) {
+    this.defaultClient = defaultClient;
+    this.config = config;
+  }
+
+  /**
+   * Get the client of an endpoint, creating it on first use.
+   *
+   * @param endpoint the endpoint
+   * @return the client
+   */
+  public MongoClient getClient(final HealthEndpoint endpoint) {
+    if (endpoint.host() == null || endpoint.host().isBlank()) {
+      return this.defaultClient;
+    }
+    final String connectionString = connectionString(endpoint);
+    MongoClient client = this.clients.get(connectionString);
+    if (client == null) {
+      client = this.clients.computeIfAbsent(connectionString, this::createClient);
+    }
+    return client;
+  }
+
+  private MongoClient createClient(final String connectionString) {
+    log.info("Monitoring Mongo deployment {}", connectionString);
+    return MongoClients.create(MongoClientSettings.builder()
+        .applyConnectionString(new ConnectionString(connectionString))
+        .applicationName("health-checks")
+        .applyToClusterSettings(builder -> builder
+            .serverSelectionTimeout(this.config.getServerSelectionTimeoutMillis(), TimeUnit.MILLISECONDS))
+        .applyToServerSettings(builder -> builder
+            .heartbeatFrequency(this.config.getHeartbeatFrequencyMillis(), TimeUnit.MILLISECONDS))
+        .applyToSocketSettings(builder -> builder
+            .connectTimeout(this.config.getConnectTimeoutMillis(), TimeUnit.MILLISECONDS))
+        .applyToConnectionPoolSettings(builder -> builder
+            .minSize(0)
+            .maxSize(this.config.getMaxPoolSize()))
+        .build());
+  }
+
+  /**
+   * Close the clients no longer used by any enabled Mongo endpoint.
+   *
+   * @param event the reconfiguration
+   */
+  @EventListener
+  public void onEndpointsChanged(final HealthEndpointsChangedEvent event) {
+    final Set<String> used = event.endpoints().stream()
+        .filter(endpoint -> endpoint.enabled() && MONGO.equalsIgnoreCase(endpoint.type()))
+        .filter(endpoint -> endpoint.host() != null && !endpoint.host().isBlank())
+        .map(MongoClientRegistry::connectionString)
+        .collect(Collectors.toSet());
+    this.clients.entrySet().removeIf(entry -> {
+      if (used.contains(entry.getKey())) {
+        return false;
+      }
+      log.info("No longer monitoring Mongo deployment {}", entry.getKey());
+      entry.getValue().close();
+      return true;
+    });
+  }
+
+  private static String connectionString(final HealthEndpoint endpoint) {
+    final String scheme = endpoint.scheme() == null || endpoint.scheme().isBlank() ? DEFAULT_SCHEME : endpoint.scheme();
+    final String path = endpoint.path() == null ? "" : endpoint.path();
+    return endpoint.port() > 0
+        ? scheme + "://" + endpoint.host() + ":" + endpoint.port() + path
+        : scheme + "://" + endpoint.host() + path;
+  }
+
+  @Override
+  public void destroy() {
+    this.clients.values().forEach(MongoClient::close);
+    this.clients.clear();
+  }
+}
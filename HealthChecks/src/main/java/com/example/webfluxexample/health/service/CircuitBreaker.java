@@ -0,0 +1,95 @@
+package com.example.webfluxexample.health.service;
+
+/**
+ * Circuit breaker of one endpoint.
+ * <ul>
+ *   <li>{@link State#CLOSED}: every probe runs. After the failure threshold of consecutive failures it opens.</li>
+ *   <li>{@link State#OPEN}: probes are skipped and the endpoint reported down, until the open duration has passed.</li>
+ *   <li>{@link State#HALF_OPEN}: one trial probe runs, the others are skipped. Success closes the breaker,
+ *   failure opens it again for the open duration.</li>
+ * </ul>
+ */
+public class CircuitBreaker {
+
+  /**
+   * Circuit breaker states.
+   */
+  public enum State {
+    CLOSED,
+    HALF_OPEN,
+    OPEN,
+  }
+
+  private final int failureThreshold;
+  private final long openNanos;
+  private State state = State.CLOSED;
+  private int consecutiveFailures;
+  private long openedAtNanos;
+
+  /**
+   * Constructor.
+   *
+   * @param failureThreshold the consecutive failures that open the breaker
+   * @param openMillis how long the breaker stays open before a trial probe
+   */
+  public CircuitBreaker(final int failureThreshold, final long openMillis) {
+    this.failureThreshold = failureThreshold;
+    this.openNanos = openMillis * 1_000_000;
+  }
+
+  /**
+   * Whether a probe may run now. An open breaker past its open duration turns half-open and allows one trial.
+   *
+   * @param nowNanos the current {@link System#nanoTime()}
+   * @return true if the probe should run, false if it should be skipped
+   */
+  public synchronized boolean tryAcquire(final long nowNanos) {
+    if (this.state == State.OPEN && nowNanos - this.openedAtNanos >= this.openNanos) {
+      this.state = State.HALF_OPEN;
+      return true;
+    }
+    return this.state == State.CLOSED;
+  }
+
+  /**
+   * Record the outcome of a probe that was allowed to run.
+   *
+   * @param healthy whether the probe succeeded
+   * @param nowNanos the current {@link System#nanoTime()}
+   * @return the state after the outcome
+   */
+  public synchronized State record(final boolean healthy, final long nowNanos) {
+    if (healthy) {
+      this.consecutiveFailures = 0;
+      this.state = State.CLOSED;
+    } else {
+      this.consecutiveFailures++;
+      if (this.state == State.HALF_OPEN || this.consecutiveFailures >= this.failureThreshold) {
+        this.state = State.OPEN;
+        this.openedAtNanos = nowNanos;
+      }
+    }
+    return this.state;
+  }
+
+  public synchronized State getState() {
+    return this.state;
+  }
+
+  public synchronized int getConsecutiveFailures() {
+    return this.consecutiveFailures;
+  }
+
+  /**
+   * Time until the next trial probe.
+   *
+   * @param nowNanos the current {@link System#nanoTime()}
+   * @return the remaining open time in millis, 0 unless open
+   */
+  public synchronized long getRetryInMillis(final long nowNanos) {
+    if (this.state != State.OPEN) {
+      return 0;
+    }
+    return Math.max(0, (this.openNanos - (nowNanos - this.openedAtNanos)) / 1_000_000);
+  }
+}
@@ -1,38 +1,139 @@
 package com.example.webfluxexample.health.service;
 
+import com.example.webfluxexample.health.config.HealthConfig;
 import com.example.webfluxexample.health.model.Health;
+import com.example.webfluxexample.health.model.HealthGraphUpdate;
+import com.example.webfluxexample.health.model.HealthStatistics;
+import com.example.webfluxexample.health.model.HealthUpdate;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 @Component
-public class HealthApiService {
+public class HealthApiService implements DisposableBean {
 
   private static final Logger log = LoggerFactory.getLogger(HealthApiService.class);
+  public static final long DEFAULT_HEARTBEAT_MILLIS = 30000;
+  public static final long DEFAULT_HISTORY_WINDOW_MILLIS = 3600000;
+  public static final int DEFAULT_STREAM_BUFFER_SIZE = 16;
+  public static final int DEFAULT_STREAM_MAX_SUBSCRIBERS = 1000;
+  public static final long DEFAULT_STREAM_IDLE_TIMEOUT_MILLIS = 120000;
+
   private final Flux<Health> healthUpdateFlux;
+  private final Flux<HealthDiff> healthDiffFlux;
+  private final Flux<ServerSentEvent<HealthUpdate>> heartbeatFlux;
   private final HealthMonitor healthMonitor;
+  private final Duration defaultSnapshotStaleness;
+  private final long defaultHistoryWindowMillis;
+  private final StreamSubscriptions updateSubscriptions;
+  private final StreamSubscriptions deltaSubscriptions;
+  private final StreamSubscriptions graphSubscriptions;
+
+  /**
+   * The change between two consecutive (coalesced) health reports.
+   * Computed once per report and shared by every delta subscriber.
+   *
+   * @param health the latest health
+   * @param changed services whose health differs from the previous report
+   * @param removed services present in the previous report but not in this one
+   */
+  record HealthDiff(Health health, List<ServiceHealth> changed, List<String> removed) {
+    static final HealthDiff EMPTY = new HealthDiff(null, List.of(), List.of());
+
+    HealthDiff next(final Health health) {
+      final Map<String, ServiceHealth> previous = new HashMap<>();
+      if (this.health != null) {
+        this.health.healthList().forEach(serviceHealth -> previous.put(serviceHealth.serviceName(), serviceHealth));
+      }
+      final List<ServiceHealth> changed = new ArrayList<>();
+      for (final ServiceHealth serviceHealth : health.healthList()) {
+        if (!serviceHealth.equals(previous.remove(serviceHealth.serviceName()))) {
+          changed.add(serviceHealth);
+        }
+      }
+      return new HealthDiff(health, changed, List.copyOf(previous.keySet()));
+    }
+
+    boolean isEmpty() {
+      return this.changed.isEmpty() && this.removed.isEmpty();
+    }
+  }
 
   /**
    * Constructor.
+   * Both streams read the monitor's replay-latest sink, so every subscriber starts from the latest report.
+   * Each subscriber gets its own bounded buffer: the full update stream applies the configured overflow,
+   * while the delta stream disconnects subscribers that fall behind, since a dropped delta would leave them
+   * with a wrong view. They reconnect and start again from a snapshot.
    *
    * @param monitor monitor
    */
   @Autowired
   public HealthApiService(final HealthMonitor monitor) {
     this.healthMonitor = monitor;
-    this.healthUpdateFlux = Flux
-        .create(monitor::connect)
-        .subscribeOn(Schedulers.boundedElastic())
-        .cache(1);  // We don't need the groomer, since we only ever cache 1.
-    this.healthUpdateFlux.subscribe(data -> {
-      if (log.isDebugEnabled()) {
-        log.debug("Health Subscription: {}", data);
-      }
-    });
+    this.healthUpdateFlux = monitor.getHealthFlux();
+
+    final HealthConfig healthConfig = monitor.getHealthConfig();
+    final int bufferSize = healthConfig.getStreamBufferSize() > 0 ? healthConfig.getStreamBufferSize() : DEFAULT_STREAM_BUFFER_SIZE;
+    final int maxSubscribers = healthConfig.getStreamMaxSubscribers() > 0
+        ? healthConfig.getStreamMaxSubscribers() : DEFAULT_STREAM_MAX_SUBSCRIBERS;
+    final Duration idleTimeout = Duration.ofMillis(healthConfig.getStreamIdleTimeoutMillis() > 0
+        ? healthConfig.getStreamIdleTimeoutMillis() : DEFAULT_STREAM_IDLE_TIMEOUT_MILLIS);
+    this.updateSubscriptions = new StreamSubscriptions(
+        "updates",
+        StreamSubscriptions.Overflow.fromName(healthConfig.getStreamOverflow(), StreamSubscriptions.Overflow.DROP_OLDEST),
+        bufferSize,
+        maxSubscribers,
+        idleTimeout,
+        monitor.getHealthMetrics());
+    this.deltaSubscriptions = new StreamSubscriptions(
+        "deltas",
+        StreamSubscriptions.Overflow.DISCONNECT,
+        bufferSize,
+        maxSubscribers,
+        idleTimeout,
+        monitor.getHealthMetrics());
+    this.graphSubscriptions = new StreamSubscriptions(
+        "graph",
+        StreamSubscriptions.Overflow.DISCONNECT,
+        bufferSize,
+        maxSubscribers,
+        idleTimeout,
+        monitor.getHealthMetrics());
+
+    final long heartbeatMillis = healthConfig.getHeartbeatMillis() > 0 ? healthConfig.getHeartbeatMillis() : DEFAULT_HEARTBEAT_MILLIS;
+    this.defaultSnapshotStaleness = Duration.ofMillis(healthConfig.getSnapshotMaxStalenessMillis() > 0
+        ? healthConfig.getSnapshotMaxStalenessMillis() : healthConfig.getPeriodMillis());
+    this.defaultHistoryWindowMillis = healthConfig.getHistoryWindowMillis() > 0
+        ? healthConfig.getHistoryWindowMillis() : DEFAULT_HISTORY_WINDOW_MILLIS;
+
+    // Coalescing samples the latest report per window, so a service that flaps and recovers within the window produces no delta.
+    final Flux<Health> coalescedFlux = healthConfig.getCoalesceMillis() > 0
+        ? this.healthUpdateFlux.sample(Duration.ofMillis(healthConfig.getCoalesceMillis()))
+        : this.healthUpdateFlux;
+    this.healthDiffFlux = coalescedFlux
+        .scan(HealthDiff.EMPTY, HealthDiff::next)
+        .skip(1)
+        .cache(1);
+    this.healthDiffFlux.subscribe();
+
+    this.heartbeatFlux = Flux.interval(Duration.ofMillis(heartbeatMillis))
+        .map(tick -> ServerSentEvent.builder(new HealthUpdate(HealthUpdate.Type.HEARTBEAT, Instant.now(), List.of(), List.of()))
+            .event(HealthUpdate.Type.HEARTBEAT.name())
+            .build())
+        .share();
   }
 
   /**
@@ -42,16 +143,120 @@ public class HealthApiService {
    */
   public Flux<Health> streamHealthUpdates() {
     log.info("Health Subscription started");
-    return this.healthUpdateFlux.share();
+    return this.healthMonitor.getHealthMetrics().trackSubscribers("updates", this.updateSubscriptions.subscribe(this.healthUpdateFlux));
   }
 
   /**
-   * Get a single health status update.
+   * Start stream of health deltas.
+   * The first event is a snapshot of the latest health, followed by only the services that changed,
+   * interleaved with heartbeats.
+   *
+   * @return Flux stream of server sent health updates.
+   */
+  public Flux<ServerSentEvent<HealthUpdate>> streamHealthDeltas() {
+    log.info("Health delta Subscription started");
+    final Flux<ServerSentEvent<HealthUpdate>> updates = this.healthDiffFlux
+        .index()
+        .filter(indexed -> indexed.getT1() == 0 || !indexed.getT2().isEmpty())
+        .map(indexed -> {
+          final HealthDiff diff = indexed.getT2();
+          final HealthUpdate update = indexed.getT1() == 0
+              ? new HealthUpdate(HealthUpdate.Type.SNAPSHOT, diff.health().timestamp(), diff.health().healthList(), List.of())
+              : new HealthUpdate(HealthUpdate.Type.DELTA, diff.health().timestamp(), diff.changed(), diff.removed());
+          return ServerSentEvent.builder(update)
+              .event(update.type().name())
+              .build();
+        });
+    return this.healthMonitor.getHealthMetrics().trackSubscribers("deltas",
+        this.deltaSubscriptions.subscribe(Flux.merge(updates, this.heartbeatFlux)));
+  }
+
+  /**
+   * Snapshot of the dependency graph.
+   *
+   * @return every node with its own and rolled-up status
+   */
+  public Mono<HealthGraphUpdate> getHealthGraph() {
+    return Mono.fromSupplier(this.healthMonitor::getHealthGraph);
+  }
+
+  /**
+   * Start stream of dependency graph changes.
+   * The first event is a snapshot of the graph, followed by only the nodes whose own or rolled-up status changed,
+   * interleaved with heartbeats. Changes are published as they are rolled up, without diffing the whole graph.
+   *
+   * @return Flux stream of server sent graph updates.
+   */
+  public Flux<ServerSentEvent<HealthGraphUpdate>> streamHealthGraph() {
+    log.info("Health graph Subscription started");
+    final Flux<HealthGraphUpdate> updates = Flux.defer(() -> {
+      final HealthGraphUpdate snapshot = this.healthMonitor.getHealthGraph();
+      return this.healthMonitor.getHealthGraphFlux()
+          .filter(update -> update.version() > snapshot.version())
+          .startWith(snapshot);
+    });
+    final Flux<HealthGraphUpdate> heartbeats = this.heartbeatFlux
+        .map(heartbeat -> new HealthGraphUpdate(HealthUpdate.Type.HEARTBEAT, this.healthMonitor.getHealthGraph().version(),
+            heartbeat.data().timestamp(), List.of()));
+    return this.healthMonitor.getHealthMetrics().trackSubscribers("graph",
+        this.graphSubscriptions.subscribe(Flux.merge(updates, heartbeats)
+            .map(update -> ServerSentEvent.builder(update)
+                .event(update.type().name())
+                .build())));
+  }
+
+  /**
+   * Get a single health status update, no older than the configured snapshot staleness.
    *
    * @return health
    */
   public Mono<Health> getHealthSnapshot() {
-    final Health health = this.healthMonitor.getHealthSnapshot();
-    return Mono.just(health);
+    return this.getHealthSnapshot(this.defaultSnapshotStaleness);
+  }
+
+  /**
+   * Get a single health status update.
+   * Endpoints whose latest result is older than the max staleness are probed on demand.
+   *
+   * @param maxStaleness the maximum age of each endpoint result
+   * @return health
+   */
+  public Mono<Health> getHealthSnapshot(final Duration maxStaleness) {
+    return this.healthMonitor.getHealthSnapshot(maxStaleness);
+  }
+
+  /**
+   * Probe statistics of every service.
+   *
+   * @param windowMillis the window to report on, or null for the configured window
+   * @return statistics per service
+   */
+  public Flux<HealthStatistics> getHealthStatistics(final Long windowMillis) {
+    return Flux.fromIterable(this.healthMonitor.getHealthHistory().getStatistics(this.windowOrDefault(windowMillis)));
+  }
+
+  /**
+   * Probe statistics of one service.
+   *
+   * @param serviceName the service name
+   * @param windowMillis the window to report on, or null for the configured window
+   * @return statistics, empty if the service has never been probed
+   */
+  public Mono<HealthStatistics> getHealthStatistics(final String serviceName, final Long windowMillis) {
+    return Mono.justOrEmpty(this.healthMonitor.getHealthHistory().getStatistics(serviceName, this.windowOrDefault(windowMillis)));
+  }
+
+  private long windowOrDefault(final Long windowMillis) {
+    return windowMillis != null && windowMillis > 0 ? windowMillis : this.defaultHistoryWindowMillis;
+  }
+
+  /**
+   * Disconnect every stream subscriber.
+   */
+  @Override
+  public void destroy() {
+    this.updateSubscriptions.dispose();
+    this.deltaSubscriptions.dispose();
+    this.graphSubscriptions.dispose();
   }
 }
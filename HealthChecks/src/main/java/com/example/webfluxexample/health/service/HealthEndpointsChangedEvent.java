@@ -0,0 +1,15 @@
+package com.example.webfluxexample.health.service;
+
+import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.model.EndpointChanges;
+import java.util.List;
+
+/**
+ * Published after the health endpoints were reconfigured, so components holding per-endpoint resources
+ * can release those of removed endpoints.
+ *
+ * @param endpoints all endpoints after the change
+ * @param changes what changed
+ */
+public record HealthEndpointsChangedEvent(List<HealthEndpoint> endpoints, EndpointChanges changes) {
+}
@@ -0,0 +1,14 @@
+package com.example.webfluxexample.health.service;
+
+import com.example.webfluxexample.health.config.HealthEndpoint;
+import java.util.List;
+
+/**
+ * Asks the health monitor to reconfigure its endpoints without a restart.
+ * Publish it with the new endpoints, or with null to re-read {@code health-checks.endpoints} from the
+ * environment after its property sources changed.
+ *
+ * @param endpoints the new endpoints, or null to read them from the environment
+ */
+public record HealthEndpointsRefreshEvent(List<HealthEndpoint> endpoints) {
+}
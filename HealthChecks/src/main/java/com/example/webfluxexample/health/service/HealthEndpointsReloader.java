@@ -0,0 +1,121 @@
+package com.example.webfluxexample.health.service;
+
+import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.model.EndpointChanges;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Live reconfiguration of the health endpoints, from the admin API or a {@link HealthEndpointsRefreshEvent}.
+ * Every change is applied to the running {@link HealthMonitor} and announced with a {@link HealthEndpointsChangedEvent}.
+ */
+@Component
+public class HealthEndpointsReloader {
+
+  public static final String ENDPOINTS_PROPERTY = "health-checks.endpoints";
+
+  private final HealthMonitor healthMonitor;
+  private final Environment environment;
+  private final ApplicationEventPublisher eventPublisher;
+
+  /**
+   * Constructor.
+   *
+   * @param healthMonitor the monitor to reconfigure
+   * @param environment read on a refresh without endpoints
+   * @param eventPublisher announces the changes
+   */
+  public HealthEndpointsReloader(
+      final HealthMonitor healthMonitor,
+      final Environment environment,
+      final ApplicationEventPublisher eventPublisher) {
+    this.healthMonitor = healthMonitor;
+    this.environment = environment;
+    this.eventPublisher = eventPublisher;
+  }
+
+  public List<HealthEndpoint> getEndpoints() {
+    return this.healthMonitor.getEndpoints();
+  }
+
+  /**
+   * Replace all endpoints.
+   *
+   * @param endpoints the new endpoints, in report order
+   * @return what changed
+   */
+  public synchronized EndpointChanges replaceEndpoints(final List<HealthEndpoint> endpoints) {
+    final EndpointChanges changes = this.healthMonitor.updateEndpoints(endpoints);
+    if (!changes.isEmpty()) {
+      this.eventPublisher.publishEvent(new HealthEndpointsChangedEvent(this.healthMonitor.getEndpoints(), changes));
+    }
+    return changes;
+  }
+
+  /**
+   * Add an endpoint, or replace the endpoint with the same service name in place.
+   *
+   * @param endpoint the endpoint
+   * @return what changed
+   */
+  public synchronized EndpointChanges putEndpoint(final HealthEndpoint endpoint) {
+    final List<HealthEndpoint> endpoints = new ArrayList<>(this.getEndpoints());
+    final int index = indexOf(endpoints, endpoint.serviceName());
+    if (index < 0) {
+      endpoints.add(endpoint);
+    } else {
+      endpoints.set(index, endpoint);
+    }
+    return this.replaceEndpoints(endpoints);
+  }
+
+  /**
+   * Remove an endpoint.
+   *
+   * @param serviceName the service name of the endpoint
+   * @return what changed, nothing if there was no such endpoint
+   */
+  public synchronized EndpointChanges removeEndpoint(final String serviceName) {
+    final List<HealthEndpoint> endpoints = new ArrayList<>(this.getEndpoints());
+    final int index = indexOf(endpoints, serviceName);
+    if (index >= 0) {
+      endpoints.remove(index);
+    }
+    return this.replaceEndpoints(endpoints);
+  }
+
+  /**
+   * Re-read the endpoints from the environment.
+   *
+   * @return what changed
+   */
+  public EndpointChanges reloadFromEnvironment() {
+    return this.replaceEndpoints(Binder.get(this.environment)
+        .bind(ENDPOINTS_PROPERTY, Bindable.listOf(HealthEndpoint.class))
+        .orElse(List.of()));
+  }
+
+  @EventListener
+  public void onRefresh(final HealthEndpointsRefreshEvent event) {
+    if (event.endpoints() == null) {
+      this.reloadFromEnvironment();
+    } else {
+      this.replaceEndpoints(event.endpoints());
+    }
+  }
+
+  private static int indexOf(final List<HealthEndpoint> endpoints, final String serviceName) {
+    for (int index = 0; index < endpoints.size(); index++) {
+      if (endpoints.get(index).serviceName().equals(serviceName)) {
+        return index;
+      }
+    }
+    return -1;
+  }
+}
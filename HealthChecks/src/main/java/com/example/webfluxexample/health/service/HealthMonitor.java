@@ -1,42 +1,131 @@
 package com.example.webfluxexample.health.service;
 
 import com.example.webfluxexample.health.checkers.HealthChecker;
+import com.example.webfluxexample.health.checkers.HttpHealthChecker;
 import com.example.webfluxexample.health.config.HealthConfig;
 import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.graph.HealthGraph;
+import com.example.webfluxexample.health.history.HealthHistory;
+import com.example.webfluxexample.health.metrics.HealthMetrics;
+import com.example.webfluxexample.health.model.EndpointChanges;
 import com.example.webfluxexample.health.model.Health;
+import com.example.webfluxexample.health.model.HealthGraphUpdate;
 import com.example.webfluxexample.health.model.ServiceHealth;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
-import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 @Component
-public class HealthMonitor {
+public class HealthMonitor implements DisposableBean {
   public static Logger log = LoggerFactory.getLogger(HealthMonitor.class);
+  public static final int DEFAULT_MAX_CONCURRENCY = 16;
+  public static final long DEFAULT_MIN_INTERVAL_MILLIS = 1000;
+  public static final int DEFAULT_HISTORY_SIZE = 1024;
+  public static final int DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD = 3;
+  public static final long DEFAULT_CIRCUIT_BREAKER_OPEN_MILLIS = 30000;
+  private static final int GRAPH_REPLAY_SIZE = 64;
+  private static final Duration EMIT_TIMEOUT = Duration.ofMillis(100);
 
   private final HealthConfig healthConfig;
   private final HealthChecker topLevelHealthChecker;
   private final ScheduledExecutorService executor;
+  private final HealthProbeEngine probeEngine;
+  private final ProbeScheduler probeScheduler;
+  private final HealthHistory healthHistory;
+  private final HealthGraph healthGraph;
+  private final HealthMetrics healthMetrics;
+  private final HealthSharding healthSharding;
+  private final long tickMillis;
 
-  private final AtomicReference<FluxSink<Health>> sinkRef = new AtomicReference<>();
+  private final Sinks.Many<Health> healthSink = Sinks.many().replay().latest();
+  private final Sinks.Many<HealthGraphUpdate> healthGraphSink = Sinks.many().replay().limit(GRAPH_REPLAY_SIZE);
   private final AtomicReference<Health> oldHealthReference = new AtomicReference<>();
+  private volatile List<HealthEndpoint> endpoints;
+  private volatile List<HealthEndpoint> enabledEndpoints;
+  private final AtomicBoolean sweepInProgress = new AtomicBoolean();
+  private final AtomicBoolean sweepRequested = new AtomicBoolean();
+  private volatile Set<String> remoteServiceNames = Set.of();
 
+  /**
+   * Constructor.
+   *
+   * @param healthConfig health configuration
+   * @param topLevelHealthChecker the checker used for every probe
+   * @param healthMetrics the meters to record probes and sweeps to
+   * @param healthSharding decides which endpoints this replica probes
+   */
   public HealthMonitor(
       final HealthConfig healthConfig,
-      @Qualifier("top-level-checker") final HealthChecker topLevelHealthChecker) {
+      @Qualifier("top-level-checker") final HealthChecker topLevelHealthChecker,
+      final HealthMetrics healthMetrics,
+      final HealthSharding healthSharding) {
     this.healthConfig = healthConfig;
     this.topLevelHealthChecker = topLevelHealthChecker;
+    this.healthMetrics = healthMetrics;
+    this.healthSharding = healthSharding;
     this.executor = Executors.newScheduledThreadPool(1);
 
     log.info("Received health config {}", this.healthConfig);
 
+    final long periodMillis = healthConfig.getPeriodMillis() > 0 ? healthConfig.getPeriodMillis() : 20000;
+    final int maxConcurrency = healthConfig.getMaxConcurrency() > 0 ? healthConfig.getMaxConcurrency() : DEFAULT_MAX_CONCURRENCY;
+    final long probeTimeoutMillis = healthConfig.getProbeTimeoutMillis() > 0
+        ? healthConfig.getProbeTimeoutMillis() : HttpHealthChecker.WEB_CLIENT_DURATION.toMillis();
+    final long sweepTimeoutMillis = healthConfig.getSweepTimeoutMillis() > 0 ? healthConfig.getSweepTimeoutMillis() : periodMillis;
+
+    final int circuitBreakerFailureThreshold = !healthConfig.isCircuitBreakerEnabled() ? 0
+        : healthConfig.getCircuitBreakerFailureThreshold() > 0 ? healthConfig.getCircuitBreakerFailureThreshold() : DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD;
+    final long circuitBreakerOpenMillis = healthConfig.getCircuitBreakerOpenMillis() > 0
+        ? healthConfig.getCircuitBreakerOpenMillis() : DEFAULT_CIRCUIT_BREAKER_OPEN_MILLIS;
+
+    this.healthHistory = new HealthHistory(healthConfig.getHistorySize() > 0 ? healthConfig.getHistorySize() : DEFAULT_HISTORY_SIZE);
+
+    this.probeEngine = new HealthProbeEngine(
+        this.topLevelHealthChecker,
+        maxConcurrency,
+        Duration.ofMillis(probeTimeoutMillis),
+        Duration.ofMillis(sweepTimeoutMillis),
+        healthConfig.getLatencyThresholdMillis(),
+        circuitBreakerFailureThreshold,
+        Duration.ofMillis(circuitBreakerOpenMillis),
+        HealthProbeEngine.Execution.fromName(healthConfig.getProbeExecution(), HealthProbeEngine.Execution.SCHEDULER),
+        this.healthHistory.andThen(this.healthMetrics));
+    this.endpoints = healthConfig.getEndpoints() == null ? List.of() : List.copyOf(healthConfig.getEndpoints());
+    this.enabledEndpoints = this.endpoints.stream().filter(HealthEndpoint::enabled).toList();
+    this.healthGraph = new HealthGraph(this.enabledEndpoints);
+
+    if (healthConfig.isAdaptiveSchedulingEnabled()) {
+      final long minIntervalMillis = healthConfig.getMinIntervalMillis() > 0 ? healthConfig.getMinIntervalMillis() : DEFAULT_MIN_INTERVAL_MILLIS;
+      final long maxIntervalMillis = healthConfig.getMaxIntervalMillis() > 0 ? healthConfig.getMaxIntervalMillis() : periodMillis * 8;
+      this.probeScheduler = new ProbeScheduler(periodMillis, minIntervalMillis, maxIntervalMillis, healthConfig.getJitterRatio());
+      // Endpoints may probe more often than the global min interval, so tick as fast as the fastest of them.
+      this.tickMillis = Math.min(smallestMinIntervalMillis(this.enabledEndpoints, minIntervalMillis), periodMillis);
+      log.info("Adaptive health scheduling. minIntervalMillis={}, maxIntervalMillis={}, tickMillis={}",
+          minIntervalMillis, maxIntervalMillis, this.tickMillis);
+    } else {
+      this.probeScheduler = null;
+      this.tickMillis = periodMillis;
+    }
+
     if (!this.healthConfig.isEnabled()) {
       log.info("Health checker is disabled");
       return;
@@ -45,31 +134,288 @@ public class HealthMonitor {
     log.info("Health monitor starting");
 
     final long initialDelayMillis = healthConfig.getInitialDelayMillis() > 0 ? healthConfig.getInitialDelayMillis() : 10000;
-    final long periodMillis = healthConfig.getPeriodMillis() > 0 ? healthConfig.getPeriodMillis() : 20000;
 
     if (initialDelayMillis != healthConfig.getInitialDelayMillis()
         || periodMillis != healthConfig.getPeriodMillis()) {
       log.warn("Overriding health check rate. initialDelayMillis={}, periodMillis={}", initialDelayMillis, periodMillis);
     }
 
-    this.executor.scheduleWithFixedDelay(this::checkAllHealthEndpoints, initialDelayMillis, periodMillis, TimeUnit.MILLISECONDS);
+    this.executor.scheduleWithFixedDelay(this::checkAllHealthEndpoints, initialDelayMillis, this.tickMillis, TimeUnit.MILLISECONDS);
   }
 
+  /**
+   * Start a sweep unless the previous one is still running.
+   * The sweep completes asynchronously, so the scheduler thread is never blocked on a probe.
+   * With adaptive scheduling only the due endpoints are probed, the others keep their last result.
+   * When sharded only the endpoints owned by this replica are probed, the others report the result shared by their owner.
+   * Endpoints of another replica with no live result, such as a replica that left before the ring was rebuilt, are
+   * probed here until their owner shares one, and only the results of owned endpoints are shared.
+   */
   private void checkAllHealthEndpoints() {
     try {
       log.debug("Checking health");
-      final FluxSink<Health> sink = this.sinkRef.get();
-      if (sink == null) {
-        log.info("No sink available");
+      if (!this.sweepInProgress.compareAndSet(false, true)) {
+        log.warn("Previous health sweep is still running, skipping this one");
+        this.healthMetrics.recordSweepOverrun();
+        return;
+      }
+      this.sweepRequested.set(false);
+      final List<HealthEndpoint> enabledEndpoints = this.enabledEndpoints;
+
+      final long sweepStart = System.nanoTime();
+      final List<HealthEndpoint> dueEndpoints = this.dueEndpoints(enabledEndpoints, sweepStart);
+      if (dueEndpoints.isEmpty()) {
+        if (this.healthSharding.isActive()) {
+          // Results shared by other replicas may have changed.
+          this.publish(this.merge(enabledEndpoints, List.of(), List.of()));
+        }
+        this.sweepInProgress.set(false);
         return;
       }
-      final List<ServiceHealth> healthList = this.healthConfig
-          .getEndpoints()
-          .stream()
-          .filter(HealthEndpoint::enabled)
-          .map(this::checkHealth)
-          .toList();
 
+      this.probeEngine.sweep(dueEndpoints)
+          .doFinally(signal -> {
+            this.sweepInProgress.set(false);
+            if (this.sweepRequested.get()) {
+              this.executor.execute(this::checkAllHealthEndpoints);
+            }
+          })
+          .subscribe(
+              healthList -> {
+                final long sweepNanos = System.nanoTime() - sweepStart;
+                this.healthMetrics.recordSweep(sweepNanos);
+                log.debug("Probed {} health endpoints in {} ms", dueEndpoints.size(), TimeUnit.NANOSECONDS.toMillis(sweepNanos));
+                this.healthSharding.publish(this.ownedResults(dueEndpoints, healthList));
+                this.updateGraph(healthList);
+                // The endpoints may have been reconfigured during the sweep.
+                this.publish(this.merge(this.enabledEndpoints, dueEndpoints, healthList));
+              },
+              e -> log.error("Health check failed", e));
+    } catch (final Exception e) {
+      this.sweepInProgress.set(false);
+      log.error("Health check failed", e);
+    }
+  }
+
+  /**
+   * The endpoints to probe in this sweep: the due endpoints this replica owns, and when sharded the due endpoints
+   * of other replicas that have no live result for them. An endpoint last reported from another replica's result,
+   * which is now missing or now owned here, is probed right away rather than reporting that result until it is due.
+   *
+   * @param enabledEndpoints all enabled endpoints
+   * @param nowNanos the current {@link System#nanoTime()}
+   * @return the endpoints to probe
+   */
+  private List<HealthEndpoint> dueEndpoints(final List<HealthEndpoint> enabledEndpoints, final long nowNanos) {
+    if (!this.healthSharding.isActive()) {
+      return this.probeScheduler == null ? enabledEndpoints : this.probeScheduler.due(enabledEndpoints, nowNanos);
+    }
+    final List<HealthEndpoint> localEndpoints = new ArrayList<>();
+    final List<HealthEndpoint> takenOverEndpoints = new ArrayList<>();
+    for (final HealthEndpoint endpoint : enabledEndpoints) {
+      if (!this.healthSharding.owns(endpoint) && this.healthSharding.getRemoteHealth(endpoint.serviceName()) != null) {
+        continue;
+      }
+      if (this.remoteServiceNames.contains(endpoint.serviceName())) {
+        takenOverEndpoints.add(endpoint);
+      } else {
+        localEndpoints.add(endpoint);
+      }
+    }
+    final List<HealthEndpoint> dueEndpoints = new ArrayList<>(
+        this.probeScheduler == null ? localEndpoints : this.probeScheduler.due(localEndpoints, nowNanos));
+    dueEndpoints.addAll(takenOverEndpoints);
+    return dueEndpoints;
+  }
+
+  private List<ServiceHealth> ownedResults(final List<HealthEndpoint> dueEndpoints, final List<ServiceHealth> healthList) {
+    if (!this.healthSharding.isActive()) {
+      return healthList;
+    }
+    final List<ServiceHealth> owned = new ArrayList<>();
+    for (int index = 0; index < dueEndpoints.size(); index++) {
+      if (this.healthSharding.owns(dueEndpoints.get(index))) {
+        owned.add(healthList.get(index));
+      }
+    }
+    return owned;
+  }
+
+  /**
+   * Combine the probed results with the last known health of the endpoints that were not due,
+   * and the shared results of the endpoints owned by other replicas. Endpoints of other replicas without a live
+   * shared result keep their local probe result.
+   *
+   * @param enabledEndpoints all enabled endpoints, in report order
+   * @param dueEndpoints the probed endpoints
+   * @param probed the results for the probed endpoints
+   * @return the health of every enabled endpoint
+   */
+  private List<ServiceHealth> merge(
+      final List<HealthEndpoint> enabledEndpoints,
+      final List<HealthEndpoint> dueEndpoints,
+      final List<ServiceHealth> probed) {
+    if (this.probeScheduler == null && !this.healthSharding.isActive() && dueEndpoints == enabledEndpoints) {
+      return probed;
+    }
+    final long now = System.nanoTime();
+    final Map<String, ServiceHealth> latest = new HashMap<>();
+    final Health lastHealth = this.oldHealthReference.get();
+    if (lastHealth != null) {
+      lastHealth.healthList().forEach(serviceHealth -> latest.put(serviceHealth.serviceName(), serviceHealth));
+    }
+    final Set<HealthEndpoint> current = this.probeScheduler == null ? Set.of() : new HashSet<>(enabledEndpoints);
+    for (int index = 0; index < dueEndpoints.size(); index++) {
+      if (current.contains(dueEndpoints.get(index))) {
+        this.probeScheduler.record(dueEndpoints.get(index), probed.get(index), now);
+      }
+      latest.put(probed.get(index).serviceName(), probed.get(index));
+    }
+    if (this.healthSharding.isActive()) {
+      final List<ServiceHealth> remoteResults = new ArrayList<>();
+      final Set<String> remoteNames = new HashSet<>();
+      for (final HealthEndpoint endpoint : enabledEndpoints) {
+        if (!this.healthSharding.owns(endpoint)) {
+          final ServiceHealth remote = this.healthSharding.getRemoteHealth(endpoint.serviceName());
+          if (remote != null) {
+            latest.put(endpoint.serviceName(), remote);
+            remoteResults.add(remote);
+            remoteNames.add(endpoint.serviceName());
+          }
+        }
+      }
+      this.remoteServiceNames = remoteNames;
+      this.updateGraph(remoteResults);
+    }
+    return enabledEndpoints.stream()
+        .map(endpoint -> latest.get(endpoint.serviceName()))
+        .filter(Objects::nonNull)
+        .toList();
+  }
+
+  /**
+   * Replace the endpoints without restarting the monitor.
+   * Services that remain keep their history, schedule, circuit breaker and graph status; updated services are
+   * probed afresh and removed services drop all of their state. Subscribers stay connected: the next report
+   * simply no longer contains the removed services, and added and updated services are probed right away.
+   *
+   * @param newEndpoints the new endpoints, in report order
+   * @return what changed
+   * @throws IllegalArgumentException if a service name is missing or used twice
+   */
+  public synchronized EndpointChanges updateEndpoints(final List<HealthEndpoint> newEndpoints) {
+    final Map<String, HealthEndpoint> previous = indexByServiceName(this.endpoints);
+    final Map<String, HealthEndpoint> next = indexByServiceName(newEndpoints);
+    final List<String> added = new ArrayList<>();
+    final List<String> updated = new ArrayList<>();
+    for (final HealthEndpoint endpoint : newEndpoints) {
+      final HealthEndpoint old = previous.get(endpoint.serviceName());
+      if (old == null) {
+        added.add(endpoint.serviceName());
+      } else if (!old.equals(endpoint)) {
+        updated.add(endpoint.serviceName());
+      }
+    }
+    final List<String> removed = previous.keySet().stream().filter(name -> !next.containsKey(name)).toList();
+    final EndpointChanges changes = new EndpointChanges(added, updated, removed);
+    if (changes.isEmpty()) {
+      return changes;
+    }
+    log.info("Reconfiguring health endpoints: {}", changes);
+
+    this.endpoints = List.copyOf(newEndpoints);
+    this.enabledEndpoints = this.endpoints.stream().filter(HealthEndpoint::enabled).toList();
+    this.healthConfig.setEndpoints(this.endpoints);
+    if (this.probeScheduler != null) {
+      this.enabledEndpoints.stream()
+          .filter(endpoint -> endpoint.minIntervalMillis() > 0 && endpoint.minIntervalMillis() < this.tickMillis)
+          .forEach(endpoint -> log.warn("Health endpoint {} min interval of {}ms is below the sweep tick, probing it every {}ms instead",
+              endpoint.serviceName(), endpoint.minIntervalMillis(), this.tickMillis));
+    }
+
+    for (final String serviceName : removed) {
+      this.forget(serviceName);
+      this.healthHistory.forget(serviceName);
+      this.healthMetrics.forget(serviceName);
+    }
+    updated.forEach(this::forget);
+
+    this.healthGraphSink.emitNext(this.healthGraph.reconfigure(this.enabledEndpoints), Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT));
+
+    final Health lastHealth = this.oldHealthReference.get();
+    if (lastHealth != null) {
+      final Map<String, ServiceHealth> latest = new HashMap<>();
+      lastHealth.healthList().forEach(serviceHealth -> latest.put(serviceHealth.serviceName(), serviceHealth));
+      this.publish(this.enabledEndpoints.stream()
+          .map(endpoint -> latest.get(endpoint.serviceName()))
+          .filter(Objects::nonNull)
+          .toList());
+    }
+    if (this.healthConfig.isEnabled() && (!added.isEmpty() || !updated.isEmpty())) {
+      this.requestSweep();
+    }
+    return changes;
+  }
+
+  /**
+   * Sweep now, or right after the sweep in progress.
+   */
+  private void requestSweep() {
+    this.sweepRequested.set(true);
+    if (!this.sweepInProgress.get()) {
+      this.executor.execute(this::checkAllHealthEndpoints);
+    }
+  }
+
+  /**
+   * The shortest min interval of any endpoint, endpoints without their own using the global one.
+   *
+   * @param endpoints the enabled endpoints
+   * @param minIntervalMillis the global min interval
+   * @return the shortest interval
+   */
+  private static long smallestMinIntervalMillis(final List<HealthEndpoint> endpoints, final long minIntervalMillis) {
+    return endpoints.stream()
+        .mapToLong(endpoint -> endpoint.minIntervalMillis() > 0 ? endpoint.minIntervalMillis() : minIntervalMillis)
+        .min()
+        .orElse(minIntervalMillis);
+  }
+
+  private void forget(final String serviceName) {
+    this.probeEngine.forget(serviceName);
+    if (this.probeScheduler != null) {
+      this.probeScheduler.forget(serviceName);
+    }
+  }
+
+  private static Map<String, HealthEndpoint> indexByServiceName(final List<HealthEndpoint> endpoints) {
+    final Map<String, HealthEndpoint> index = new HashMap<>();
+    for (final HealthEndpoint endpoint : endpoints) {
+      if (endpoint.serviceName() == null || endpoint.serviceName().isBlank()) {
+        throw new IllegalArgumentException("Health endpoint requires service name: " + endpoint);
+      }
+      if (index.put(endpoint.serviceName(), endpoint) != null) {
+        throw new IllegalArgumentException("Duplicate health endpoint service name: " + endpoint.serviceName());
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Roll the results up the dependency graph, and publish the nodes that changed.
+   *
+   * @param results the new results
+   */
+  private void updateGraph(final List<ServiceHealth> results) {
+    final HealthGraphUpdate update = this.healthGraph.update(results);
+    if (update != null) {
+      log.debug("Health graph changed: {}", update);
+      this.healthGraphSink.emitNext(update, Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT));
+    }
+  }
+
+  private void publish(final List<ServiceHealth> healthList) {
+    try {
       final Health lastHealth = this.oldHealthReference.get();
 
       final Health health = new Health(Instant.now(), healthList);
@@ -82,28 +428,110 @@ public class HealthMonitor {
       }
       this.oldHealthReference.set(health);
       log.debug("Checked health {}", health);
-      sink.next(health);
+      this.healthSink.emitNext(health, Sinks.EmitFailureHandler.busyLooping(EMIT_TIMEOUT));
     } catch (final Exception e) {
       log.error("Health check failed", e);
     }
   }
 
-  private ServiceHealth checkHealth(final HealthEndpoint endpoint) {
-    return new ServiceHealth(
-        endpoint.serviceName(),
-        this.topLevelHealthChecker.isHealthy(endpoint));
-  }
-
-  public void connect(final FluxSink<Health> sink) {
-    log.debug("Connecting health flux");
-    this.sinkRef.set(sink);
+  /**
+   * Hot stream of health reports.
+   * Every subscriber first receives the latest report, if there is one, then each new report.
+   *
+   * @return the health reports
+   */
+  public Flux<Health> getHealthFlux() {
+    return this.healthSink.asFlux();
   }
 
   public boolean isEnabled() {
     return this.healthConfig.isEnabled();
   }
 
+  public HealthConfig getHealthConfig() {
+    return this.healthConfig;
+  }
+
+  public List<HealthEndpoint> getEndpoints() {
+    return this.endpoints;
+  }
+
+  public HealthMetrics getHealthMetrics() {
+    return this.healthMetrics;
+  }
+
+  public HealthHistory getHealthHistory() {
+    return this.healthHistory;
+  }
+
+  /**
+   * Snapshot of the dependency graph.
+   *
+   * @return every node, with the graph version
+   */
+  public HealthGraphUpdate getHealthGraph() {
+    return this.healthGraph.snapshot();
+  }
+
+  /**
+   * Hot stream of dependency graph changes.
+   * Recent changes are replayed to new subscribers, so a subscriber can start from a snapshot and skip the
+   * changes up to the snapshot version without missing any.
+   *
+   * @return the graph deltas
+   */
+  public Flux<HealthGraphUpdate> getHealthGraphFlux() {
+    return this.healthGraphSink.asFlux();
+  }
+
   public Health getHealthSnapshot() {
     return this.oldHealthReference.get();
   }
+
+  /**
+   * Get the health of all enabled endpoints on demand.
+   * Endpoints with a result no older than the max staleness are not probed again, and concurrent
+   * requests share the in-flight probe of each endpoint.
+   * When sharded, endpoints owned by other replicas report their shared result, and are only probed here
+   * if no result has been shared yet.
+   *
+   * @param maxStaleness the maximum age of a cached result
+   * @return health
+   */
+  public Mono<Health> getHealthSnapshot(final Duration maxStaleness) {
+    final List<HealthEndpoint> enabledEndpoints = this.enabledEndpoints;
+    if (!this.healthSharding.isActive()) {
+      return this.probeEngine.snapshot(enabledEndpoints, maxStaleness)
+          .map(healthList -> new Health(Instant.now(), healthList));
+    }
+
+    final Map<String, ServiceHealth> remote = new HashMap<>();
+    for (final HealthEndpoint endpoint : enabledEndpoints) {
+      final ServiceHealth health = this.healthSharding.owns(endpoint) ? null : this.healthSharding.getRemoteHealth(endpoint.serviceName());
+      if (health != null) {
+        remote.put(endpoint.serviceName(), health);
+      }
+    }
+    final List<HealthEndpoint> localEndpoints = enabledEndpoints.stream()
+        .filter(endpoint -> !remote.containsKey(endpoint.serviceName()))
+        .toList();
+    return this.probeEngine.snapshot(localEndpoints, maxStaleness)
+        .map(healthList -> {
+          final Map<String, ServiceHealth> latest = new HashMap<>(remote);
+          healthList.forEach(health -> latest.put(health.serviceName(), health));
+          return new Health(Instant.now(), enabledEndpoints.stream()
+              .map(endpoint -> latest.get(endpoint.serviceName()))
+              .filter(Objects::nonNull)
+              .toList());
+        });
+  }
+
+  /**
+   * Stop scheduling sweeps, and stop the probe threads.
+   */
+  @Override
+  public void destroy() {
+    this.executor.shutdownNow();
+    this.probeEngine.close();
+  }
 }
@@ -0,0 +1,328 @@
+package com.example.webfluxexample.health.service;
+
+import com.example.webfluxexample.health.checkers.HealthChecker;
+import com.example.webfluxexample.health.checkers.ReactiveHealthChecker;
+import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.model.HealthStatus;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Probes a set of health endpoints concurrently.
+ * A sweep takes about as long as its slowest probe, bounded by the per-probe and per-sweep deadlines.
+ * Probes that do not finish in time are reported as unhealthy.
+ * Checkers that also implement {@link ReactiveHealthChecker} are probed without blocking a thread;
+ * plain {@link HealthChecker}s run on a bounded elastic scheduler, or with {@link Execution#VIRTUAL_THREADS} each on
+ * its own virtual thread, so thousands of blocking probes in flight cost almost no platform threads. Virtual thread
+ * probes are not limited by the max concurrency, which then only applies to reactive checkers.
+ * Probes of the same endpoint share one in-flight call through the {@link ProbeResultCache}. A shared probe outlives
+ * a sweep that is cancelled or hits its deadline, since other sweeps may be waiting on it, and a blocking probe is
+ * interrupted when it hits the probe deadline.
+ * Healthy probes slower than the endpoint's latency threshold report the endpoint as {@link HealthStatus#SLOW}.
+ * With circuit breaking, an endpoint that failed the threshold of consecutive probes is reported down without
+ * probing until its {@link CircuitBreaker} lets a trial probe through, so a dead dependency costs nothing per sweep.
+ * A probe still running at the sweep deadline counts as a failure, and its late outcome is not recorded again.
+ * The breaker state of endpoints whose breaker is not closed is reported in the health details.
+ */
+public class HealthProbeEngine implements AutoCloseable {
+  private static final Logger log = LoggerFactory.getLogger(HealthProbeEngine.class);
+
+  /**
+   * How blocking probes are run.
+   */
+  public enum Execution {
+    SCHEDULER,
+    VIRTUAL_THREADS;
+
+    /**
+     * Get a name return the Execution value.
+     *
+     * @param name the execution name, such as virtual-threads
+     * @param defaultExecution returned when the name is empty
+     * @return the execution
+     */
+    public static Execution fromName(final String name, final Execution defaultExecution) {
+      if (name == null || name.isEmpty()) {
+        return defaultExecution;
+      }
+      return Execution.valueOf(name.trim().replace('-', '_').toUpperCase());
+    }
+  }
+
+  private final HealthChecker healthChecker;
+  private final ReactiveHealthChecker reactiveHealthChecker;
+  private final int maxConcurrency;
+  private final Duration probeTimeout;
+  private final Duration sweepTimeout;
+  private final long latencyThresholdMillis;
+  private final int circuitBreakerFailureThreshold;
+  private final Duration circuitBreakerOpenDuration;
+  private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+  private final Map<String, AtomicBoolean> pendingOutcomes = new ConcurrentHashMap<>();
+  private final Scheduler scheduler;
+  private final ThreadFactory virtualThreadFactory;
+  private final ProbeResultCache resultCache = new ProbeResultCache();
+  private final ProbeListener probeListener;
+
+  /**
+   * Constructor.
+   *
+   * @param healthChecker the checker used for every probe
+   * @param maxConcurrency the maximum number of probes in flight, not applied to blocking probes on virtual threads
+   * @param probeTimeout the deadline for a single probe
+   * @param sweepTimeout the deadline for the whole sweep
+   * @param latencyThresholdMillis the default latency above which a healthy endpoint is slow, 0 for none
+   * @param circuitBreakerFailureThreshold the consecutive failures that open an endpoint's breaker, 0 for no breaker
+   * @param circuitBreakerOpenDuration how long a breaker stays open before a trial probe
+   * @param execution how blocking probes are run, on the scheduler when virtual threads are not available
+   * @param probeListener notified with the outcome and latency of every probe
+   */
+  public HealthProbeEngine(
+      final HealthChecker healthChecker,
+      final int maxConcurrency,
+      final Duration probeTimeout,
+      final Duration sweepTimeout,
+      final long latencyThresholdMillis,
+      final int circuitBreakerFailureThreshold,
+      final Duration circuitBreakerOpenDuration,
+      final Execution execution,
+      final ProbeListener probeListener) {
+    this.healthChecker = healthChecker;
+    this.reactiveHealthChecker = healthChecker instanceof ReactiveHealthChecker reactive ? reactive : null;
+    this.probeTimeout = probeTimeout;
+    this.sweepTimeout = sweepTimeout;
+    this.latencyThresholdMillis = latencyThresholdMillis;
+    this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+    this.circuitBreakerOpenDuration = circuitBreakerOpenDuration;
+    this.probeListener = probeListener;
+    this.virtualThreadFactory = execution == Execution.VIRTUAL_THREADS ? VirtualThreads.newFactory("health-probe-") : null;
+    if (execution == Execution.VIRTUAL_THREADS && this.virtualThreadFactory == null) {
+      log.warn("Virtual threads need Java 21 or later, running blocking health probes on a bounded elastic scheduler");
+    }
+    this.scheduler = this.virtualThreadFactory != null
+        ? null
+        : Schedulers.newBoundedElastic(maxConcurrency, Integer.MAX_VALUE, "health-probe", 60, true);
+    this.maxConcurrency = this.virtualThreadFactory != null && this.reactiveHealthChecker == null ? Integer.MAX_VALUE : maxConcurrency;
+  }
+
+  /**
+   * Probe all endpoints concurrently.
+   *
+   * @param endpoints the endpoints to probe
+   * @return the health of each endpoint, in the same order as the endpoints
+   */
+  public Mono<List<ServiceHealth>> sweep(final List<HealthEndpoint> endpoints) {
+    return this.sweep(endpoints, this::probe);
+  }
+
+  /**
+   * Get the health of all endpoints, probing only those without a result fresher than the max staleness.
+   *
+   * @param endpoints the endpoints
+   * @param maxStaleness the maximum age of a cached result
+   * @return the health of each endpoint, in the same order as the endpoints
+   */
+  public Mono<List<ServiceHealth>> snapshot(final List<HealthEndpoint> endpoints, final Duration maxStaleness) {
+    return this.sweep(endpoints, endpoint -> {
+      final ServiceHealth cached = this.resultCache.getIfFresh(endpoint.serviceName(), maxStaleness);
+      return cached != null ? Mono.just(cached) : this.probe(endpoint);
+    });
+  }
+
+  private Mono<List<ServiceHealth>> sweep(
+      final List<HealthEndpoint> endpoints,
+      final Function<HealthEndpoint, Mono<ServiceHealth>> probe) {
+    return Mono.defer(() -> {
+      final AtomicReferenceArray<ServiceHealth> results = new AtomicReferenceArray<>(endpoints.size());
+      return Flux.range(0, endpoints.size())
+          .flatMap(index -> probe.apply(endpoints.get(index))
+              .doOnNext(health -> results.set(index, health)), this.maxConcurrency)
+          .take(this.sweepTimeout)
+          .then(Mono.fromSupplier(() -> this.collect(endpoints, results)));
+    });
+  }
+
+  private List<ServiceHealth> collect(final List<HealthEndpoint> endpoints, final AtomicReferenceArray<ServiceHealth> results) {
+    final List<ServiceHealth> healthList = new ArrayList<>(endpoints.size());
+    for (int index = 0; index < endpoints.size(); index++) {
+      final ServiceHealth health = results.get(index);
+      if (health == null) {
+        log.warn("Health probe for {} did not finish within the sweep deadline of {}", endpoints.get(index).serviceName(), this.sweepTimeout);
+        healthList.add(this.cutOff(endpoints.get(index)));
+      } else {
+        healthList.add(health);
+      }
+    }
+    return healthList;
+  }
+
+  /**
+   * Report an endpoint whose probe did not finish within the sweep deadline, recording the failure with its breaker
+   * unless the probe's outcome was already recorded.
+   */
+  private ServiceHealth cutOff(final HealthEndpoint endpoint) {
+    final ServiceHealth health = new ServiceHealth(endpoint.serviceName(), false);
+    final CircuitBreaker circuitBreaker = this.circuitBreakers.get(endpoint.serviceName());
+    final AtomicBoolean outcomePending = this.pendingOutcomes.get(endpoint.serviceName());
+    if (circuitBreaker == null || outcomePending == null || !outcomePending.compareAndSet(true, false)) {
+      return health;
+    }
+    return this.recordOutcome(endpoint, circuitBreaker, health, System.nanoTime());
+  }
+
+  /**
+   * Probe a single endpoint, joining an in-flight probe of the same endpoint.
+   *
+   * @param endpoint the endpoint
+   * @return the endpoint health, unhealthy on error or timeout
+   */
+  private Mono<ServiceHealth> probe(final HealthEndpoint endpoint) {
+    return this.resultCache.probe(endpoint, () -> this.check(endpoint));
+  }
+
+  private Mono<ServiceHealth> check(final HealthEndpoint endpoint) {
+    final Mono<ServiceHealth> probe;
+    if (this.reactiveHealthChecker != null) {
+      probe = Mono.defer(() -> this.reactiveHealthChecker.checkHealth(endpoint));
+    } else if (this.virtualThreadFactory != null) {
+      probe = this.checkOnVirtualThread(endpoint);
+    } else {
+      probe = Mono.fromCallable(() -> new ServiceHealth(endpoint.serviceName(), this.healthChecker.isHealthy(endpoint)))
+          .subscribeOn(this.scheduler);
+    }
+
+    return Mono.defer(() -> {
+      final long start = System.nanoTime();
+      final CircuitBreaker circuitBreaker = this.getCircuitBreaker(endpoint);
+      if (circuitBreaker != null && !circuitBreaker.tryAcquire(start)) {
+        this.probeListener.onShortCircuit(endpoint);
+        return Mono.just(new ServiceHealth(endpoint.serviceName(), HealthStatus.DOWN, circuitDetails(circuitBreaker, start)));
+      }
+      if (circuitBreaker != null && circuitBreaker.getState() == CircuitBreaker.State.HALF_OPEN) {
+        this.onCircuitStateChange(endpoint, CircuitBreaker.State.HALF_OPEN);
+      }
+      // Cleared by whichever comes first, the probe's outcome or the sweep deadline, so one probe records one outcome.
+      final AtomicBoolean outcomePending = new AtomicBoolean(true);
+      if (circuitBreaker != null) {
+        this.pendingOutcomes.put(endpoint.serviceName(), outcomePending);
+      }
+      return probe
+          .timeout(this.probeTimeout)
+          .onErrorResume(e -> {
+            log.debug("Health probe failed for {}", endpoint.serviceName(), e);
+            return Mono.just(new ServiceHealth(endpoint.serviceName(), false));
+          })
+          .map(health -> {
+            final long end = System.nanoTime();
+            final long latencyNanos = end - start;
+            final ServiceHealth classified = this.classifyLatency(endpoint, health, latencyNanos);
+            this.probeListener.onProbe(endpoint, classified, latencyNanos);
+            if (circuitBreaker == null || !outcomePending.compareAndSet(true, false)) {
+              return classified;
+            }
+            return this.recordOutcome(endpoint, circuitBreaker, classified, end);
+          })
+          .doFinally(signal -> this.pendingOutcomes.remove(endpoint.serviceName(), outcomePending));
+    });
+  }
+
+  /**
+   * Run a blocking probe on its own virtual thread, interrupting it when the probe times out.
+   * The probe is the source of the shared in-flight probe, so only its own deadline cancels it, not a sweep.
+   */
+  private Mono<ServiceHealth> checkOnVirtualThread(final HealthEndpoint endpoint) {
+    return Mono.create(sink -> {
+      final Thread thread = this.virtualThreadFactory.newThread(() -> {
+        try {
+          sink.success(new ServiceHealth(endpoint.serviceName(), this.healthChecker.isHealthy(endpoint)));
+        } catch (final RuntimeException e) {
+          sink.error(e);
+        }
+      });
+      sink.onCancel(thread::interrupt);
+      thread.start();
+    });
+  }
+
+  /**
+   * Drop the cached result and circuit breaker of an endpoint that was removed or reconfigured.
+   *
+   * @param serviceName the service name
+   */
+  public void forget(final String serviceName) {
+    this.resultCache.forget(serviceName);
+    this.circuitBreakers.remove(serviceName);
+    this.pendingOutcomes.remove(serviceName);
+  }
+
+  /**
+   * Stop the threads of the probe scheduler. Probes still running on virtual threads are left to finish.
+   */
+  @Override
+  public void close() {
+    if (this.scheduler != null) {
+      this.scheduler.dispose();
+    }
+  }
+
+  private CircuitBreaker getCircuitBreaker(final HealthEndpoint endpoint) {
+    if (this.circuitBreakerFailureThreshold <= 0) {
+      return null;
+    }
+    return this.circuitBreakers.computeIfAbsent(endpoint.serviceName(),
+        name -> new CircuitBreaker(this.circuitBreakerFailureThreshold, this.circuitBreakerOpenDuration.toMillis()));
+  }
+
+  /**
+   * Record a probe outcome with the endpoint's breaker, and add the breaker state to the details unless it is closed.
+   */
+  private ServiceHealth recordOutcome(final HealthEndpoint endpoint, final CircuitBreaker circuitBreaker, final ServiceHealth health, final long nowNanos) {
+    final CircuitBreaker.State before = circuitBreaker.getState();
+    final CircuitBreaker.State after = circuitBreaker.record(health.healthy(), nowNanos);
+    if (after != before) {
+      this.onCircuitStateChange(endpoint, after);
+    }
+    if (after == CircuitBreaker.State.CLOSED) {
+      return health;
+    }
+    final Map<String, Object> details = new LinkedHashMap<>(health.details());
+    details.putAll(circuitDetails(circuitBreaker, nowNanos));
+    return new ServiceHealth(health.serviceName(), health.status(), details);
+  }
+
+  private void onCircuitStateChange(final HealthEndpoint endpoint, final CircuitBreaker.State state) {
+    log.info("Circuit breaker of {} is {}", endpoint.serviceName(), state);
+    this.probeListener.onCircuitStateChange(endpoint, state);
+  }
+
+  private static Map<String, Object> circuitDetails(final CircuitBreaker circuitBreaker, final long nowNanos) {
+    return Map.of(
+        "circuit", circuitBreaker.getState().name(),
+        "consecutiveFailures", circuitBreaker.getConsecutiveFailures(),
+        "retryInMillis", circuitBreaker.getRetryInMillis(nowNanos));
+  }
+
+  private ServiceHealth classifyLatency(final HealthEndpoint endpoint, final ServiceHealth health, final long latencyNanos) {
+    final long thresholdMillis = endpoint.latencyThresholdMillis() > 0 ? endpoint.latencyThresholdMillis() : this.latencyThresholdMillis;
+    if (thresholdMillis > 0 && health.status() == HealthStatus.UP && TimeUnit.NANOSECONDS.toMillis(latencyNanos) > thresholdMillis) {
+      return health.withStatus(HealthStatus.SLOW);
+    }
+    return health;
+  }
+}
@@ -0,0 +1,66 @@
+package com.example.webfluxexample.health.service;
+
+import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import java.util.List;
+
+/**
+ * Splits the endpoints across replicas of the health monitor.
+ * Each replica probes only the endpoints it owns and shares its results, so every replica can report the
+ * health of all endpoints.
+ */
+public interface HealthSharding extends AutoCloseable {
+
+  /**
+   * Not sharded: this replica owns and probes every endpoint.
+   */
+  HealthSharding NONE = new HealthSharding() {
+    @Override
+    public boolean isActive() {
+      return false;
+    }
+
+    @Override
+    public boolean owns(final HealthEndpoint endpoint) {
+      return true;
+    }
+
+    @Override
+    public ServiceHealth getRemoteHealth(final String serviceName) {
+      return null;
+    }
+
+    @Override
+    public void publish(final List<ServiceHealth> healthList) {
+    }
+  };
+
+  boolean isActive();
+
+  /**
+   * Whether this replica probes the endpoint.
+   *
+   * @param endpoint the endpoint
+   * @return true if this replica owns it
+   */
+  boolean owns(HealthEndpoint endpoint);
+
+  /**
+   * The latest result shared by another replica.
+   *
+   * @param serviceName the service name
+   * @return the result, or null if no live replica has shared one, down once it is too old to trust
+   */
+  ServiceHealth getRemoteHealth(String serviceName);
+
+  /**
+   * Share the results of this replica's probes.
+   *
+   * @param healthList the results
+   */
+  void publish(List<ServiceHealth> healthList);
+
+  @Override
+  default void close() {
+  }
+}
@@ -0,0 +1,60 @@
+package com.example.webfluxexample.health.service;
+
+import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.model.ServiceHealth;
+
+/**
+ * Notified after every completed probe, including failed and timed out probes.
+ * Probes skipped by an open circuit breaker are not probes, and are only reported to {@link #onShortCircuit}.
+ * Called on the probe thread, so implementations must be cheap and must not block.
+ */
+@FunctionalInterface
+public interface ProbeListener {
+  void onProbe(HealthEndpoint endpoint, ServiceHealth health, long latencyNanos);
+
+  /**
+   * Called when the circuit breaker of an endpoint changes state.
+   *
+   * @param endpoint the endpoint
+   * @param state the new state
+   */
+  default void onCircuitStateChange(final HealthEndpoint endpoint, final CircuitBreaker.State state) {
+  }
+
+  /**
+   * Called when a probe is skipped because the circuit breaker of the endpoint is open.
+   *
+   * @param endpoint the endpoint
+   */
+  default void onShortCircuit(final HealthEndpoint endpoint) {
+  }
+
+  /**
+   * Notify this listener, then the other one.
+   *
+   * @param other the listener notified second
+   * @return the combined listener
+   */
+  default ProbeListener andThen(final ProbeListener other) {
+    final ProbeListener first = this;
+    return new ProbeListener() {
+      @Override
+      public void onProbe(final HealthEndpoint endpoint, final ServiceHealth health, final long latencyNanos) {
+        first.onProbe(endpoint, health, latencyNanos);
+        other.onProbe(endpoint, health, latencyNanos);
+      }
+
+      @Override
+      public void onCircuitStateChange(final HealthEndpoint endpoint, final CircuitBreaker.State state) {
+        first.onCircuitStateChange(endpoint, state);
+        other.onCircuitStateChange(endpoint, state);
+      }
+
+      @Override
+      public void onShortCircuit(final HealthEndpoint endpoint) {
+        first.onShortCircuit(endpoint);
+        other.onShortCircuit(endpoint);
+      }
+    };
+  }
+}
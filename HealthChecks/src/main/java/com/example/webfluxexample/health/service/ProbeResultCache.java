@@ -0,0 +1,71 @@
+package com.example.webfluxexample.health.service;
+
+import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import reactor.core.publisher.Mono;
+
+/**
+ * Latest probe result per endpoint, plus single-flight deduplication of probes.
+ * Concurrent requests for the same endpoint share one in-flight probe instead of each probing the dependency.
+ */
+public class ProbeResultCache {
+
+  private record CachedResult(ServiceHealth health, long checkedAtNanos) {
+  }
+
+  private final Map<String, CachedResult> results = new ConcurrentHashMap<>();
+  private final Map<String, Mono<ServiceHealth>> inFlight = new ConcurrentHashMap<>();
+
+  /**
+   * Get the cached result if it is no older than the max staleness.
+   *
+   * @param serviceName the service name
+   * @param maxStaleness the maximum age of the result
+   * @return the cached result, or null if there is none or it is too old
+   */
+  public ServiceHealth getIfFresh(final String serviceName, final Duration maxStaleness) {
+    final CachedResult cached = this.results.get(serviceName);
+    if (cached == null || System.nanoTime() - cached.checkedAtNanos() > maxStaleness.toNanos()) {
+      return null;
+    }
+    return cached.health();
+  }
+
+  /**
+   * Probe an endpoint, joining the in-flight probe for the same endpoint if there is one.
+   * The result is cached when the probe completes.
+   *
+   * @param endpoint the endpoint
+   * @param probe creates the probe when none is in flight
+   * @return the probe result
+   */
+  public Mono<ServiceHealth> probe(final HealthEndpoint endpoint, final Supplier<Mono<ServiceHealth>> probe) {
+    final String serviceName = endpoint.serviceName();
+    return Mono.defer(() -> this.inFlight.computeIfAbsent(serviceName, name -> probe.get()
+        .doOnNext(this::put)
+        .doFinally(signal -> this.inFlight.remove(name))
+        .cache()));
+  }
+
+  /**
+   * Cache a result.
+   *
+   * @param health the result
+   */
+  public void put(final ServiceHealth health) {
+    this.results.put(health.serviceName(), new CachedResult(health, System.nanoTime()));
+  }
+
+  /**
+   * Drop the cached result of an endpoint, so its next probe is not served from the cache.
+   *
+   * @param serviceName the service name
+   */
+  public void forget(final String serviceName) {
+    this.results.remove(serviceName);
+  }
+}
@@ -0,0 +1,139 @@
+package com.example.webfluxexample.health.service;
+
+import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when each endpoint is next due for a probe.
+ * <ul>
+ *   <li>Healthy, stable endpoints double their interval on every success, up to the max interval.</li>
+ *   <li>Failed endpoints are probed from the min interval, backing off exponentially up to the base period.</li>
+ *   <li>Flapping endpoints, with several transitions within the max interval, stay at the min interval.</li>
+ * </ul>
+ * Every interval is randomized by the jitter ratio so endpoints do not synchronize.
+ */
+public class ProbeScheduler {
+
+  /**
+   * Transitions within the flap window after which an endpoint counts as flapping.
+   */
+  public static final int FLAP_THRESHOLD = 3;
+
+  private final long basePeriodMillis;
+  private final long minIntervalMillis;
+  private final long maxIntervalMillis;
+  private final double jitterRatio;
+  private final Map<String, Schedule> schedules = new ConcurrentHashMap<>();
+
+  /**
+   * Per endpoint schedule state.
+   */
+  private static final class Schedule {
+    private long nextDueNanos;
+    private long intervalMillis;
+    private int consecutiveFailures;
+    private Boolean lastHealthy;
+    private final Deque<Long> transitionNanos = new ArrayDeque<>();
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param basePeriodMillis the interval used for newly recovered endpoints
+   * @param minIntervalMillis the shortest interval, used for failing and flapping endpoints
+   * @param maxIntervalMillis the longest interval, reached by stable healthy endpoints
+   * @param jitterRatio the fraction of each interval to randomize, between 0 and 1
+   */
+  public ProbeScheduler(
+      final long basePeriodMillis,
+      final long minIntervalMillis,
+      final long maxIntervalMillis,
+      final double jitterRatio) {
+    this.basePeriodMillis = basePeriodMillis;
+    this.minIntervalMillis = minIntervalMillis;
+    this.maxIntervalMillis = maxIntervalMillis;
+    this.jitterRatio = jitterRatio;
+  }
+
+  /**
+   * Select the endpoints that are due for a probe.
+   * Endpoints that have never been probed are always due.
+   *
+   * @param endpoints the enabled endpoints
+   * @param nowNanos the current {@link System#nanoTime()}
+   * @return the due endpoints, in the given order
+   */
+  public List<HealthEndpoint> due(final List<HealthEndpoint> endpoints, final long nowNanos) {
+    return endpoints.stream()
+        .filter(endpoint -> {
+          final Schedule schedule = this.schedules.get(endpoint.serviceName());
+          return schedule == null || nowNanos - schedule.nextDueNanos >= 0;
+        })
+        .toList();
+  }
+
+  /**
+   * Record a probe result and schedule the next probe of the endpoint.
+   *
+   * @param endpoint the probed endpoint
+   * @param health the probe result
+   * @param nowNanos the current {@link System#nanoTime()}
+   */
+  public void record(final HealthEndpoint endpoint, final ServiceHealth health, final long nowNanos) {
+    final Schedule schedule = this.schedules.computeIfAbsent(endpoint.serviceName(), name -> new Schedule());
+    final long minInterval = endpoint.minIntervalMillis() > 0 ? endpoint.minIntervalMillis() : this.minIntervalMillis;
+    final long maxInterval = endpoint.maxIntervalMillis() > 0 ? endpoint.maxIntervalMillis() : this.maxIntervalMillis;
+    final long basePeriod = Math.min(Math.max(this.basePeriodMillis, minInterval), maxInterval);
+
+    synchronized (schedule) {
+      if (schedule.lastHealthy != null && schedule.lastHealthy != health.healthy()) {
+        schedule.transitionNanos.addLast(nowNanos);
+      }
+      final long flapWindowNanos = TimeUnit.MILLISECONDS.toNanos(maxInterval);
+      while (!schedule.transitionNanos.isEmpty() && nowNanos - schedule.transitionNanos.peekFirst() > flapWindowNanos) {
+        schedule.transitionNanos.removeFirst();
+      }
+      final boolean flapping = schedule.transitionNanos.size() >= FLAP_THRESHOLD;
+
+      if (!health.healthy()) {
+        schedule.consecutiveFailures++;
+        final int doublings = Math.min(schedule.consecutiveFailures - 1, 30);
+        schedule.intervalMillis = flapping ? minInterval : Math.min(minInterval << doublings, basePeriod);
+      } else if (flapping) {
+        schedule.consecutiveFailures = 0;
+        schedule.intervalMillis = minInterval;
+      } else if (schedule.lastHealthy == null || !schedule.lastHealthy || schedule.intervalMillis == 0) {
+        schedule.consecutiveFailures = 0;
+        schedule.intervalMillis = basePeriod;
+      } else {
+        schedule.intervalMillis = Math.min(Math.max(schedule.intervalMillis * 2, basePeriod), maxInterval);
+      }
+      schedule.lastHealthy = health.healthy();
+      schedule.nextDueNanos = nowNanos + TimeUnit.MILLISECONDS.toNanos(this.jitter(schedule.intervalMillis));
+    }
+  }
+
+  /**
+   * Drop the schedule of an endpoint, so it is due immediately if it is checked again.
+   *
+   * @param serviceName the service name
+   */
+  public void forget(final String serviceName) {
+    this.schedules.remove(serviceName);
+  }
+
+  private long jitter(final long intervalMillis) {
+    if (this.jitterRatio <= 0) {
+      return intervalMillis;
+    }
+    final double offset = (ThreadLocalRandom.current().nextDouble() * 2 - 1) * this.jitterRatio;
+    return Math.max(1, Math.round(intervalMillis * (1 + offset)));
+  }
+}
@@ -0,0 +1,203 @@
+package com.example.webfluxexample.health.service;
+
+import com.example.webfluxexample.health.metrics.HealthMetrics;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Per-subscriber buffering and limits of one broadcast stream.
+ * Every subscriber reads the shared stream through its own bounded buffer, so a slow subscriber only loses
+ * its own updates and never holds back the others or the shared stream:
+ * <ul>
+ *   <li>{@link Overflow#DROP_OLDEST}: the oldest buffered update is dropped.</li>
+ *   <li>{@link Overflow#LATEST}: only the latest update is kept, each update it replaces counts as dropped.</li>
+ *   <li>{@link Overflow#DISCONNECT}: the subscriber is completed, for streams where a gap is not acceptable.</li>
+ * </ul>
+ * Subscribers beyond the limit are rejected, and subscribers that have not taken a pending update within the
+ * idle timeout are disconnected. Disposing disconnects every subscriber and rejects new ones.
+ */
+public class StreamSubscriptions implements Disposable {
+  private static final Logger log = LoggerFactory.getLogger(StreamSubscriptions.class);
+
+  /**
+   * What happens when a subscriber's buffer is full.
+   */
+  public enum Overflow {
+    DROP_OLDEST,
+    LATEST,
+    DISCONNECT;
+
+    /**
+     * Get a name return the Overflow value.
+     *
+     * @param name the overflow name, such as drop-oldest
+     * @param defaultOverflow returned when the name is empty
+     * @return the overflow
+     */
+    public static Overflow fromName(final String name, final Overflow defaultOverflow) {
+      if (name == null || name.isEmpty()) {
+        return defaultOverflow;
+      }
+      return Overflow.valueOf(name.trim().replace('-', '_').toUpperCase());
+    }
+  }
+
+  private static final class Subscriber {
+    private final Sinks.Empty<Void> disconnect = Sinks.empty();
+    private volatile long lastOfferedNanos;
+    private volatile long lastDeliveredNanos;
+
+    private Subscriber() {
+      this.lastOfferedNanos = System.nanoTime();
+      this.lastDeliveredNanos = this.lastOfferedNanos;
+    }
+  }
+
+  private final String name;
+  private final Overflow overflow;
+  private final int bufferSize;
+  private final int maxSubscribers;
+  private final Duration idleTimeout;
+  private final HealthMetrics healthMetrics;
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger subscriberCount = new AtomicInteger();
+  private final Disposable idleCheck;
+  private volatile boolean disposed;
+
+  /**
+   * Constructor.
+   *
+   * @param name the stream name, for logging and metrics
+   * @param overflow what happens when a subscriber's buffer is full
+   * @param bufferSize the number of updates buffered per subscriber
+   * @param maxSubscribers the maximum number of concurrent subscribers
+   * @param idleTimeout how long a subscriber may leave an update pending, zero for no limit
+   * @param healthMetrics records drops and disconnects
+   */
+  public StreamSubscriptions(
+      final String name,
+      final Overflow overflow,
+      final int bufferSize,
+      final int maxSubscribers,
+      final Duration idleTimeout,
+      final HealthMetrics healthMetrics) {
+    this.name = name;
+    this.overflow = overflow;
+    this.bufferSize = bufferSize;
+    this.maxSubscribers = maxSubscribers;
+    this.idleTimeout = idleTimeout;
+    this.healthMetrics = healthMetrics;
+    this.idleCheck = idleTimeout.isZero()
+        ? Disposables.never()
+        : Schedulers.parallel().schedulePeriodically(
+            this::disconnectIdleSubscribers,
+            idleTimeout.toMillis() / 2,
+            idleTimeout.toMillis() / 2,
+            TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Subscribe to a stream through a bounded buffer.
+   * The subscriber's slot is reserved when the returned stream is subscribed to, and rejected with service
+   * unavailable before anything is emitted when the limit is reached, so callers need not check beforehand.
+   *
+   * @param source the stream of this subscriber, subscribed to once per subscription
+   * @param <T> the element type
+   * @return the buffered stream, or an error if the subscriber limit is reached
+   */
+  public <T> Flux<T> subscribe(final Flux<T> source) {
+    return Flux.defer(() -> {
+      if (!this.reserve()) {
+        this.healthMetrics.recordStreamDisconnect(this.name, "rejected");
+        return Flux.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+            "Too many " + this.name + " subscribers, the limit is " + this.maxSubscribers));
+      }
+      final Subscriber subscriber = new Subscriber();
+      this.subscribers.add(subscriber);
+      if (this.disposed) {
+        // Disposed after the slot was reserved but before the subscriber was added.
+        subscriber.disconnect.tryEmitEmpty();
+      }
+      return this.buffer(source.doOnNext(item -> subscriber.lastOfferedNanos = System.nanoTime()))
+          .doOnNext(item -> subscriber.lastDeliveredNanos = System.nanoTime())
+          .takeUntilOther(subscriber.disconnect.asMono())
+          .doFinally(signal -> {
+            this.subscribers.remove(subscriber);
+            this.subscriberCount.decrementAndGet();
+          });
+    });
+  }
+
+  /**
+   * Take a subscriber slot if one is free.
+   *
+   * @return true if the slot was taken
+   */
+  private boolean reserve() {
+    if (this.disposed) {
+      return false;
+    }
+    return this.subscriberCount.getAndUpdate(count -> count < this.maxSubscribers ? count + 1 : count) < this.maxSubscribers;
+  }
+
+  private <T> Flux<T> buffer(final Flux<T> flux) {
+    return switch (this.overflow) {
+      // A buffer of one that drops its oldest update keeps only the latest, and reports what it replaces.
+      case LATEST -> flux.onBackpressureBuffer(1,
+          dropped -> this.healthMetrics.recordStreamDropped(this.name), BufferOverflowStrategy.DROP_OLDEST);
+      case DROP_OLDEST -> flux.onBackpressureBuffer(this.bufferSize,
+          dropped -> this.healthMetrics.recordStreamDropped(this.name), BufferOverflowStrategy.DROP_OLDEST);
+      case DISCONNECT -> flux.onBackpressureBuffer(this.bufferSize,
+              dropped -> this.healthMetrics.recordStreamDisconnect(this.name, "overflow"), BufferOverflowStrategy.ERROR)
+          .onErrorResume(Exceptions::isOverflow, e -> {
+            log.info("Disconnecting {} subscriber that fell {} updates behind", this.name, this.bufferSize);
+            return Flux.empty();
+          });
+    };
+  }
+
+  /**
+   * Disconnect subscribers with an update pending for longer than the idle timeout.
+   * A subscriber that keeps up is never idle, however rarely the stream emits.
+   */
+  private void disconnectIdleSubscribers() {
+    final long now = System.nanoTime();
+    for (final Subscriber subscriber : this.subscribers) {
+      final boolean pending = subscriber.lastOfferedNanos - subscriber.lastDeliveredNanos > 0;
+      if (pending && now - subscriber.lastDeliveredNanos > this.idleTimeout.toNanos()) {
+        log.info("Disconnecting {} subscriber idle for more than {}", this.name, this.idleTimeout);
+        this.healthMetrics.recordStreamDisconnect(this.name, "idle");
+        subscriber.disconnect.tryEmitEmpty();
+      }
+    }
+  }
+
+  /**
+   * Stop the idle check and disconnect every subscriber.
+   */
+  @Override
+  public void dispose() {
+    this.disposed = true;
+    this.idleCheck.dispose();
+    this.subscribers.forEach(subscriber -> subscriber.disconnect.tryEmitEmpty());
+  }
+
+  @Override
+  public boolean isDisposed() {
+    return this.disposed;
+  }
+}
@@ -0,0 +1,35 @@
+package com.example.webfluxexample.health.service;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Virtual thread factory, looked up reflectively so the application still runs on Java 17.
+ */
+final class VirtualThreads {
+  private static final Logger log = LoggerFactory.getLogger(VirtualThreads.class);
+
+  private VirtualThreads() {
+  }
+
+  /**
+   * Create a factory of named virtual threads.
+   *
+   * @param prefix the thread name prefix, followed by a counter
+   * @return the factory, or null if the runtime has no virtual threads
+   */
+  static ThreadFactory newFactory(final String prefix) {
+    try {
+      final Method ofVirtual = Thread.class.getMethod("ofVirtual");
+      Object builder = ofVirtual.invoke(null);
+      final Class<?> builderClass = ofVirtual.getReturnType();
+      builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (final ReflectiveOperationException e) {
+      log.debug("Virtual threads are not available on Java {}", Runtime.version(), e);
+      return null;
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package com.example.webfluxexample.health.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import org.apache.kafka.common.utils.Utils;
+
+/**
+ * Consistent hash ring of replicas.
+ * Each replica is placed on the ring at several virtual nodes, and a key belongs to the first replica at or
+ * after its hash. When a replica joins or leaves only the keys next to its virtual nodes move.
+ * Immutable, so it can be read without locking and replaced when the membership changes.
+ */
+public final class ConsistentHashRing {
+
+  private final NavigableMap<Integer, String> ring = new TreeMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param members the replica ids
+   * @param virtualNodes the number of points per replica
+   */
+  public ConsistentHashRing(final Collection<String> members, final int virtualNodes) {
+    for (final String member : members) {
+      for (int node = 0; node < virtualNodes; node++) {
+        this.ring.put(hash(member + "#" + node), member);
+      }
+    }
+  }
+
+  /**
+   * Get the replica a key belongs to.
+   *
+   * @param key the key
+   * @return the replica id, or null if the ring is empty
+   */
+  public String owner(final String key) {
+    if (this.ring.isEmpty()) {
+      return null;
+    }
+    final Map.Entry<Integer, String> entry = this.ring.ceilingEntry(hash(key));
+    return entry != null ? entry.getValue() : this.ring.firstEntry().getValue();
+  }
+
+  private static int hash(final String value) {
+    return Utils.murmur2(value.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,297 @@
+package com.example.webfluxexample.health.sharding;
+
+import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.config.ShardingConfig;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import com.example.webfluxexample.health.service.HealthSharding;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.support.TopicPartitionOffset;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Shards endpoints across replicas over a compacted Kafka topic.
+ * <ul>
+ *   <li>Each replica announces itself under {@code member/<replicaId>} every heartbeat.</li>
+ *   <li>Live replicas form a {@link ConsistentHashRing}; each endpoint is probed by the replica it hashes to.</li>
+ *   <li>Results are shared under {@code health/<serviceName>}, so compaction keeps only the latest per endpoint.</li>
+ * </ul>
+ * Every replica reads the whole topic from the beginning without a consumer group, so a new replica starts
+ * with the latest results of all endpoints. A replica that stops heartbeating drops out of the ring after the
+ * member timeout and its endpoints move to the others. Its shared results are ignored from then on, and results
+ * not re-shared within the result timeout are reported down.
+ * Records are sent from a single dedicated thread, so a slow or unreachable broker never blocks a probe.
+ */
+public class KafkaHealthSharding implements HealthSharding {
+  private static final Logger log = LoggerFactory.getLogger(KafkaHealthSharding.class);
+
+  private static final String MEMBER_PREFIX = "member/";
+  private static final String HEALTH_PREFIX = "health/";
+
+  /**
+   * A replica heartbeat.
+   *
+   * @param replicaId the replica
+   * @param timestampMillis when it was sent
+   */
+  public record Heartbeat(String replicaId, long timestampMillis) {
+  }
+
+  /**
+   * A shared probe result.
+   *
+   * @param replicaId the replica that probed the endpoint
+   * @param timestampMillis when the result was shared
+   * @param health the result
+   */
+  public record SharedHealth(String replicaId, long timestampMillis, ServiceHealth health) {
+  }
+
+  private final ShardingConfig config;
+  private final String replicaId;
+  private final ObjectMapper objectMapper;
+  private final DefaultKafkaProducerFactory<String, String> producerFactory;
+  private final KafkaTemplate<String, String> kafkaTemplate;
+  private final KafkaMessageListenerContainer<String, String> container;
+  private final Scheduler sendScheduler = Schedulers.newSingle("health-shard");
+  private final Map<String, Long> memberLastSeenMillis = new ConcurrentHashMap<>();
+  private final SharedResults remoteHealth;
+  private volatile Set<String> liveMembers = Set.of();
+  private volatile ConsistentHashRing ring;
+  private Disposable heartbeatTask;
+
+  /**
+   * Constructor.
+   *
+   * @param config sharding configuration
+   * @param producerProperties the application Kafka producer settings
+   * @param consumerProperties the application Kafka consumer settings
+   * @param objectMapper serializes the shared records
+   */
+  public KafkaHealthSharding(
+      final ShardingConfig config,
+      final Map<String, Object> producerProperties,
+      final Map<String, Object> consumerProperties,
+      final ObjectMapper objectMapper) {
+    this.config = config;
+    this.replicaId = config.getReplicaId() != null && !config.getReplicaId().isBlank()
+        ? config.getReplicaId()
+        : defaultReplicaId();
+    this.objectMapper = objectMapper;
+    this.ring = new ConsistentHashRing(Set.of(this.replicaId), config.getVirtualNodes());
+    this.remoteHealth = new SharedResults(config.getResultTimeoutMillis());
+
+    final Map<String, Object> producer = new HashMap<>(producerProperties);
+    producer.put(ProducerConfig.CLIENT_ID_CONFIG, "health-checks-shard-" + this.replicaId);
+    producer.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, config.getHeartbeatMillis());
+    this.producerFactory = new DefaultKafkaProducerFactory<>(producer, new StringSerializer(), new StringSerializer());
+    this.kafkaTemplate = new KafkaTemplate<>(this.producerFactory);
+
+    // Manual assignment without a group: every replica reads every record and never commits offsets.
+    final Map<String, Object> consumer = new HashMap<>(consumerProperties);
+    consumer.remove(ConsumerConfig.GROUP_ID_CONFIG);
+    consumer.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+    consumer.put(ConsumerConfig.CLIENT_ID_CONFIG, "health-checks-shard-" + this.replicaId);
+    final TopicPartitionOffset[] partitions = IntStream.range(0, config.getPartitions())
+        .mapToObj(partition -> new TopicPartitionOffset(config.getTopic(), partition, TopicPartitionOffset.SeekPosition.BEGINNING))
+        .toArray(TopicPartitionOffset[]::new);
+    final ContainerProperties containerProperties = new ContainerProperties(partitions);
+    containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+    containerProperties.setMessageListener((MessageListener<String, String>) this::onRecord);
+    this.container = new KafkaMessageListenerContainer<>(
+        new DefaultKafkaConsumerFactory<>(consumer, new StringDeserializer(), new StringDeserializer()),
+        containerProperties);
+  }
+
+  /**
+   * Create the topic if needed, start reading it and start heartbeating.
+   *
+   * @param admin the admin client used to create the topic
+   */
+  public void start(final Admin admin) {
+    log.info("Health sharding enabled. replicaId={}, topic={}", this.replicaId, this.config.getTopic());
+    this.createTopic(admin);
+    this.container.start();
+    this.heartbeatTask = this.sendScheduler.schedulePeriodically(
+        this::heartbeat,
+        0,
+        this.config.getHeartbeatMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public boolean isActive() {
+    return true;
+  }
+
+  @Override
+  public boolean owns(final HealthEndpoint endpoint) {
+    return this.replicaId.equals(this.ring.owner(endpoint.serviceName()));
+  }
+
+  @Override
+  public ServiceHealth getRemoteHealth(final String serviceName) {
+    return this.remoteHealth.get(serviceName, this::isLive, System.currentTimeMillis());
+  }
+
+  @Override
+  public void publish(final List<ServiceHealth> healthList) {
+    final long now = System.currentTimeMillis();
+    for (final ServiceHealth health : healthList) {
+      this.send(HEALTH_PREFIX + health.serviceName(), new SharedHealth(this.replicaId, now, health));
+    }
+  }
+
+  private void heartbeat() {
+    try {
+      this.send(MEMBER_PREFIX + this.replicaId, new Heartbeat(this.replicaId, System.currentTimeMillis()));
+      this.updateRing();
+    } catch (final Exception e) {
+      log.warn("Health sharding heartbeat failed", e);
+    }
+  }
+
+  /**
+   * Rebuild the ring from the replicas heard from within the member timeout, if they changed.
+   * Last seen times are local receive times, so clock skew between replicas does not matter.
+   */
+  private void updateRing() {
+    final long now = System.currentTimeMillis();
+    final Set<String> live = this.memberLastSeenMillis.entrySet().stream()
+        .filter(entry -> now - entry.getValue() <= this.config.getMemberTimeoutMillis())
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toSet());
+    live.add(this.replicaId);
+    if (!live.equals(this.liveMembers)) {
+      log.info("Health shard members changed: {}", live);
+      this.liveMembers = Set.copyOf(live);
+      this.ring = new ConsistentHashRing(live, this.config.getVirtualNodes());
+    }
+  }
+
+  private boolean isLive(final String member) {
+    if (this.replicaId.equals(member)) {
+      return true;
+    }
+    final Long lastSeenMillis = this.memberLastSeenMillis.get(member);
+    return lastSeenMillis != null && System.currentTimeMillis() - lastSeenMillis <= this.config.getMemberTimeoutMillis();
+  }
+
+  private void onRecord(final ConsumerRecord<String, String> consumerRecord) {
+    final String key = consumerRecord.key();
+    if (key == null) {
+      return;
+    }
+    try {
+      if (key.startsWith(MEMBER_PREFIX)) {
+        final String member = key.substring(MEMBER_PREFIX.length());
+        if (consumerRecord.value() == null) {
+          this.memberLastSeenMillis.remove(member);
+        } else {
+          this.memberLastSeenMillis.put(member, System.currentTimeMillis());
+        }
+      } else if (key.startsWith(HEALTH_PREFIX)) {
+        final String serviceName = key.substring(HEALTH_PREFIX.length());
+        if (consumerRecord.value() == null) {
+          this.remoteHealth.remove(serviceName);
+        } else {
+          this.remoteHealth.put(serviceName, this.objectMapper.readValue(consumerRecord.value(), SharedHealth.class), System.currentTimeMillis());
+        }
+      }
+    } catch (final JsonProcessingException e) {
+      log.warn("Ignoring unreadable health shard record {}", key, e);
+    }
+  }
+
+  private void send(final String key, final Object value) {
+    final String json;
+    try {
+      json = this.objectMapper.writeValueAsString(value);
+    } catch (final JsonProcessingException e) {
+      log.warn("Could not serialize health shard record {}", key, e);
+      return;
+    }
+    this.sendScheduler.schedule(() -> {
+      try {
+        this.kafkaTemplate.send(this.config.getTopic(), key, json)
+            .whenComplete((result, e) -> {
+              if (e != null) {
+                log.debug("Could not share health shard record {}", key, e);
+              }
+            });
+      } catch (final Exception e) {
+        log.debug("Could not share health shard record {}", key, e);
+      }
+    });
+  }
+
+  private void createTopic(final Admin admin) {
+    final NewTopic topic = new NewTopic(this.config.getTopic(), this.config.getPartitions(), this.config.getReplicationFactor())
+        .configs(Map.of(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_COMPACT));
+    try {
+      admin.createTopics(List.of(topic)).all().get(this.config.getMemberTimeoutMillis(), TimeUnit.MILLISECONDS);
+    } catch (final ExecutionException e) {
+      if (!(e.getCause() instanceof TopicExistsException)) {
+        log.warn("Could not create health shard topic {}", this.config.getTopic(), e.getCause());
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (final TimeoutException e) {
+      log.warn("Timed out creating health shard topic {}", this.config.getTopic());
+    }
+  }
+
+  private static String defaultReplicaId() {
+    final String hostName = System.getenv("HOSTNAME");
+    return hostName != null && !hostName.isBlank() ? hostName : UUID.randomUUID().toString();
+  }
+
+  /**
+   * Leave the ring, so the other replicas take over this replica's endpoints without waiting for the timeout.
+   */
+  @Override
+  public void close() {
+    if (this.heartbeatTask != null) {
+      this.heartbeatTask.dispose();
+    }
+    try {
+      this.kafkaTemplate.send(this.config.getTopic(), MEMBER_PREFIX + this.replicaId, null);
+      this.kafkaTemplate.flush();
+    } catch (final Exception e) {
+      log.debug("Could not leave the health shard ring", e);
+    }
+    this.container.stop();
+    this.sendScheduler.dispose();
+    this.producerFactory.destroy();
+  }
+}
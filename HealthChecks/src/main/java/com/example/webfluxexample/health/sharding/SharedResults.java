@@ -0,0 +1,81 @@
+package com.example.webfluxexample.health.sharding;
+
+import com.example.webfluxexample.health.model.HealthStatus;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * The latest probe results shared by other replicas, with their age.
+ * <ul>
+ *   <li>A result of a replica that left the ring reads as missing, so it is probed locally until the new owner
+ *   shares one.</li>
+ *   <li>A result not re-shared within the result timeout reads as {@link HealthStatus#DOWN}, so a last status
+ *   that nobody refreshes is never served on as current.</li>
+ * </ul>
+ */
+class SharedResults {
+
+  private record SharedResult(String replicaId, long sharedAtMillis, ServiceHealth health) {
+  }
+
+  private final long resultTimeoutMillis;
+  private final Map<String, SharedResult> results = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param resultTimeoutMillis results older than this are expired
+   */
+  SharedResults(final long resultTimeoutMillis) {
+    this.resultTimeoutMillis = resultTimeoutMillis;
+  }
+
+  /**
+   * Keep a shared result.
+   * The age is taken from the sharing replica's timestamp, capped at the local clock, so results replayed from
+   * the topic at startup keep their age.
+   *
+   * @param serviceName the service name
+   * @param shared the shared result
+   * @param nowMillis the local time
+   */
+  void put(final String serviceName, final KafkaHealthSharding.SharedHealth shared, final long nowMillis) {
+    this.results.put(
+        serviceName,
+        new SharedResult(shared.replicaId(), Math.min(shared.timestampMillis(), nowMillis), shared.health()));
+  }
+
+  /**
+   * Drop the result of a service.
+   *
+   * @param serviceName the service name
+   */
+  void remove(final String serviceName) {
+    this.results.remove(serviceName);
+  }
+
+  /**
+   * The latest result of a service.
+   *
+   * @param serviceName the service name
+   * @param isLive whether a replica is still in the ring
+   * @param nowMillis the local time
+   * @return the result, a down result if it timed out, or null if none was shared by a live replica
+   */
+  ServiceHealth get(final String serviceName, final Predicate<String> isLive, final long nowMillis) {
+    final SharedResult result = this.results.get(serviceName);
+    if (result == null) {
+      return null;
+    }
+    final long ageMillis = nowMillis - result.sharedAtMillis();
+    if (ageMillis > this.resultTimeoutMillis) {
+      return new ServiceHealth(
+          serviceName,
+          HealthStatus.DOWN,
+          Map.of("error", "No result shared in " + ageMillis + "ms", "replicaId", result.replicaId()));
+    }
+    return isLive.test(result.replicaId()) ? result.health() : null;
+  }
+}
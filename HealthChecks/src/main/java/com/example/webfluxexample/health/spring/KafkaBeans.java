@@ -1,6 +1,13 @@
 package com.example.webfluxexample.health.spring;
 
+import com.example.webfluxexample.health.config.ShardingConfig;
+import com.example.webfluxexample.health.service.HealthSharding;
+import com.example.webfluxexample.health.sharding.KafkaHealthSharding;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.kafka.clients.admin.Admin;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.KafkaAdmin;
@@ -18,4 +25,33 @@ public class KafkaBeans {
   public Admin admin() {
     return Admin.create(this.kafkaAdmin.getConfigurationProperties());
   }
+
+  /**
+   * Endpoint sharding across replicas, shared over Kafka when enabled.
+   *
+   * @param config sharding configuration
+   * @param admin admin client used to create the shard topic
+   * @param kafkaProperties the application Kafka settings
+   * @param sslBundles SSL bundles referenced by the Kafka settings, if any
+   * @param objectMapper serializes the shared records
+   * @return the sharding, {@link HealthSharding#NONE} when disabled
+   */
+  @Bean
+  public HealthSharding healthSharding(
+      final ShardingConfig config,
+      final Admin admin,
+      final KafkaProperties kafkaProperties,
+      final ObjectProvider<SslBundles> sslBundles,
+      final ObjectMapper objectMapper) {
+    if (!config.isEnabled()) {
+      return HealthSharding.NONE;
+    }
+    final KafkaHealthSharding sharding = new KafkaHealthSharding(
+        config,
+        kafkaProperties.buildProducerProperties(sslBundles.getIfAvailable()),
+        kafkaProperties.buildConsumerProperties(sslBundles.getIfAvailable()),
+        objectMapper);
+    sharding.start(admin);
+    return sharding;
+  }
 }
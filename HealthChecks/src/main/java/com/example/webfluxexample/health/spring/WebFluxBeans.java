@@ -0,0 +1,37 @@
+package com.example.webfluxexample.health.spring;
+
+import com.example.webfluxexample.health.api.HealthWebSocketHandler;
+import com.example.webfluxexample.health.codec.HealthProtobufEncoder;
+import java.util.Map;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+
+@Configuration
+public class WebFluxBeans implements WebFluxConfigurer {
+
+  @Bean
+  public HealthProtobufEncoder healthProtobufEncoder() {
+    return new HealthProtobufEncoder();
+  }
+
+  @Override
+  public void configureHttpMessageCodecs(final ServerCodecConfigurer configurer) {
+    configurer.customCodecs().register(this.healthProtobufEncoder());
+  }
+
+  /**
+   * Route for the binary health updates over WebSocket.
+   *
+   * @param healthWebSocketHandler the handler
+   * @return the mapping, ahead of the annotated controllers
+   */
+  @Bean
+  public HandlerMapping healthWebSocketMapping(final HealthWebSocketHandler healthWebSocketHandler) {
+    return new SimpleUrlHandlerMapping(Map.of("/health/updates/ws", healthWebSocketHandler), Ordered.HIGHEST_PRECEDENCE);
+  }
+}
@@ -16,6 +16,9 @@ import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.net.ssl.SSLException;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.util.ResourceUtils;
@@ -23,6 +26,12 @@ import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
 
 public class SecureWebClient {
+  /**
+   * SSL contexts are expensive to build, so they are built once and shared by every client.
+   */
+  private static final AtomicReference<SslContext> insecureSslContext = new AtomicReference<>();
+  private static final Map<SslConfigProperties, SslContext> keyStoreSslContexts = new ConcurrentHashMap<>();
+
   /**
    * Gets insecure trust web client.
    *
@@ -31,17 +40,30 @@ public class SecureWebClient {
    */
 
   public static WebClient getInsecureTrustWebClient(final String url) {
+    final SslContext context = getInsecureSslContext();
+    final HttpClient httpClient = HttpClient.create().secure(sslContextSpec -> sslContextSpec.sslContext(context));
+
+    return WebClient
+        .builder()
+        .baseUrl(url)
+        .clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+  }
+
+  /**
+   * Gets the shared insecure trust SSL context.
+   *
+   * @return the insecure trust SSL context
+   */
+  public static SslContext getInsecureSslContext() {
+    final SslContext cached = insecureSslContext.get();
+    if (cached != null) {
+      return cached;
+    }
     try {
       final SslContext context = SslContextBuilder.forClient()
           .trustManager(InsecureTrustManagerFactory.INSTANCE)
           .build();
-
-      final HttpClient httpClient = HttpClient.create().secure(sslContextSpec -> sslContextSpec.sslContext(context));
-
-      return WebClient
-          .builder()
-          .baseUrl(url)
-          .clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+      return insecureSslContext.compareAndSet(null, context) ? context : insecureSslContext.get();
     } catch (SSLException e) {
       throw new RuntimeException(e);
     }
@@ -57,14 +79,29 @@ public class SecureWebClient {
 
   @SuppressWarnings("unused") //will be used when ssl cert is available
   public static WebClient getKeyStoreTrustWebClient(final String url, final SslConfigProperties sslConfigProperties) {
+    final SslContext sslContext = getKeyStoreSslContext(sslConfigProperties);
+    final HttpClient httpClient = HttpClient.create().secure(sslContextSpec -> sslContextSpec.sslContext(sslContext));
 
+    return WebClient
+        .builder()
+        .baseUrl(url)
+        .clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+  }
+
+  /**
+   * Gets the keystore trust SSL context, building it on first use for each set of properties.
+   *
+   * @param sslConfigProperties the ssl config properties
+   * @return the keystore trust SSL context
+   */
+  public static SslContext getKeyStoreSslContext(final SslConfigProperties sslConfigProperties) {
+    return keyStoreSslContexts.computeIfAbsent(sslConfigProperties, SecureWebClient::buildKeyStoreSslContext);
+  }
+
+  private static SslContext buildKeyStoreSslContext(final SslConfigProperties sslConfigProperties) {
     try {
-      final KeyStore trustStore = KeyStore.getInstance(KeyStore.getDefaultType());
-      trustStore.load(new FileInputStream(ResourceUtils.getFile(sslConfigProperties.trustStorePath())),
-          sslConfigProperties.trustStorePassword().toCharArray());
-      final KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
-      trustStore.load(new FileInputStream(ResourceUtils.getFile(sslConfigProperties.keyAlias())),
-          sslConfigProperties.trustStorePassword().toCharArray());
+      final KeyStore trustStore = loadKeyStore(sslConfigProperties.trustStorePath(), sslConfigProperties.trustStorePassword());
+      final KeyStore keyStore = loadKeyStore(sslConfigProperties.keyStorePath(), sslConfigProperties.keyStorePassword());
 
       final X509Certificate[] trustStoreCertificates = Collections.list(trustStore.aliases()).stream()
           .filter(alias -> isCertificateEntry(alias, trustStore))
@@ -80,17 +117,10 @@ public class SecureWebClient {
           .toList()
           .toArray(new X509Certificate[0]);
 
-      final SslContext sslContext = SslContextBuilder.forClient()
+      return SslContextBuilder.forClient()
           .keyManager(privateKey, sslConfigProperties.keyStorePassword(), keyStoreCertificates)
           .trustManager(trustStoreCertificates)
           .build();
-
-      final HttpClient httpClient = HttpClient.create().secure(sslContextSpec -> sslContextSpec.sslContext(sslContext));
-
-      return WebClient
-          .builder()
-          .baseUrl(url)
-          .clientConnector(new ReactorClientHttpConnector(httpClient)).build();
     } catch (KeyStoreException e) {
       throw new RuntimeException(e);
     } catch (IOException e) {
@@ -105,6 +135,15 @@ public class SecureWebClient {
   }
 
 
+  private static KeyStore loadKeyStore(final String path, final String password)
+      throws KeyStoreException, IOException, NoSuchAlgorithmException, CertificateException {
+    final KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+    try (FileInputStream stream = new FileInputStream(ResourceUtils.getFile(path))) {
+      keyStore.load(stream, password.toCharArray());
+    }
+    return keyStore;
+  }
+
   private static Certificate getCertificate(final String alias, final KeyStore trustStore) {
     try {
       return trustStore.getCertificate(alias);
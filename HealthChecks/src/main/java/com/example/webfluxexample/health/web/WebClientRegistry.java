@@ -0,0 +1,243 @@
+package com.example.webfluxexample.health.web;
+
+import com.example.webfluxexample.health.config.HttpClientPoolConfig;
+import com.example.webfluxexample.health.config.SslConfigProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.netty.handler.ssl.SslContext;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Registry of reusable web clients keyed by scheme, host, port and TLS settings.
+ * All clients share one pooled {@link ConnectionProvider} with keep-alive, so repeated probes
+ * reuse connections instead of paying for a new TCP and TLS handshake each time.
+ * TLS clients share the cached SSL contexts from {@link SecureWebClient}.
+ * The usage counters are published as {@code health.http.client.*} meters.
+ */
+@Component
+public class WebClientRegistry implements DisposableBean, MeterBinder {
+  private static final Logger log = LoggerFactory.getLogger(WebClientRegistry.class);
+
+  /**
+   * Registry key.
+   * Clients with different keystores are kept apart, so one never presents or trusts another's certificates.
+   *
+   * @param scheme http or https
+   * @param host the remote host
+   * @param port the remote port
+   * @param sslConfigProperties keystore configuration, or null to trust any certificate
+   */
+  public record ClientKey(String scheme, String host, int port, SslConfigProperties sslConfigProperties) {
+    public ClientKey(final String scheme, final String host, final int port) {
+      this(scheme, host, port, null);
+    }
+
+    public boolean isSecure() {
+      return "https".equalsIgnoreCase(this.scheme);
+    }
+
+    public String baseUrl() {
+      return this.port > 0 ? this.scheme + "://" + this.host + ":" + this.port : this.scheme + "://" + this.host;
+    }
+  }
+
+  /**
+   * Registry usage counters.
+   *
+   * @param clients clients currently registered
+   * @param clientsCreated clients created since start
+   * @param clientReuses lookups served by an existing client
+   * @param clientsEvicted clients evicted after being idle
+   * @param requests requests sent
+   * @param connectionsOpened new pooled connections opened
+   * @param tlsHandshakes TLS handshakes completed
+   */
+  public record Stats(
+      int clients,
+      long clientsCreated,
+      long clientReuses,
+      long clientsEvicted,
+      long requests,
+      long connectionsOpened,
+      long tlsHandshakes) {
+
+    /**
+     * Requests served on an already open connection.
+     *
+     * @return pooled connection reuses
+     */
+    public long connectionReuses() {
+      return Math.max(0, this.requests - this.connectionsOpened);
+    }
+  }
+
+  private static final class Entry {
+    private final WebClient webClient;
+    private volatile long lastUsedNanos = System.nanoTime();
+
+    private Entry(final WebClient webClient) {
+      this.webClient = webClient;
+    }
+  }
+
+  private final ConnectionProvider connectionProvider;
+  private final Duration maxIdle;
+  private final Map<ClientKey, Entry> clients = new ConcurrentHashMap<>();
+  private final Disposable evictionTask;
+
+  private final AtomicLong clientsCreated = new AtomicLong();
+  private final AtomicLong clientReuses = new AtomicLong();
+  private final AtomicLong clientsEvicted = new AtomicLong();
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong connectionsOpened = new AtomicLong();
+  private final AtomicLong tlsHandshakes = new AtomicLong();
+
+  /**
+   * Constructor.
+   *
+   * @param config pool configuration
+   */
+  public WebClientRegistry(final HttpClientPoolConfig config) {
+    final Duration evictionInterval = Duration.ofMillis(config.getEvictionIntervalMillis());
+    this.maxIdle = Duration.ofMillis(config.getMaxIdleMillis());
+    this.connectionProvider = ConnectionProvider.builder("health-checks")
+        .maxConnections(config.getMaxConnections())
+        .maxIdleTime(this.maxIdle)
+        .maxLifeTime(Duration.ofMillis(config.getMaxLifeMillis()))
+        .evictInBackground(evictionInterval)
+        .build();
+    this.evictionTask = Schedulers.parallel().schedulePeriodically(
+        this::evictIdleClients,
+        evictionInterval.toMillis(),
+        evictionInterval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Get the shared client for a remote, creating it on first use.
+   *
+   * @param scheme http or https
+   * @param host the remote host
+   * @param port the remote port
+   * @return a web client with the remote as its base url
+   */
+  public WebClient getWebClient(final String scheme, final String host, final int port) {
+    return this.getWebClient(new ClientKey(scheme, host, port));
+  }
+
+  /**
+   * Get the shared client for a remote and its TLS settings, creating it on first use.
+   *
+   * @param key the remote and its keystore configuration
+   * @return a web client with the remote as its base url
+   */
+  public WebClient getWebClient(final ClientKey key) {
+    Entry entry = this.clients.get(key);
+    if (entry == null) {
+      entry = this.clients.computeIfAbsent(key, this::createEntry);
+    } else {
+      this.clientReuses.incrementAndGet();
+    }
+    entry.lastUsedNanos = System.nanoTime();
+    return entry.webClient;
+  }
+
+  /**
+   * Registry usage counters.
+   *
+   * @return a snapshot of the counters
+   */
+  public Stats getStats() {
+    return new Stats(
+        this.clients.size(),
+        this.clientsCreated.get(),
+        this.clientReuses.get(),
+        this.clientsEvicted.get(),
+        this.requests.get(),
+        this.connectionsOpened.get(),
+        this.tlsHandshakes.get());
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    Gauge.builder("health.http.client.clients", this.clients, Map::size)
+        .description("Web clients currently registered")
+        .register(registry);
+    this.bindCounter(registry, "health.http.client.created", "Web clients created", this.clientsCreated);
+    this.bindCounter(registry, "health.http.client.reuses", "Lookups served by an existing web client", this.clientReuses);
+    this.bindCounter(registry, "health.http.client.evicted", "Web clients evicted after being idle", this.clientsEvicted);
+    this.bindCounter(registry, "health.http.client.requests", "Requests sent", this.requests);
+    this.bindCounter(registry, "health.http.client.connections.opened", "Pooled connections opened", this.connectionsOpened);
+    this.bindCounter(registry, "health.http.client.tls.handshakes", "TLS handshakes completed", this.tlsHandshakes);
+  }
+
+  private void bindCounter(final MeterRegistry registry, final String name, final String description, final AtomicLong counter) {
+    FunctionCounter.builder(name, counter, AtomicLong::get)
+        .description(description)
+        .register(registry);
+  }
+
+  private Entry createEntry(final ClientKey key) {
+    log.debug("Creating web client for {}", key);
+    this.clientsCreated.incrementAndGet();
+
+    HttpClient httpClient = HttpClient.create(this.connectionProvider)
+        .keepAlive(true)
+        .doOnRequest((request, connection) -> this.requests.incrementAndGet())
+        .doOnConnected(connection -> {
+          this.connectionsOpened.incrementAndGet();
+          if (key.isSecure()) {
+            // Secured connections are reported as connected once the handshake has completed.
+            this.tlsHandshakes.incrementAndGet();
+          }
+        });
+
+    if (key.isSecure()) {
+      final SslContext sslContext = key.sslConfigProperties() == null
+          ? SecureWebClient.getInsecureSslContext()
+          : SecureWebClient.getKeyStoreSslContext(key.sslConfigProperties());
+      httpClient = httpClient.secure(sslContextSpec -> sslContextSpec.sslContext(sslContext));
+    }
+
+    return new Entry(WebClient
+        .builder()
+        .baseUrl(key.baseUrl())
+        .clientConnector(new ReactorClientHttpConnector(httpClient))
+        .build());
+  }
+
+  private void evictIdleClients() {
+    final long now = System.nanoTime();
+    this.clients.entrySet().removeIf(entry -> {
+      final boolean idle = now - entry.getValue().lastUsedNanos > this.maxIdle.toNanos();
+      if (idle) {
+        log.debug("Evicting idle web client for {}", entry.getKey());
+        this.clientsEvicted.incrementAndGet();
+      }
+      return idle;
+    });
+  }
+
+  @Override
+  public void destroy() {
+    this.evictionTask.dispose();
+    this.clients.clear();
+    this.connectionProvider.dispose();
+  }
+}
@@ -3,18 +3,39 @@ package com.example.webfluxexample;
 import com.example.webfluxexample.health.checkers.HealthChecker;
 import com.example.webfluxexample.health.config.HealthConfig;
 import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.metrics.HealthMetrics;
+import com.example.webfluxexample.health.model.EndpointChanges;
 import com.example.webfluxexample.health.model.Health;
+import com.example.webfluxexample.health.model.HealthGraphUpdate;
+import com.example.webfluxexample.health.model.HealthNode;
+import com.example.webfluxexample.health.model.HealthStatus;
+import com.example.webfluxexample.health.model.HealthUpdate;
+import com.example.webfluxexample.health.model.ServiceHealth;
 import com.example.webfluxexample.health.service.HealthApiService;
 import com.example.webfluxexample.health.service.HealthMonitor;
+import com.example.webfluxexample.health.service.HealthSharding;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -49,6 +70,69 @@ public class HealthApiServiceTest {
     }
   }
 
+  /**
+   * Test sharding where another replica owns Downstream2 and shares its result until it leaves.
+   */
+  private static class OtherReplicaSharding implements HealthSharding {
+    private final Set<String> published = ConcurrentHashMap.newKeySet();
+    private volatile ServiceHealth remoteHealth = new ServiceHealth("Downstream2", HealthStatus.DOWN, Map.of("replicaId", "other"));
+
+    @Override
+    public boolean isActive() {
+      return true;
+    }
+
+    @Override
+    public boolean owns(final HealthEndpoint endpoint) {
+      return !endpoint.serviceName().equals("Downstream2");
+    }
+
+    @Override
+    public ServiceHealth getRemoteHealth(final String serviceName) {
+      return serviceName.equals("Downstream2") ? this.remoteHealth : null;
+    }
+
+    @Override
+    public void publish(final List<ServiceHealth> healthList) {
+      healthList.forEach(health -> this.published.add(health.serviceName()));
+    }
+  }
+
+  /**
+   * Test checker that counts its calls and answers slowly.
+   */
+  private static class CountingSlowHealthy implements HealthChecker {
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Override
+    public boolean isHealthy(final HealthEndpoint endpoint) {
+      this.calls.incrementAndGet();
+      try {
+        Thread.sleep(500);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Test checker that counts its calls and always fails.
+   */
+  private static class CountingUnhealthy implements HealthChecker {
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Override
+    public boolean isHealthy(final HealthEndpoint endpoint) {
+      this.calls.incrementAndGet();
+      return false;
+    }
+  }
+
+  private static HealthMonitor createMonitor(final HealthConfig config, final HealthChecker checker) {
+    return new HealthMonitor(config, checker, new HealthMetrics(new SimpleMeterRegistry()), HealthSharding.NONE);
+  }
+
   private HealthConfig generateHealthConfig() {
     final HealthConfig config = new HealthConfig();
     final List<HealthEndpoint> endpoints = new ArrayList<>();
@@ -68,7 +152,7 @@ public class HealthApiServiceTest {
   @Test
   void healthCheckTestFluxRestart() throws InterruptedException {
     final HealthConfig config = this.generateHealthConfig();
-    final HealthMonitor monitor = new HealthMonitor(config, new AlwaysHealthy());
+    final HealthMonitor monitor = createMonitor(config, new AlwaysHealthy());
     final HealthApiService healthApiService = new HealthApiService(monitor);
 
     final Flux<Health> flux1 = healthApiService.streamHealthUpdates();
@@ -114,7 +198,7 @@ public class HealthApiServiceTest {
   @Test
   void healthCheckHealthyPathTest() {
     final HealthConfig config = this.generateHealthConfig();
-    final HealthMonitor monitor = new HealthMonitor(config, new AlwaysHealthy());
+    final HealthMonitor monitor = createMonitor(config, new AlwaysHealthy());
     final HealthApiService healthApiService = new HealthApiService(monitor);
     final Flux<Health> flux = healthApiService.streamHealthUpdates();
 
@@ -129,7 +213,7 @@ public class HealthApiServiceTest {
   @Test
   void healthCheckUnhealthyPathTest() {
     final HealthConfig config = this.generateHealthConfig();
-    final HealthMonitor monitor = new HealthMonitor(config, new AlwaysUnhealthy());
+    final HealthMonitor monitor = createMonitor(config, new AlwaysUnhealthy());
     final HealthApiService healthApiService = new HealthApiService(monitor);
     final Flux<Health> flux = healthApiService.streamHealthUpdates();
 
@@ -144,7 +228,7 @@ public class HealthApiServiceTest {
   @Test
   void healthCheckSnapshotTest() {
     final HealthConfig config = this.generateHealthConfig();
-    final HealthMonitor monitor = new HealthMonitor(config, new AlwaysHealthy());
+    final HealthMonitor monitor = createMonitor(config, new AlwaysHealthy());
     final HealthApiService healthApiService = new HealthApiService(monitor);
 
     try {
@@ -158,4 +242,260 @@ public class HealthApiServiceTest {
     Assertions.assertTrue(!health.healthList().isEmpty());
     health.healthList().forEach(state -> Assertions.assertTrue(state.healthy()));
   }
+
+  /**
+   * A stable environment sends one snapshot and then only heartbeats.
+   */
+  @Test
+  void healthDeltaStreamTest() {
+    final HealthConfig config = this.generateHealthConfig();
+    config.setHeartbeatMillis(Duration.ofSeconds(1).toMillis());
+    final HealthMonitor monitor = createMonitor(config, new AlwaysHealthy());
+    final HealthApiService healthApiService = new HealthApiService(monitor);
+
+    final List<HealthUpdate> updates = healthApiService.streamHealthDeltas()
+        .map(ServerSentEvent::data)
+        .take(Duration.ofSeconds(6))
+        .collectList()
+        .block();
+
+    Assertions.assertNotNull(updates);
+    final List<HealthUpdate> nonHeartbeats = updates.stream()
+        .filter(update -> update.type() != HealthUpdate.Type.HEARTBEAT)
+        .toList();
+    Assertions.assertEquals(1, nonHeartbeats.size());
+    Assertions.assertEquals(HealthUpdate.Type.SNAPSHOT, nonHeartbeats.get(0).type());
+    Assertions.assertEquals(2, nonHeartbeats.get(0).healthList().size());
+    Assertions.assertTrue(updates.size() > nonHeartbeats.size());
+  }
+
+  /**
+   * A service whose dependency is down is degraded, while its own status stays up.
+   */
+  @Test
+  void healthGraphRollUpTest() {
+    final HealthConfig config = this.generateHealthConfig();
+    config.setEndpoints(List.of(
+        new HealthEndpoint(true, "http", "Downstream", "http", "foobar.com", 90, "foo",
+            0, 0, List.of(), List.of(), List.of("Database"), 0, List.of()),
+        new HealthEndpoint(true, "http", "Database", "http", "foobar.com", 91, "foo")));
+    final HealthMonitor monitor = createMonitor(config, endpoint -> !"Database".equals(endpoint.serviceName()));
+    final HealthApiService healthApiService = new HealthApiService(monitor);
+
+    final HealthGraphUpdate graph = healthApiService.streamHealthGraph()
+        .map(ServerSentEvent::data)
+        .filter(update -> update.nodes().stream().anyMatch(node -> node.rolledUpStatus() != null))
+        .blockFirst(Duration.ofSeconds(10));
+
+    Assertions.assertNotNull(graph);
+    final Map<String, HealthNode> nodes = graph.nodes().stream()
+        .collect(Collectors.toMap(HealthNode::serviceName, Function.identity()));
+    Assertions.assertEquals(HealthStatus.UP, nodes.get("Downstream").status());
+    Assertions.assertEquals(HealthStatus.DEGRADED, nodes.get("Downstream").rolledUpStatus());
+    Assertions.assertEquals(HealthStatus.DOWN, nodes.get("Database").rolledUpStatus());
+  }
+
+  /**
+   * Once an endpoint's breaker opens it is reported down without being probed, with the breaker state in the details.
+   */
+  @Test
+  void healthCircuitBreakerTest() {
+    final HealthConfig config = this.generateHealthConfig();
+    config.setInitialDelayMillis(100);
+    config.setPeriodMillis(200);
+    config.setCircuitBreakerEnabled(true);
+    config.setCircuitBreakerFailureThreshold(2);
+    config.setCircuitBreakerOpenMillis(Duration.ofMinutes(1).toMillis());
+    final CountingUnhealthy checker = new CountingUnhealthy();
+    final HealthMonitor monitor = createMonitor(config, checker);
+    final HealthApiService healthApiService = new HealthApiService(monitor);
+
+    final List<Health> updates = healthApiService.streamHealthUpdates()
+        .take(Duration.ofSeconds(2))
+        .collectList()
+        .block();
+
+    Assertions.assertNotNull(updates);
+    Assertions.assertEquals(2 * config.getEndpoints().size(), checker.calls.get());
+    updates.get(updates.size() - 1).healthList().forEach(state -> {
+      Assertions.assertFalse(state.healthy());
+      Assertions.assertEquals("OPEN", state.details().get("circuit"));
+    });
+  }
+
+  /**
+   * An endpoint min interval below the global one still takes effect: the monitor ticks as fast as the
+   * fastest endpoint.
+   */
+  @Test
+  void healthEndpointMinIntervalTest() throws InterruptedException {
+    final HealthConfig config = this.generateHealthConfig();
+    config.setEndpoints(List.of(
+        new HealthEndpoint(true, "http", "Fast", "http", "foobar.com", 90, "foo", 200, 0, null, null, null, 0, null),
+        new HealthEndpoint(true, "http", "Slow", "http", "foobar.com", 91, "foo")));
+    config.setInitialDelayMillis(100);
+    config.setPeriodMillis(2000);
+    config.setAdaptiveSchedulingEnabled(true);
+    config.setMinIntervalMillis(2000);
+    final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    createMonitor(config, endpoint -> {
+      calls.computeIfAbsent(endpoint.serviceName(), name -> new AtomicInteger()).incrementAndGet();
+      return false;
+    });
+
+    // Failing endpoints back off from their min interval: Fast at 200, 400 and 800 ms, Slow at 2000 ms.
+    Thread.sleep(2500);
+
+    Assertions.assertTrue(calls.get("Fast").get() >= 4, "Fast probed " + calls.get("Fast"));
+    Assertions.assertTrue(calls.get("Slow").get() <= 2, "Slow probed " + calls.get("Slow"));
+  }
+
+  /**
+   * Endpoints can be added and removed while the monitor runs, without disconnecting subscribers.
+   */
+  @Test
+  void healthEndpointsReconfigurationTest() {
+    final HealthConfig config = this.generateHealthConfig();
+    config.setInitialDelayMillis(100);
+    config.setPeriodMillis(500);
+    final HealthMonitor monitor = createMonitor(config, new AlwaysHealthy());
+    final HealthApiService healthApiService = new HealthApiService(monitor);
+    final List<HealthEndpoint> endpoints = List.of(
+        config.getEndpoints().get(0),
+        new HealthEndpoint(true, "http", "Downstream3", "http", "foobar.com", 92, "foo"));
+    final AtomicBoolean updated = new AtomicBoolean();
+
+    final Health reconfigured = healthApiService.streamHealthUpdates()
+        .doOnNext(health -> {
+          if (updated.compareAndSet(false, true)) {
+            final EndpointChanges changes = monitor.updateEndpoints(endpoints);
+            Assertions.assertEquals(List.of("Downstream3"), changes.added());
+            Assertions.assertEquals(List.of("Downstream2"), changes.removed());
+          }
+        })
+        .filter(health -> health.healthList().stream().anyMatch(state -> state.serviceName().equals("Downstream3")))
+        .blockFirst(Duration.ofSeconds(10));
+
+    Assertions.assertNotNull(reconfigured);
+    Assertions.assertEquals(List.of("Downstream", "Downstream3"),
+        reconfigured.healthList().stream().map(ServiceHealth::serviceName).toList());
+  }
+
+  /**
+   * Concurrent snapshot requests share one in-flight probe per endpoint.
+   */
+  @Test
+  void healthSnapshotDeduplicationTest() {
+    final HealthConfig config = this.generateHealthConfig();
+    config.setInitialDelayMillis(Duration.ofMinutes(1).toMillis());
+    final CountingSlowHealthy checker = new CountingSlowHealthy();
+    final HealthMonitor monitor = createMonitor(config, checker);
+    final HealthApiService healthApiService = new HealthApiService(monitor);
+
+    final List<Health> snapshots = Flux.range(0, 20)
+        .flatMap(request -> healthApiService.getHealthSnapshot(Duration.ZERO))
+        .collectList()
+        .block();
+
+    Assertions.assertNotNull(snapshots);
+    Assertions.assertEquals(20, snapshots.size());
+    snapshots.forEach(health -> health.healthList().forEach(state -> Assertions.assertTrue(state.healthy())));
+    Assertions.assertEquals(config.getEndpoints().size(), checker.calls.get());
+  }
+
+  /**
+   * A stalled subscriber does not hold back the others, and subscribers beyond the limit are rejected.
+   */
+  @Test
+  void healthStreamSlowSubscriberTest() throws InterruptedException {
+    final HealthConfig config = this.generateHealthConfig();
+    config.setPeriodMillis(Duration.ofMillis(500).toMillis());
+    config.setStreamBufferSize(2);
+    config.setStreamMaxSubscribers(2);
+    final HealthMonitor monitor = createMonitor(config, new AlwaysHealthy());
+    final HealthApiService healthApiService = new HealthApiService(monitor);
+
+    final AtomicInteger stalledCount = new AtomicInteger();
+    final BaseSubscriber<Health> stalled = new BaseSubscriber<>() {
+      @Override
+      protected void hookOnSubscribe(final Subscription subscription) {
+        subscription.request(1);
+      }
+
+      @Override
+      protected void hookOnNext(final Health value) {
+        stalledCount.incrementAndGet();
+      }
+    };
+    healthApiService.streamHealthUpdates().subscribe(stalled);
+    final AtomicInteger fastCount = new AtomicInteger();
+    final Disposable fast = healthApiService.streamHealthUpdates().subscribe(item -> fastCount.incrementAndGet());
+
+    Assertions.assertThrows(ResponseStatusException.class, () -> healthApiService.streamHealthUpdates().blockFirst());
+
+    Thread.sleep(Duration.ofSeconds(4).toMillis());
+    stalled.dispose();
+    fast.dispose();
+
+    Assertions.assertEquals(1, stalledCount.get());
+    Assertions.assertTrue(fastCount.get() > 4);
+    Assertions.assertNotNull(healthApiService.streamHealthUpdates().blockFirst(Duration.ofSeconds(5)));
+  }
+
+  /**
+   * Destroying the monitor stops the threads that ran its probes.
+   */
+  @Test
+  void healthMonitorDestroyTest() throws InterruptedException {
+    final HealthConfig config = this.generateHealthConfig();
+    config.setInitialDelayMillis(100);
+    final AtomicReference<Thread> probeThread = new AtomicReference<>();
+    final HealthMonitor monitor = createMonitor(config, endpoint -> {
+      probeThread.set(Thread.currentThread());
+      return true;
+    });
+    final HealthApiService healthApiService = new HealthApiService(monitor);
+
+    Assertions.assertNotNull(healthApiService.streamHealthUpdates().blockFirst(Duration.ofSeconds(10)));
+    Assertions.assertNotNull(probeThread.get());
+    Assertions.assertTrue(probeThread.get().getName().startsWith("health-probe"));
+
+    healthApiService.destroy();
+    monitor.destroy();
+    probeThread.get().join(Duration.ofSeconds(5).toMillis());
+    Assertions.assertFalse(probeThread.get().isAlive());
+  }
+
+  /**
+   * An endpoint whose owner left the ring is probed locally instead of reporting the owner's last result,
+   * and only the results of owned endpoints are shared.
+   */
+  @Test
+  void healthShardOwnerLeftTest() {
+    final HealthConfig config = this.generateHealthConfig();
+    config.setInitialDelayMillis(100);
+    config.setPeriodMillis(300);
+    final OtherReplicaSharding sharding = new OtherReplicaSharding();
+    final HealthMonitor monitor = new HealthMonitor(config, new AlwaysHealthy(), new HealthMetrics(new SimpleMeterRegistry()), sharding);
+    final HealthApiService healthApiService = new HealthApiService(monitor);
+    final Function<Health, Map<String, HealthStatus>> statuses = health -> health.healthList().stream()
+        .collect(Collectors.toMap(ServiceHealth::serviceName, ServiceHealth::status));
+
+    final Health shared = healthApiService.streamHealthUpdates()
+        .filter(health -> health.healthList().size() == 2)
+        .blockFirst(Duration.ofSeconds(10));
+    Assertions.assertNotNull(shared);
+    Assertions.assertEquals(Map.of("Downstream", HealthStatus.UP, "Downstream2", HealthStatus.DOWN), statuses.apply(shared));
+
+    sharding.remoteHealth = null;
+    final Health probedLocally = healthApiService.streamHealthUpdates()
+        .filter(health -> statuses.apply(health).get("Downstream2") == HealthStatus.UP)
+        .blockFirst(Duration.ofSeconds(10));
+    Assertions.assertNotNull(probedLocally);
+    Assertions.assertEquals(HealthStatus.UP, statuses.apply(probedLocally).get("Downstream"));
+    Assertions.assertEquals(Set.of("Downstream"), sharding.published);
+
+    healthApiService.destroy();
+    monitor.destroy();
+  }
 }
@@ -0,0 +1,62 @@
+package com.example.webfluxexample.health.api;
+
+import com.example.webfluxexample.health.config.HealthConfig;
+import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.metrics.HealthMetrics;
+import com.example.webfluxexample.health.service.HealthEndpointsReloader;
+import com.example.webfluxexample.health.service.HealthMonitor;
+import com.example.webfluxexample.health.service.HealthSharding;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+public class HealthAdminApiTest {
+
+  private static WebTestClient adminClient(final boolean enabled, final String token) {
+    final HealthConfig config = new HealthConfig();
+    config.setEndpoints(List.of(new HealthEndpoint(true, "http", "Downstream", "http", "foobar.com", 90, "foo")));
+    config.setAdminApiEnabled(enabled);
+    config.setAdminApiToken(token);
+    final HealthMonitor monitor = new HealthMonitor(config, endpoint -> true, new HealthMetrics(new SimpleMeterRegistry()), HealthSharding.NONE);
+    final HealthEndpointsReloader reloader = new HealthEndpointsReloader(monitor, new StandardEnvironment(), event -> { });
+    return WebTestClient.bindToController(new HealthAdminApi(reloader, config)).build();
+  }
+
+  /**
+   * With a token configured, admin requests without it are rejected before anything changes.
+   */
+  @Test
+  void healthAdminTokenTest() {
+    final WebTestClient client = adminClient(true, "s3cret");
+
+    client.get().uri("/health/admin/endpoints").exchange().expectStatus().isUnauthorized();
+    client.delete().uri("/health/admin/endpoints/Downstream")
+        .header(HttpHeaders.AUTHORIZATION, "Bearer wrong")
+        .exchange()
+        .expectStatus().isUnauthorized();
+    client.get().uri("/health/admin/endpoints")
+        .header(HttpHeaders.AUTHORIZATION, "Bearer s3cret")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody().jsonPath("$[0].serviceName").isEqualTo("Downstream");
+    client.delete().uri("/health/admin/endpoints/Missing")
+        .header(HttpHeaders.AUTHORIZATION, "Bearer s3cret")
+        .exchange()
+        .expectStatus().isNotFound();
+  }
+
+  /**
+   * Without a token the API is open once enabled, and closed while disabled whatever the request carries.
+   */
+  @Test
+  void healthAdminWithoutTokenTest() {
+    adminClient(true, null).get().uri("/health/admin/endpoints").exchange().expectStatus().isOk();
+    adminClient(false, "s3cret").get().uri("/health/admin/endpoints")
+        .header(HttpHeaders.AUTHORIZATION, "Bearer s3cret")
+        .exchange()
+        .expectStatus().isEqualTo(501);
+  }
+}
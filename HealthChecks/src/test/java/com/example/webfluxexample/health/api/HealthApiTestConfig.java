@@ -0,0 +1,46 @@
+package com.example.webfluxexample.health.api;
+
+import com.example.webfluxexample.health.config.HealthConfig;
+import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.metrics.HealthMetrics;
+import com.example.webfluxexample.health.service.HealthApiService;
+import com.example.webfluxexample.health.service.HealthMonitor;
+import com.example.webfluxexample.health.service.HealthSharding;
+import com.example.webfluxexample.health.spring.WebFluxBeans;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.reactive.config.EnableWebFlux;
+
+/**
+ * The health web layer with the application's codecs and routes, over an always healthy monitor.
+ */
+@Configuration
+@EnableWebFlux
+@Import({WebFluxBeans.class, HealthRestApi.class, HealthWebSocketHandler.class})
+class HealthApiTestConfig {
+
+  @Bean
+  HealthConfig healthConfig() {
+    final HealthConfig config = new HealthConfig();
+    config.setEnabled(true);
+    config.setEndpoints(List.of(
+        new HealthEndpoint(true, "http", "Downstream", "http", "foobar.com", 90, "foo"),
+        new HealthEndpoint(true, "http", "Downstream2", "http", "foobar.com", 91, "foo")));
+    config.setInitialDelayMillis(100);
+    config.setPeriodMillis(300);
+    return config;
+  }
+
+  @Bean
+  HealthMonitor healthMonitor(final HealthConfig healthConfig) {
+    return new HealthMonitor(healthConfig, endpoint -> true, new HealthMetrics(new SimpleMeterRegistry()), HealthSharding.NONE);
+  }
+
+  @Bean
+  HealthApiService healthApiService(final HealthMonitor healthMonitor) {
+    return new HealthApiService(healthMonitor);
+  }
+}
@@ -0,0 +1,114 @@
+package com.example.webfluxexample.health.api;
+
+import com.example.webfluxexample.health.codec.HealthProtobuf;
+import com.example.webfluxexample.health.model.Health;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import com.google.protobuf.CodedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+public class HealthRestApiTest {
+
+  private static final MediaType PROTOBUF = MediaType.parseMediaType(HealthProtobuf.MEDIA_TYPE_VALUE);
+
+  private AnnotationConfigApplicationContext context;
+  private WebTestClient client;
+
+  @BeforeEach
+  void start() throws InterruptedException {
+    this.context = new AnnotationConfigApplicationContext(HealthApiTestConfig.class);
+    this.client = WebTestClient.bindToApplicationContext(this.context).build();
+    // Wait for the first report.
+    Thread.sleep(500);
+  }
+
+  @AfterEach
+  void stop() {
+    this.context.close();
+  }
+
+  private static List<Health> parseFrames(final List<byte[]> chunks, final int count) throws IOException {
+    final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    chunks.forEach(stream::writeBytes);
+    final CodedInputStream input = CodedInputStream.newInstance(stream.toByteArray());
+    final List<Health> frames = new ArrayList<>();
+    for (int frame = 0; frame < count; frame++) {
+      frames.add(HealthProtobuf.parseDelimitedFrom(input));
+    }
+    Assertions.assertNull(HealthProtobuf.parseDelimitedFrom(input));
+    return frames;
+  }
+
+  /**
+   * The snapshot is JSON by default and a single protobuf frame when accepting {@code application/x-protobuf}.
+   */
+  @Test
+  void healthSnapshotContentNegotiationTest() throws IOException {
+    this.client.get().uri("/health/snapshot")
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+        .expectBody()
+        .jsonPath("$.healthList[0].serviceName").isEqualTo("Downstream")
+        .jsonPath("$.healthList[1].healthy").isEqualTo(true);
+
+    final byte[] body = this.client.get().uri("/health/snapshot")
+        .accept(PROTOBUF)
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().contentTypeCompatibleWith(PROTOBUF)
+        .expectBody(byte[].class)
+        .returnResult()
+        .getResponseBody();
+
+    Assertions.assertNotNull(body);
+    final Health health = parseFrames(List.of(body), 1).get(0);
+    Assertions.assertEquals(List.of("Downstream", "Downstream2"),
+        health.healthList().stream().map(ServiceHealth::serviceName).toList());
+    Assertions.assertTrue(health.healthList().stream().allMatch(ServiceHealth::healthy));
+  }
+
+  /**
+   * Updates are server-sent events by default and consecutive protobuf frames when accepting
+   * {@code application/x-protobuf}.
+   */
+  @Test
+  void healthUpdatesContentNegotiationTest() throws IOException {
+    final List<String> events = this.client.get().uri("/health/updates")
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+        .returnResult(String.class)
+        .getResponseBody()
+        .take(2)
+        .collectList()
+        .block(Duration.ofSeconds(10));
+    Assertions.assertNotNull(events);
+    events.forEach(event -> Assertions.assertTrue(event.contains("\"serviceName\":\"Downstream\""), event));
+
+    final List<byte[]> chunks = this.client.get().uri("/health/updates")
+        .accept(PROTOBUF)
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().contentTypeCompatibleWith(PROTOBUF)
+        .returnResult(byte[].class)
+        .getResponseBody()
+        .take(2)
+        .collectList()
+        .block(Duration.ofSeconds(10));
+    Assertions.assertNotNull(chunks);
+    final List<Health> reports = parseFrames(chunks, 2);
+    Assertions.assertTrue(reports.get(0).timestamp().isBefore(reports.get(1).timestamp()));
+    reports.forEach(health -> Assertions.assertEquals(2, health.healthList().size()));
+  }
+}
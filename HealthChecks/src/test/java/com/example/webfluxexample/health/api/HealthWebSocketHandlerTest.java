@@ -0,0 +1,66 @@
+package com.example.webfluxexample.health.api;
+
+import com.example.webfluxexample.health.codec.HealthProtobuf;
+import com.example.webfluxexample.health.model.Health;
+import com.google.protobuf.CodedInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+public class HealthWebSocketHandlerTest {
+
+  /**
+   * Each report arrives as one binary message holding a length-delimited protobuf frame.
+   */
+  @Test
+  void healthUpdatesWebSocketTest() throws IOException {
+    try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(HealthApiTestConfig.class)) {
+      final DisposableServer server = HttpServer.create()
+          .host("localhost")
+          .port(0)
+          .handle(new ReactorHttpHandlerAdapter(WebHttpHandlerBuilder.applicationContext(context).build()))
+          .bindNow();
+      final List<byte[]> messages = new CopyOnWriteArrayList<>();
+      try {
+        new ReactorNettyWebSocketClient()
+            .execute(
+                URI.create("ws://localhost:" + server.port() + "/health/updates/ws"),
+                session -> session.receive()
+                    .doOnNext(message -> Assertions.assertEquals(WebSocketMessage.Type.BINARY, message.getType()))
+                    .map(message -> {
+                      final DataBuffer payload = message.getPayload();
+                      final byte[] bytes = new byte[payload.readableByteCount()];
+                      payload.read(bytes);
+                      return bytes;
+                    })
+                    .take(2)
+                    .doOnNext(messages::add)
+                    .then())
+            .block(Duration.ofSeconds(10));
+      } finally {
+        server.disposeNow();
+      }
+
+      Assertions.assertEquals(2, messages.size());
+      for (final byte[] message : messages) {
+        final CodedInputStream input = CodedInputStream.newInstance(message);
+        final Health health = HealthProtobuf.parseDelimitedFrom(input);
+        Assertions.assertNotNull(health);
+        Assertions.assertEquals(2, health.healthList().size());
+        Assertions.assertTrue(input.isAtEnd());
+      }
+    }
+  }
+}
@@ -0,0 +1,191 @@
+package com.example.webfluxexample.health.codec;
+
+import com.example.webfluxexample.health.model.Health;
+import com.example.webfluxexample.health.model.HealthStatus;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.EnumDescriptorProto;
+import com.google.protobuf.DescriptorProtos.EnumValueDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.Message;
+import com.google.protobuf.Struct;
+import com.google.protobuf.StructProto;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.TimestampProto;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class HealthProtobufTest {
+
+  private static final Path HEALTH_PROTO = Path.of("src/main/proto/health.proto");
+  private static final Pattern BLOCK = Pattern.compile("(message|enum)\\s+(\\w+)\\s*\\{([^}]*)}");
+  private static final Pattern FIELD = Pattern.compile("(repeated\\s+)?([\\w.]+)\\s+(\\w+)\\s*=\\s*(\\d+)\\s*;");
+  private static final Pattern ENUM_VALUE = Pattern.compile("(\\w+)\\s*=\\s*(\\d+)\\s*;");
+  private static final Map<String, FieldDescriptorProto.Type> SCALARS = Map.of(
+      "string", FieldDescriptorProto.Type.TYPE_STRING,
+      "bool", FieldDescriptorProto.Type.TYPE_BOOL,
+      "bytes", FieldDescriptorProto.Type.TYPE_BYTES,
+      "double", FieldDescriptorProto.Type.TYPE_DOUBLE,
+      "int32", FieldDescriptorProto.Type.TYPE_INT32,
+      "int64", FieldDescriptorProto.Type.TYPE_INT64);
+
+  /**
+   * Build the descriptor of {@code health.proto} from its message, enum and field declarations, which is all the
+   * schema uses, since no protobuf compiler is part of the build.
+   */
+  private static Descriptors.FileDescriptor healthSchema() throws IOException, Descriptors.DescriptorValidationException {
+    final String text = Files.readString(HEALTH_PROTO).replaceAll("//[^\\n]*", "");
+    final Set<String> enums = new HashSet<>();
+    final Matcher enumNames = BLOCK.matcher(text);
+    while (enumNames.find()) {
+      if (enumNames.group(1).equals("enum")) {
+        enums.add(enumNames.group(2));
+      }
+    }
+    final FileDescriptorProto.Builder file = FileDescriptorProto.newBuilder()
+        .setName("health.proto")
+        .setPackage("health")
+        .setSyntax("proto3")
+        .addDependency("google/protobuf/struct.proto")
+        .addDependency("google/protobuf/timestamp.proto");
+    final Matcher block = BLOCK.matcher(text);
+    while (block.find()) {
+      if (block.group(1).equals("enum")) {
+        final EnumDescriptorProto.Builder enumType = EnumDescriptorProto.newBuilder().setName(block.group(2));
+        final Matcher value = ENUM_VALUE.matcher(block.group(3));
+        while (value.find()) {
+          enumType.addValue(EnumValueDescriptorProto.newBuilder().setName(value.group(1)).setNumber(Integer.parseInt(value.group(2))));
+        }
+        file.addEnumType(enumType);
+        continue;
+      }
+      final DescriptorProto.Builder messageType = DescriptorProto.newBuilder().setName(block.group(2));
+      final Matcher field = FIELD.matcher(block.group(3));
+      while (field.find()) {
+        final String type = field.group(2);
+        final FieldDescriptorProto.Builder fieldType = FieldDescriptorProto.newBuilder()
+            .setName(field.group(3))
+            .setNumber(Integer.parseInt(field.group(4)))
+            .setLabel(field.group(1) != null ? FieldDescriptorProto.Label.LABEL_REPEATED : FieldDescriptorProto.Label.LABEL_OPTIONAL);
+        if (SCALARS.containsKey(type)) {
+          fieldType.setType(SCALARS.get(type));
+        } else if (enums.contains(type)) {
+          fieldType.setType(FieldDescriptorProto.Type.TYPE_ENUM).setTypeName(".health." + type);
+        } else {
+          fieldType.setType(FieldDescriptorProto.Type.TYPE_MESSAGE).setTypeName(type.contains(".") ? "." + type : ".health." + type);
+        }
+        messageType.addField(fieldType);
+      }
+      file.addMessageType(messageType);
+    }
+    return Descriptors.FileDescriptor.buildFrom(file.build(),
+        new Descriptors.FileDescriptor[] {StructProto.getDescriptor(), TimestampProto.getDescriptor()});
+  }
+
+  private static Object field(final Message message, final String name) {
+    return message.getField(message.getDescriptorForType().findFieldByName(name));
+  }
+
+  /**
+   * Health reports survive a round trip through length-delimited protobuf frames, details included.
+   * Details are compared on their own, since they are not part of {@link ServiceHealth#equals(Object)}.
+   */
+  @Test
+  void healthProtobufRoundTripTest() throws IOException {
+    final Map<String, Object> kafkaDetails = new HashMap<>();
+    kafkaDetails.put("rttMillis", 1.5);
+    kafkaDetails.put("brokers", List.of("a", "b"));
+    kafkaDetails.put("lag", Map.of("orders", 3, "canary", true));
+    kafkaDetails.put("leader", null);
+    final Health first = new Health(Instant.ofEpochSecond(1_700_000_000L, 123_456_789), List.of(
+        new ServiceHealth("Mongo", HealthStatus.UP, Map.of()),
+        new ServiceHealth("Kafka", HealthStatus.DEGRADED, kafkaDetails)));
+    final Health second = new Health(Instant.EPOCH, List.of(new ServiceHealth("Http", HealthStatus.DOWN, Map.of("error", "refused"))));
+    final HealthProtobufEncoder encoder = new HealthProtobufEncoder();
+    final byte[] encoded = encoder.toDelimitedByteArray(first);
+    Assertions.assertSame(encoded, encoder.toDelimitedByteArray(first));
+
+    final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    stream.writeBytes(encoded);
+    stream.writeBytes(encoder.toDelimitedByteArray(second));
+    final CodedInputStream input = CodedInputStream.newInstance(stream.toByteArray());
+
+    final Health firstDecoded = HealthProtobuf.parseDelimitedFrom(input);
+    Assertions.assertEquals(first, firstDecoded);
+    Assertions.assertEquals(Map.of(), firstDecoded.healthList().get(0).details());
+    final Map<String, Object> expectedKafkaDetails = new HashMap<>();
+    expectedKafkaDetails.put("rttMillis", 1.5);
+    expectedKafkaDetails.put("brokers", List.of("a", "b"));
+    // Protobuf numbers are doubles.
+    expectedKafkaDetails.put("lag", Map.of("orders", 3.0, "canary", true));
+    expectedKafkaDetails.put("leader", null);
+    Assertions.assertEquals(expectedKafkaDetails, firstDecoded.healthList().get(1).details());
+
+    final Health secondDecoded = HealthProtobuf.parseDelimitedFrom(input);
+    Assertions.assertEquals(second, secondDecoded);
+    Assertions.assertEquals(Map.of("error", "refused"), secondDecoded.healthList().get(0).details());
+    Assertions.assertNull(HealthProtobuf.parseDelimitedFrom(input));
+  }
+
+  /**
+   * The encoder writes the fields of {@code health.proto}: a message parsed with the schema has every field set
+   * as encoded and no unknown fields, and a message written with the schema decodes to the same report.
+   */
+  @Test
+  void healthProtobufSchemaTest() throws Exception {
+    final Descriptors.Descriptor healthType = healthSchema().findMessageTypeByName("Health");
+    final Health health = new Health(Instant.ofEpochSecond(1_700_000_000L, 5), List.of(
+        new ServiceHealth("Mongo", HealthStatus.UP, Map.of()),
+        new ServiceHealth("Kafka", HealthStatus.DEGRADED, Map.of("rttMillis", 1.5))));
+
+    final DynamicMessage parsed = DynamicMessage.parseFrom(healthType,
+        CodedInputStream.newInstance(HealthProtobuf.toDelimitedByteArray(health)).readByteArray());
+    Assertions.assertTrue(parsed.getUnknownFields().asMap().isEmpty());
+    Assertions.assertEquals(Timestamp.newBuilder().setSeconds(1_700_000_000L).setNanos(5).build(),
+        Timestamp.parseFrom(((Message) field(parsed, "timestamp")).toByteString()));
+    final List<?> healthList = (List<?>) field(parsed, "health_list");
+    Assertions.assertEquals(2, healthList.size());
+    final Message mongo = (Message) healthList.get(0);
+    final Message kafka = (Message) healthList.get(1);
+    Assertions.assertTrue(mongo.getUnknownFields().asMap().isEmpty());
+    Assertions.assertTrue(kafka.getUnknownFields().asMap().isEmpty());
+    Assertions.assertEquals("Mongo", field(mongo, "service_name"));
+    Assertions.assertEquals(true, field(mongo, "healthy"));
+    Assertions.assertEquals("STATUS_UP", ((Descriptors.EnumValueDescriptor) field(mongo, "status")).getName());
+    Assertions.assertFalse(mongo.hasField(mongo.getDescriptorForType().findFieldByName("details")));
+    Assertions.assertEquals("Kafka", field(kafka, "service_name"));
+    Assertions.assertEquals(health.healthList().get(1).healthy(), field(kafka, "healthy"));
+    Assertions.assertEquals("STATUS_DEGRADED", ((Descriptors.EnumValueDescriptor) field(kafka, "status")).getName());
+    Assertions.assertEquals(1.5, Struct.parseFrom(((Message) field(kafka, "details")).toByteString())
+        .getFieldsOrThrow("rttMillis").getNumberValue());
+
+    final Descriptors.Descriptor serviceType = healthType.getFile().findMessageTypeByName("ServiceHealth");
+    final DynamicMessage written = DynamicMessage.newBuilder(healthType)
+        .addRepeatedField(healthType.findFieldByName("health_list"), DynamicMessage.newBuilder(serviceType)
+            .setField(serviceType.findFieldByName("service_name"), "Http")
+            .setField(serviceType.findFieldByName("status"), serviceType.findFieldByName("status").getEnumType().findValueByName("STATUS_DOWN"))
+            .build())
+        .build();
+    final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    written.writeDelimitedTo(stream);
+    final Health decoded = HealthProtobuf.parseDelimitedFrom(CodedInputStream.newInstance(new ByteArrayInputStream(stream.toByteArray())));
+    Assertions.assertEquals(new Health(Instant.EPOCH, List.of(new ServiceHealth("Http", HealthStatus.DOWN, Map.of()))), decoded);
+  }
+}
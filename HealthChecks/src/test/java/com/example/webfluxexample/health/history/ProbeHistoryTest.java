@@ -0,0 +1,80 @@
+package com.example.webfluxexample.health.history;
+
+import com.example.webfluxexample.health.model.HealthStatistics;
+import com.example.webfluxexample.health.model.HealthTransition;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ProbeHistoryTest {
+
+  private static final long WINDOW_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+  /**
+   * Once full, each probe overwrites the oldest one, and only the latest capacity probes are reported.
+   */
+  @Test
+  void historyWraparoundTest() {
+    final ProbeHistory history = new ProbeHistory("Mongo", 4);
+    for (int probe = 1; probe <= 10; probe++) {
+      history.record(probe * 1000L, TimeUnit.MILLISECONDS.toNanos(probe), probe <= 8);
+    }
+
+    final HealthStatistics statistics = history.statistics(10000, WINDOW_MILLIS);
+    Assertions.assertEquals(4, statistics.samples());
+    Assertions.assertEquals(50.0, statistics.uptimePercent());
+    Assertions.assertEquals(8.0, statistics.p50LatencyMillis());
+    Assertions.assertEquals(10.0, statistics.p99LatencyMillis());
+    Assertions.assertEquals(List.of(new HealthTransition(Instant.ofEpochMilli(9000), false)), statistics.transitions());
+
+    // The window cuts off older probes, even within the buffer.
+    Assertions.assertEquals(2, history.statistics(10000, 1000).samples());
+  }
+
+  /**
+   * Percentiles use the nearest rank over the probe latencies.
+   */
+  @Test
+  void historyPercentilesTest() {
+    final ProbeHistory history = new ProbeHistory("Mongo", 200);
+    // Latencies 1 to 100 ms, recorded out of order.
+    for (int probe = 0; probe < 100; probe++) {
+      final int latencyMillis = (probe * 37) % 100 + 1;
+      history.record(probe, TimeUnit.MILLISECONDS.toNanos(latencyMillis), true);
+    }
+
+    final HealthStatistics statistics = history.statistics(100, WINDOW_MILLIS);
+    Assertions.assertEquals(100, statistics.samples());
+    Assertions.assertEquals(50.0, statistics.p50LatencyMillis());
+    Assertions.assertEquals(99.0, statistics.p99LatencyMillis());
+
+    final HealthStatistics empty = new ProbeHistory("Kafka", 8).statistics(100, WINDOW_MILLIS);
+    Assertions.assertEquals(0, empty.samples());
+    Assertions.assertEquals(0.0, empty.p50LatencyMillis());
+    Assertions.assertEquals(0.0, empty.p99LatencyMillis());
+  }
+
+  /**
+   * Every change between healthy and unhealthy is a transition, repeated outcomes are not.
+   */
+  @Test
+  void historyTransitionsTest() {
+    final ProbeHistory history = new ProbeHistory("Mongo", 16);
+    final boolean[] outcomes = {true, true, false, false, true, false, true, true};
+    for (int probe = 0; probe < outcomes.length; probe++) {
+      history.record(probe * 1000L, 0, outcomes[probe]);
+    }
+
+    final HealthStatistics statistics = history.statistics(7000, WINDOW_MILLIS);
+    Assertions.assertEquals(
+        List.of(
+            new HealthTransition(Instant.ofEpochMilli(2000), false),
+            new HealthTransition(Instant.ofEpochMilli(4000), true),
+            new HealthTransition(Instant.ofEpochMilli(5000), false),
+            new HealthTransition(Instant.ofEpochMilli(6000), true)),
+        statistics.transitions());
+    Assertions.assertEquals(62.5, statistics.uptimePercent());
+  }
+}
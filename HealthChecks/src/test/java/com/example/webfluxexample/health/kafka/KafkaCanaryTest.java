@@ -0,0 +1,116 @@
+package com.example.webfluxexample.health.kafka;
+
+import com.example.webfluxexample.health.checkers.KafkaHealthChecker;
+import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.config.KafkaHealthConfig;
+import com.example.webfluxexample.health.model.HealthStatus;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.config.SaslConfigs;
+import org.apache.kafka.common.config.SslConfigs;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+public class KafkaCanaryTest {
+
+  /**
+   * A Kafka deep probe makes a canary round trip through every partition of the canary topics.
+   */
+  @Test
+  void kafkaCanaryDeepProbeTest() throws Exception {
+    final EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, 3, "canary");
+    broker.afterPropertiesSet();
+    final KafkaAdmin kafkaAdmin = new KafkaAdmin(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()));
+    final KafkaHealthConfig config = new KafkaHealthConfig();
+    try (Admin admin = Admin.create(kafkaAdmin.getConfigurationProperties())) {
+      final KafkaClusterRegistry registry = new KafkaClusterRegistry(admin, kafkaAdmin, config);
+      final KafkaHealthChecker checker = new KafkaHealthChecker(registry, config);
+      final HealthEndpoint endpoint = new HealthEndpoint(true, "KAFKA", "Kafka", null, null, 0, null,
+          0, 0, List.of(), List.of(), List.of(), 0, List.of("canary"));
+
+      for (int probe = 0; probe < 2; probe++) {
+        final ServiceHealth health = checker.checkHealth(endpoint).block(Duration.ofSeconds(30));
+        Assertions.assertNotNull(health);
+        Assertions.assertEquals(HealthStatus.UP, health.status(), String.valueOf(health.details()));
+        final Map<?, ?> canary = (Map<?, ?>) health.details().get("canary");
+        Assertions.assertEquals(Set.of("canary-0", "canary-1", "canary-2"), canary.keySet());
+        canary.values().forEach(partition -> Assertions.assertTrue(((Map<?, ?>) partition).containsKey("endToEndMillis")));
+      }
+      registry.destroy();
+    } finally {
+      broker.destroy();
+    }
+  }
+
+  /**
+   * A send that blocks, as it does while the producer waits for metadata of an unreachable cluster, times out
+   * the round trip instead of blocking the probe.
+   */
+  @Test
+  void kafkaCanaryBlockedSendTest() throws Exception {
+    final EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, 3, "canary");
+    broker.afterPropertiesSet();
+    final MockProducer<byte[], byte[]> blocked = new MockProducer<>(true, new ByteArraySerializer(), new ByteArraySerializer()) {
+      @Override
+      public synchronized Future<RecordMetadata> send(final ProducerRecord<byte[], byte[]> record, final Callback callback) {
+        try {
+          Thread.sleep(Duration.ofSeconds(10).toMillis());
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return super.send(record, callback);
+      }
+    };
+    final Map<String, Object> clientProperties = Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+    try (Admin admin = Admin.create(clientProperties);
+        KafkaCanary canary = new KafkaCanary("blocked", admin, clientProperties, 5000, blocked)) {
+      final List<KafkaCanary.PartitionResult> results = canary.probe(List.of("canary"), Duration.ofMillis(500))
+          .block(Duration.ofSeconds(5));
+
+      Assertions.assertNotNull(results);
+      Assertions.assertEquals(3, results.size());
+      results.forEach(result -> Assertions.assertEquals("Not acknowledged within 500 ms", result.error()));
+    } finally {
+      broker.destroy();
+    }
+  }
+
+  /**
+   * The canary producer and consumer get only the connection and security settings of the admin client.
+   */
+  @Test
+  void kafkaCanaryConnectionPropertiesTest() {
+    final Map<String, Object> properties = KafkaCanary.connectionProperties(Map.of(
+        AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, "kafka:9092",
+        AdminClientConfig.SECURITY_PROTOCOL_CONFIG, "SASL_SSL",
+        SslConfigs.SSL_TRUSTSTORE_LOCATION_CONFIG, "/etc/kafka/truststore.jks",
+        SaslConfigs.SASL_MECHANISM, "PLAIN",
+        AdminClientConfig.CLIENT_ID_CONFIG, "health-checks-kafka:9092",
+        AdminClientConfig.DEFAULT_API_TIMEOUT_MS_CONFIG, 3000,
+        AdminClientConfig.RETRIES_CONFIG, 5));
+
+    Assertions.assertEquals(Set.of(
+        CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG,
+        CommonClientConfigs.SECURITY_PROTOCOL_CONFIG,
+        SslConfigs.SSL_TRUSTSTORE_LOCATION_CONFIG,
+        SaslConfigs.SASL_MECHANISM), properties.keySet());
+    Assertions.assertTrue(ProducerConfig.configNames().containsAll(properties.keySet()));
+    Assertions.assertTrue(ConsumerConfig.configNames().containsAll(properties.keySet()));
+  }
+}
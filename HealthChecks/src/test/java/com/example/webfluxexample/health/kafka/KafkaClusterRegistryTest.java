@@ -0,0 +1,62 @@
+package com.example.webfluxexample.health.kafka;
+
+import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.config.KafkaHealthConfig;
+import com.example.webfluxexample.health.model.EndpointChanges;
+import com.example.webfluxexample.health.service.HealthEndpointsChangedEvent;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+public class KafkaClusterRegistryTest {
+
+  private static HealthEndpoint kafkaEndpoint(final List<String> topics, final List<String> consumerGroups) {
+    return new HealthEndpoint(true, "KAFKA", "Kafka", null, null, 0, null,
+        0, 0, topics, consumerGroups, List.of(), 0, List.of());
+  }
+
+  /**
+   * Topics and consumer groups no endpoint probes anymore drop out of the cluster snapshot.
+   */
+  @Test
+  void kafkaWatchedTopicsPrunedTest() throws Exception {
+    final EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, 1, "orders", "payments");
+    broker.afterPropertiesSet();
+    final KafkaAdmin kafkaAdmin = new KafkaAdmin(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString()));
+    final KafkaHealthConfig config = new KafkaHealthConfig();
+    config.setRefreshIntervalMillis(200);
+    try (Admin admin = Admin.create(kafkaAdmin.getConfigurationProperties())) {
+      final KafkaClusterRegistry registry = new KafkaClusterRegistry(admin, kafkaAdmin, config);
+      final HealthEndpoint before = kafkaEndpoint(List.of("orders", "payments"), List.of("order-processor"));
+      final KafkaCluster cluster = registry.getCluster(before);
+      final KafkaClusterSnapshot watched = cluster.snapshot(before.topics(), before.consumerGroups()).block(Duration.ofSeconds(30));
+      Assertions.assertNotNull(watched);
+      Assertions.assertEquals(Set.of("orders", "payments"), watched.topicLeaders().keySet());
+      Assertions.assertEquals(Set.of("order-processor"), watched.consumerLag().keySet());
+
+      final HealthEndpoint after = kafkaEndpoint(List.of("orders"), List.of());
+      registry.onEndpointsChanged(new HealthEndpointsChangedEvent(
+          List.of(after), new EndpointChanges(List.of(), List.of("Kafka"), List.of())));
+
+      KafkaClusterSnapshot pruned = watched;
+      for (int attempt = 0; attempt < 50 && pruned.topicLeaders().size() > 1; attempt++) {
+        Thread.sleep(200);
+        pruned = cluster.snapshot(after.topics(), after.consumerGroups()).block(Duration.ofSeconds(30));
+        Assertions.assertNotNull(pruned);
+      }
+      Assertions.assertEquals(Set.of("orders"), pruned.topicLeaders().keySet());
+      Assertions.assertEquals(Set.of(), pruned.consumerLag().keySet());
+      Assertions.assertSame(cluster, registry.getCluster(after));
+      registry.destroy();
+    } finally {
+      broker.destroy();
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.example.webfluxexample.health.kafka;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+public class KafkaClusterTest {
+
+  /**
+   * Probes for different topics issued at the same time each get a snapshot covering their own topic.
+   */
+  @Test
+  void kafkaConcurrentSnapshotTest() throws Exception {
+    final EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, 1, "orders", "payments");
+    broker.afterPropertiesSet();
+    final Map<String, Object> clientProperties = Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+    try (Admin admin = Admin.create(clientProperties);
+        KafkaCluster cluster = new KafkaCluster("test", admin, false, Duration.ofMinutes(1), 5000, clientProperties)) {
+      final Tuple2<KafkaClusterSnapshot, KafkaClusterSnapshot> snapshots = Mono.zip(
+              cluster.snapshot(List.of("orders"), List.of()),
+              cluster.snapshot(List.of("payments"), List.of()))
+          .block(Duration.ofSeconds(30));
+
+      Assertions.assertNotNull(snapshots);
+      Assertions.assertEquals(true, snapshots.getT1().topicLeaders().get("orders"));
+      Assertions.assertEquals(true, snapshots.getT2().topicLeaders().get("payments"));
+    } finally {
+      broker.destroy();
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package com.example.webfluxexample.health.model;
+
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ServiceHealthTest {
+
+  /**
+   * Results compare by service and status only, with a consistent hash.
+   */
+  @Test
+  void serviceHealthEqualityTest() {
+    final ServiceHealth fast = new ServiceHealth("Mongo", HealthStatus.UP, Map.of("rttMillis", 3));
+    final ServiceHealth slow = new ServiceHealth("Mongo", HealthStatus.UP, Map.of("rttMillis", 30));
+
+    Assertions.assertEquals(fast, slow);
+    Assertions.assertEquals(fast.hashCode(), slow.hashCode());
+    Assertions.assertNotEquals(fast.details(), slow.details());
+    Assertions.assertNotEquals(fast, fast.withStatus(HealthStatus.DEGRADED));
+    Assertions.assertNotEquals(fast, new ServiceHealth("Kafka", HealthStatus.UP, Map.of("rttMillis", 3)));
+    Assertions.assertEquals(new ServiceHealth("Mongo", true), new ServiceHealth("Mongo", HealthStatus.UP, null));
+  }
+}
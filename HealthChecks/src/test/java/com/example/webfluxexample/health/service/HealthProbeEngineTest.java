@@ -0,0 +1,152 @@
+package com.example.webfluxexample.health.service;
+
+import com.example.webfluxexample.health.checkers.HealthChecker;
+import com.example.webfluxexample.health.config.HealthEndpoint;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import reactor.core.Disposable;
+
+public class HealthProbeEngineTest {
+
+  private static final HealthEndpoint ENDPOINT = new HealthEndpoint(true, "http", "Downstream", "http", "foobar.com", 90, "foo");
+
+  private static HealthChecker sleeping(final Duration duration, final AtomicInteger calls) {
+    return endpoint -> {
+      calls.incrementAndGet();
+      try {
+        Thread.sleep(duration.toMillis());
+        return true;
+      } catch (final InterruptedException e) {
+        return false;
+      }
+    };
+  }
+
+  private static List<HealthEndpoint> endpoints(final int count) {
+    final List<HealthEndpoint> endpoints = new ArrayList<>();
+    for (int index = 0; index < count; index++) {
+      endpoints.add(new HealthEndpoint(true, "http", "Downstream" + index, "http", "foobar.com", 90, "foo"));
+    }
+    return endpoints;
+  }
+
+  private static HealthProbeEngine engine(final HealthChecker checker, final Duration probeTimeout, final Duration sweepTimeout) {
+    return new HealthProbeEngine(checker, 16, probeTimeout, sweepTimeout, 0, 0, Duration.ZERO,
+        HealthProbeEngine.Execution.VIRTUAL_THREADS, (endpoint, health, latencyNanos) -> { });
+  }
+
+  private static boolean isVirtual(final Thread thread) {
+    try {
+      return (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    } catch (final ReflectiveOperationException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Thousands of blocking probes are in flight at once on virtual threads, beyond the max concurrency.
+   */
+  @Test
+  @EnabledForJreRange(min = JRE.JAVA_21)
+  void healthVirtualThreadConcurrencyTest() {
+    final int endpointCount = 2000;
+    final CountDownLatch allInFlight = new CountDownLatch(endpointCount);
+    final AtomicInteger virtualThreads = new AtomicInteger();
+    final HealthChecker blocking = endpoint -> {
+      if (isVirtual(Thread.currentThread())) {
+        virtualThreads.incrementAndGet();
+      }
+      allInFlight.countDown();
+      try {
+        return allInFlight.await(30, TimeUnit.SECONDS);
+      } catch (final InterruptedException e) {
+        return false;
+      }
+    };
+    final HealthProbeEngine engine = engine(blocking, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+    final List<ServiceHealth> healthList = engine.sweep(endpoints(endpointCount)).block(Duration.ofSeconds(30));
+
+    Assertions.assertNotNull(healthList);
+    Assertions.assertTrue(healthList.stream().allMatch(ServiceHealth::healthy));
+    Assertions.assertEquals(endpointCount, virtualThreads.get());
+  }
+
+  /**
+   * Blocking probes still running at the probe deadline are interrupted, on virtual threads or on the scheduler
+   * they fall back to before Java 21.
+   */
+  @Test
+  void healthProbeDeadlineInterruptsTest() throws InterruptedException {
+    // Within the scheduler's threads, so no probe times out queued before it runs.
+    final int endpointCount = 8;
+    final CountDownLatch interrupted = new CountDownLatch(endpointCount);
+    final HealthChecker blocking = endpoint -> {
+      try {
+        Thread.sleep(Duration.ofMinutes(1).toMillis());
+        return true;
+      } catch (final InterruptedException e) {
+        interrupted.countDown();
+        return false;
+      }
+    };
+    final HealthProbeEngine engine = engine(blocking, Duration.ofMillis(300), Duration.ofSeconds(30));
+
+    final List<ServiceHealth> healthList = engine.sweep(endpoints(endpointCount)).block(Duration.ofSeconds(30));
+
+    Assertions.assertNotNull(healthList);
+    Assertions.assertTrue(healthList.stream().noneMatch(ServiceHealth::healthy));
+    Assertions.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+  }
+
+  /**
+   * Cancelling a sweep does not interrupt a probe that another sweep is waiting on.
+   */
+  @Test
+  void healthSharedProbeSurvivesCancelledSweepTest() throws InterruptedException {
+    final AtomicInteger calls = new AtomicInteger();
+    final HealthProbeEngine engine = engine(sleeping(Duration.ofMillis(500), calls), Duration.ofSeconds(10), Duration.ofSeconds(10));
+
+    final Disposable cancelled = engine.sweep(List.of(ENDPOINT)).subscribe();
+    Thread.sleep(100);
+    final CompletableFuture<List<ServiceHealth>> waiting = engine.sweep(List.of(ENDPOINT)).toFuture();
+    cancelled.dispose();
+
+    final List<ServiceHealth> healthList = waiting.join();
+    Assertions.assertTrue(healthList.get(0).healthy());
+    Assertions.assertEquals(1, calls.get());
+  }
+
+  /**
+   * A probe cut off by the sweep deadline counts as a breaker failure, even when it later succeeds.
+   */
+  @Test
+  void healthSweepDeadlineOpensCircuitTest() throws InterruptedException {
+    final AtomicInteger calls = new AtomicInteger();
+    final HealthProbeEngine engine = new HealthProbeEngine(sleeping(Duration.ofMillis(500), calls), 16, Duration.ofMinutes(1),
+        Duration.ofMillis(100), 0, 1, Duration.ofMinutes(1), HealthProbeEngine.Execution.SCHEDULER, (endpoint, health, latencyNanos) -> { });
+
+    final List<ServiceHealth> cutOff = engine.sweep(List.of(ENDPOINT)).block(Duration.ofSeconds(10));
+    Assertions.assertNotNull(cutOff);
+    Assertions.assertFalse(cutOff.get(0).healthy());
+    Assertions.assertEquals("OPEN", cutOff.get(0).details().get("circuit"));
+
+    // The probe succeeds after the deadline, which must not close the breaker again.
+    Thread.sleep(Duration.ofSeconds(1).toMillis());
+    final List<ServiceHealth> shortCircuited = engine.sweep(List.of(ENDPOINT)).block(Duration.ofSeconds(10));
+    Assertions.assertNotNull(shortCircuited);
+    Assertions.assertFalse(shortCircuited.get(0).healthy());
+    Assertions.assertEquals("OPEN", shortCircuited.get(0).details().get("circuit"));
+    Assertions.assertEquals(1, calls.get());
+  }
+}
@@ -0,0 +1,107 @@
+package com.example.webfluxexample.health.service;
+
+import com.example.webfluxexample.health.metrics.HealthMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+
+public class StreamSubscriptionsTest {
+
+  /**
+   * Concurrent subscribers never take more slots than the limit.
+   */
+  @Test
+  void streamSubscriberLimitTest() throws InterruptedException {
+    final StreamSubscriptions subscriptions = new StreamSubscriptions("updates", StreamSubscriptions.Overflow.DROP_OLDEST,
+        4, 5, Duration.ZERO, new HealthMetrics(new SimpleMeterRegistry()));
+    final AtomicInteger accepted = new AtomicInteger();
+    final AtomicInteger rejected = new AtomicInteger();
+    final CountDownLatch start = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newFixedThreadPool(16);
+    try {
+      for (int i = 0; i < 64; i++) {
+        executor.execute(() -> {
+          try {
+            start.await();
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+          subscriptions.subscribe(Flux.never()).subscribe(
+              item -> { },
+              error -> {
+                Assertions.assertInstanceOf(ResponseStatusException.class, error);
+                rejected.incrementAndGet();
+              });
+          accepted.incrementAndGet();
+        });
+      }
+      start.countDown();
+      executor.shutdown();
+      Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    } finally {
+      subscriptions.dispose();
+    }
+
+    Assertions.assertEquals(64, accepted.get());
+    Assertions.assertEquals(59, rejected.get());
+  }
+
+  /**
+   * The latest overflow keeps only the newest update and counts each one it replaces as dropped.
+   */
+  @Test
+  void streamLatestDroppedTest() {
+    final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    final StreamSubscriptions subscriptions = new StreamSubscriptions("graph", StreamSubscriptions.Overflow.LATEST,
+        4, 5, Duration.ZERO, new HealthMetrics(meterRegistry));
+    final List<Integer> received = new CopyOnWriteArrayList<>();
+    final BaseSubscriber<Integer> stalled = new BaseSubscriber<>() {
+      @Override
+      protected void hookOnSubscribe(final Subscription subscription) {
+        subscription.request(1);
+      }
+
+      @Override
+      protected void hookOnNext(final Integer value) {
+        received.add(value);
+      }
+    };
+    subscriptions.subscribe(Flux.range(1, 100)).subscribe(stalled);
+    stalled.request(1);
+
+    Assertions.assertEquals(List.of(1, 100), received);
+    Assertions.assertEquals(98, meterRegistry.counter("health.sse.dropped", "stream", "graph").count());
+    subscriptions.dispose();
+  }
+
+  /**
+   * Disposing completes every subscriber and rejects new ones.
+   */
+  @Test
+  void streamDisposeTest() {
+    final StreamSubscriptions subscriptions = new StreamSubscriptions("deltas", StreamSubscriptions.Overflow.DROP_OLDEST,
+        4, 5, Duration.ZERO, new HealthMetrics(new SimpleMeterRegistry()));
+    final CountDownLatch completed = new CountDownLatch(2);
+    subscriptions.subscribe(Flux.never()).doOnComplete(completed::countDown).subscribe();
+    subscriptions.subscribe(Flux.never()).doOnComplete(completed::countDown).subscribe();
+
+    subscriptions.dispose();
+
+    Assertions.assertTrue(subscriptions.isDisposed());
+    Assertions.assertEquals(0, completed.getCount());
+    Assertions.assertThrows(ResponseStatusException.class, () -> subscriptions.subscribe(Flux.just(1)).blockFirst());
+  }
+}
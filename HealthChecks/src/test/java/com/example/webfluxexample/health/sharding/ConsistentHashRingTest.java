@@ -0,0 +1,60 @@
+package com.example.webfluxexample.health.sharding;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ConsistentHashRingTest {
+
+  private static final List<String> KEYS = IntStream.range(0, 10000).mapToObj(index -> "service-" + index).toList();
+
+  private static Map<String, String> owners(final ConsistentHashRing ring) {
+    final Map<String, String> owners = new HashMap<>();
+    KEYS.forEach(key -> owners.put(key, ring.owner(key)));
+    return owners;
+  }
+
+  /**
+   * With the default virtual nodes every replica owns a fair share of the keys.
+   */
+  @Test
+  void ringDistributionTest() {
+    final List<String> members = List.of("replica-a", "replica-b", "replica-c", "replica-d");
+    final Map<String, Integer> counts = new HashMap<>();
+    owners(new ConsistentHashRing(members, 64)).values().forEach(owner -> counts.merge(owner, 1, Integer::sum));
+
+    Assertions.assertEquals(members.size(), counts.size());
+    final int fairShare = KEYS.size() / members.size();
+    counts.forEach((member, count) -> Assertions.assertTrue(
+        count > fairShare * 0.6 && count < fairShare * 1.4, member + " owns " + count + " of " + KEYS.size()));
+  }
+
+  /**
+   * When a replica leaves only its keys move, and they move back when it rejoins.
+   */
+  @Test
+  void ringRebalanceTest() {
+    final Map<String, String> before = owners(new ConsistentHashRing(List.of("replica-a", "replica-b", "replica-c"), 64));
+    final Map<String, String> after = owners(new ConsistentHashRing(List.of("replica-a", "replica-b"), 64));
+
+    for (final String key : KEYS) {
+      if ("replica-c".equals(before.get(key))) {
+        Assertions.assertNotEquals("replica-c", after.get(key));
+      } else {
+        Assertions.assertEquals(before.get(key), after.get(key), key);
+      }
+    }
+    Assertions.assertEquals(before, owners(new ConsistentHashRing(List.of("replica-c", "replica-b", "replica-a"), 64)));
+  }
+
+  /**
+   * An empty ring owns nothing.
+   */
+  @Test
+  void ringEmptyTest() {
+    Assertions.assertNull(new ConsistentHashRing(List.of(), 64).owner("service-0"));
+  }
+}
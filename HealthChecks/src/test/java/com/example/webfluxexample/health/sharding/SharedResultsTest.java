@@ -0,0 +1,57 @@
+package com.example.webfluxexample.health.sharding;
+
+import com.example.webfluxexample.health.model.HealthStatus;
+import com.example.webfluxexample.health.model.ServiceHealth;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SharedResultsTest {
+
+  private static final ServiceHealth MONGO = new ServiceHealth("Mongo", HealthStatus.UP, Map.of("rttMillis", 3));
+
+  /**
+   * A result is served while fresh and reported down once it is older than the timeout.
+   */
+  @Test
+  void sharedResultTimeoutTest() {
+    final SharedResults results = new SharedResults(60000);
+    results.put("Mongo", new KafkaHealthSharding.SharedHealth("replica-b", 1000, MONGO), 1000);
+
+    Assertions.assertSame(MONGO, results.get("Mongo", member -> true, 61000));
+    final ServiceHealth expired = results.get("Mongo", member -> true, 61001);
+    Assertions.assertEquals(HealthStatus.DOWN, expired.status());
+    Assertions.assertEquals("replica-b", expired.details().get("replicaId"));
+    Assertions.assertNull(results.get("Kafka", member -> true, 1000));
+  }
+
+  /**
+   * A result replayed from the topic keeps the age it was shared with, and a clock ahead of ours does not
+   * make a result look younger than it is.
+   */
+  @Test
+  void sharedResultReplayTest() {
+    final SharedResults results = new SharedResults(60000);
+    results.put("Mongo", new KafkaHealthSharding.SharedHealth("replica-b", 1000, MONGO), 100000);
+    Assertions.assertEquals(HealthStatus.DOWN, results.get("Mongo", member -> true, 100000).status());
+
+    results.put("Mongo", new KafkaHealthSharding.SharedHealth("replica-b", 500000, MONGO), 100000);
+    Assertions.assertEquals(HealthStatus.DOWN, results.get("Mongo", member -> true, 160001).status());
+  }
+
+  /**
+   * The results of a replica that left the ring read as missing until another replica shares one.
+   */
+  @Test
+  void sharedResultMemberLeftTest() {
+    final SharedResults results = new SharedResults(60000);
+    results.put("Mongo", new KafkaHealthSharding.SharedHealth("replica-b", 1000, MONGO), 1000);
+    Assertions.assertNull(results.get("Mongo", "replica-a"::equals, 2000));
+
+    results.put("Mongo", new KafkaHealthSharding.SharedHealth("replica-a", 2000, MONGO), 2000);
+    Assertions.assertSame(MONGO, results.get("Mongo", "replica-a"::equals, 3000));
+
+    results.remove("Mongo");
+    Assertions.assertNull(results.get("Mongo", "replica-a"::equals, 3000));
+  }
+}
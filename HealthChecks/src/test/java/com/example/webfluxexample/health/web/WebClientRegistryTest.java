@@ -0,0 +1,59 @@
+package com.example.webfluxexample.health.web;
+
+import com.example.webfluxexample.health.config.HttpClientPoolConfig;
+import com.example.webfluxexample.health.config.SslConfigProperties;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.reactive.function.client.WebClient;
+
+public class WebClientRegistryTest {
+
+  private static void keytool(final String... arguments) throws IOException, InterruptedException {
+    final List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "keytool").toString());
+    command.addAll(List.of(arguments));
+    final Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+    Assertions.assertTrue(process.waitFor(60, TimeUnit.SECONDS));
+    Assertions.assertEquals(0, process.exitValue(), new String(process.getInputStream().readAllBytes()));
+  }
+
+  /**
+   * TLS clients load the client key from the key store, and clients with different keystores are not shared.
+   */
+  @Test
+  void webClientKeyStoreTest(@TempDir final Path directory) throws IOException, InterruptedException {
+    final Path keyStore = directory.resolve("client.p12");
+    final Path certificate = directory.resolve("client.crt");
+    final Path trustStore = directory.resolve("trust.p12");
+    keytool("-genkeypair", "-alias", "client", "-keyalg", "RSA", "-keysize", "2048", "-dname", "CN=client",
+        "-validity", "1", "-storetype", "PKCS12", "-keystore", keyStore.toString(), "-storepass", "key-secret");
+    keytool("-exportcert", "-alias", "client", "-keystore", keyStore.toString(), "-storepass", "key-secret",
+        "-file", certificate.toString());
+    keytool("-importcert", "-noprompt", "-alias", "ca", "-file", certificate.toString(),
+        "-storetype", "PKCS12", "-keystore", trustStore.toString(), "-storepass", "trust-secret");
+    Assertions.assertTrue(Files.exists(trustStore));
+
+    final SslConfigProperties ssl = new SslConfigProperties(
+        trustStore.toString(), "trust-secret", keyStore.toString(), "client", "key-secret");
+    final WebClientRegistry registry = new WebClientRegistry(new HttpClientPoolConfig());
+    try {
+      final WebClient keyStoreClient = registry.getWebClient(new WebClientRegistry.ClientKey("https", "localhost", 8443, ssl));
+      final WebClient insecureClient = registry.getWebClient(new WebClientRegistry.ClientKey("https", "localhost", 8443));
+
+      Assertions.assertNotSame(keyStoreClient, insecureClient);
+      Assertions.assertSame(keyStoreClient, registry.getWebClient(new WebClientRegistry.ClientKey("https", "localhost", 8443,
+          new SslConfigProperties(trustStore.toString(), "trust-secret", keyStore.toString(), "client", "key-secret"))));
+      Assertions.assertEquals(2, registry.getStats().clientsCreated());
+      Assertions.assertFalse(ssl.toString().contains("secret"));
+    } finally {
+      registry.destroy();
+    }
+  }
+}
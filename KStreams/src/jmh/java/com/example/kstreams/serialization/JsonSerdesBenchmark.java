@@ -0,0 +1,80 @@
+package com.example.kstreams.serialization;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Serde;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+/**
+ * Cost of serializing and deserializing one record with the {@link JsonSerdes} serde, against Spring's
+ * {@link JsonSerializer} and {@link JsonDeserializer} with their defaults, which the serde used to bundle.
+ * Run with {@code -prof gc} to compare the allocation per record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonSerdesBenchmark {
+
+  private static final String TOPIC = "benchmark";
+
+  /**
+   * A typical metric record.
+   */
+  public record Metric(String name, String host, Instant timestamp, double value, List<String> tags, Map<String, Long> counts) {
+  }
+
+  private Metric metric;
+  private byte[] bytes;
+  private ByteBuffer buffer;
+  private Serde<Metric> serde;
+  private JsonSerializer<Metric> springSerializer;
+  private JsonDeserializer<Metric> springDeserializer;
+
+  @Setup
+  public void setup() {
+    this.metric = new Metric("requests.latency", "orders-7f9c4d-x2k8q", Instant.parse("2026-10-18T12:00:00Z"), 12.75,
+        List.of("region:eu-west-1", "service:orders", "version:1.4.2"), Map.of("count", 1_024L, "errors", 3L));
+    this.serde = JsonSerdes.forClass(Metric.class);
+    this.springSerializer = new JsonSerializer<>();
+    this.springDeserializer = new JsonDeserializer<>(Metric.class);
+    this.bytes = this.serde.serializer().serialize(TOPIC, this.metric);
+    this.buffer = ByteBuffer.wrap(this.bytes);
+  }
+
+  @Benchmark
+  public byte[] springSerialize() {
+    return this.springSerializer.serialize(TOPIC, new RecordHeaders(), this.metric);
+  }
+
+  @Benchmark
+  public byte[] writerSerialize() {
+    return this.serde.serializer().serialize(TOPIC, new RecordHeaders(), this.metric);
+  }
+
+  @Benchmark
+  public Metric springDeserialize() {
+    return this.springDeserializer.deserialize(TOPIC, new RecordHeaders(), this.bytes);
+  }
+
+  @Benchmark
+  public Metric readerDeserialize() {
+    return this.serde.deserializer().deserialize(TOPIC, new RecordHeaders(), this.bytes);
+  }
+
+  @Benchmark
+  public Metric readerDeserializeBuffer() {
+    return this.serde.deserializer().deserialize(TOPIC, new RecordHeaders(), this.buffer);
+  }
+}
@@ -0,0 +1,80 @@
+package com.example.kstreams.serialization;
+
+import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.StructProto;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of deserializing one record with the cached parser, from an array and from a buffer, against the
+ * previous per-record {@code getMethod("parseFrom")} and {@code Method.invoke}.
+ * The messages are descriptors shipped with protobuf-java, so no generated classes are needed:
+ * tiny has a name and package only, small is struct.proto, large is descriptor.proto.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProtobufDeserializerBenchmark {
+
+  private static final String TOPIC = "benchmark";
+
+  @Param({"tiny", "small", "large"})
+  private String message;
+
+  private ProtobufDeserializer<FileDescriptorProto> deserializer;
+  private byte[] bytes;
+  private ByteBuffer heapBuffer;
+  private ByteBuffer directBuffer;
+  private RecordHeaders headers;
+
+  @Setup
+  public void setup() {
+    this.deserializer = new ProtobufDeserializer<>(FileDescriptorProto.class);
+    this.bytes = (switch (this.message) {
+      case "tiny" -> FileDescriptorProto.newBuilder().setName("orders.proto").setPackage("orders").build();
+      case "small" -> StructProto.getDescriptor().toProto();
+      default -> DescriptorProtos.getDescriptor().toProto();
+    }).toByteArray();
+    this.heapBuffer = ByteBuffer.wrap(this.bytes);
+    this.directBuffer = ByteBuffer.allocateDirect(this.bytes.length).put(this.bytes).flip();
+    this.headers = new RecordHeaders();
+  }
+
+  /**
+   * The deserializer as it was: a reflective lookup and invocation per record.
+   *
+   * @return the message
+   * @throws Exception never
+   */
+  @Benchmark
+  public FileDescriptorProto reflective() throws Exception {
+    final Method parseFromMethod = FileDescriptorProto.class.getMethod("parseFrom", byte[].class);
+    return (FileDescriptorProto) parseFromMethod.invoke(null, this.bytes);
+  }
+
+  @Benchmark
+  public FileDescriptorProto cachedParser() {
+    return this.deserializer.deserialize(TOPIC, this.bytes);
+  }
+
+  @Benchmark
+  public FileDescriptorProto cachedParserHeapBuffer() {
+    return this.deserializer.deserialize(TOPIC, this.headers, this.heapBuffer);
+  }
+
+  @Benchmark
+  public FileDescriptorProto cachedParserDirectBuffer() {
+    return this.deserializer.deserialize(TOPIC, this.headers, this.directBuffer);
+  }
+}
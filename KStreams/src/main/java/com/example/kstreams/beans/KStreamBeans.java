@@ -2,9 +2,13 @@ package com.example.kstreams.beans;
 
 import com.example.kstreams.config.KafkaConfigProperties;
 import com.example.kstreams.config.KafkaStreamsOverrideConfigProperties;
-import com.example.kstreams.serialization.JsonSerdes;
-import com.example.kstreams.serialization.ProtobufSerdes;
+import com.example.kstreams.serialization.HttpSchemaRegistryClient;
+import com.example.kstreams.serialization.InMemorySchemaRegistryClient;
+import com.example.kstreams.serialization.SchemaRegistryClient;
+import com.example.kstreams.serialization.SerdeRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import org.apache.kafka.clients.CommonClientConfigs;
@@ -39,6 +43,16 @@ public class KStreamBeans {
    */
   public static final int DEFAULT_KAFKA_STREAMS_PROGRESS_COMMIT_INTERVAL = 5000;
 
+  /**
+   * Timeout of schema registry lookups.
+   */
+  public static final Duration SCHEMA_REGISTRY_TIMEOUT = Duration.ofSeconds(5);
+
+  /**
+   * Schema registry url scheme selecting the in-process registry.
+   */
+  public static final String MOCK_SCHEMA_REGISTRY_SCHEME = "mock://";
+
   /**
    * Bean name
    */
@@ -106,8 +120,6 @@ public class KStreamBeans {
             // In kubernetes, given actuator api moves to unavailable, container will be restarted.
             if (applicationContext.isActive()) {
               log.info("Shutting down application on KStream Error");
-              JsonSerdes.closeAll();
-              ProtobufSerdes.closeAll();
               SpringApplication.exit(applicationContext, () -> 1);
             }
           }
@@ -127,4 +139,37 @@ public class KStreamBeans {
 
     return factoryBean;
   }
+
+  /**
+   * Client of the schema registry, for the registry-aware serdes.
+   * It only connects on a serde cache miss.
+   *
+   * @param kafkaConfigProperties {@link KafkaConfigProperties}
+   * @param objectMapper reads the registry responses
+   * @return bean instance, in-process when the registry url starts with mock://
+   */
+  @Bean
+  public SchemaRegistryClient schemaRegistryClient(final KafkaConfigProperties kafkaConfigProperties, final ObjectMapper objectMapper) {
+    if (kafkaConfigProperties.getSchemaRegistry().startsWith(MOCK_SCHEMA_REGISTRY_SCHEME)) {
+      log.info("Using in-process schema registry {}", kafkaConfigProperties.getSchemaRegistry());
+      return new InMemorySchemaRegistryClient();
+    }
+    return new HttpSchemaRegistryClient(kafkaConfigProperties.getSchemaRegistry(), SCHEMA_REGISTRY_TIMEOUT, objectMapper);
+  }
+
+  /**
+   * Shared serdes, closed by the context on shutdown after the streams have stopped.
+   *
+   * @param meterRegistry Micrometer Meter Registry
+   * @param schemaRegistryClient looks up the schemas of the registry-aware serdes
+   * @param kafkaConfigProperties {@link KafkaConfigProperties}
+   * @return bean instance
+   */
+  @Bean
+  public SerdeRegistry serdeRegistry(
+      final MeterRegistry meterRegistry,
+      final SchemaRegistryClient schemaRegistryClient,
+      final KafkaConfigProperties kafkaConfigProperties) {
+    return new SerdeRegistry(meterRegistry, schemaRegistryClient, kafkaConfigProperties.getSchemaCacheCapacity());
+  }
 }
@@ -23,6 +23,14 @@ public class KafkaConfigProperties {
     this.schemaRegistry = schemaRegistry;
   }
 
+  public int getSchemaCacheCapacity() {
+    return schemaCacheCapacity;
+  }
+
+  public void setSchemaCacheCapacity(final int schemaCacheCapacity) {
+    this.schemaCacheCapacity = schemaCacheCapacity;
+  }
+
   public String getStreamsApplicationId() {
     return streamsApplicationId;
   }
@@ -61,10 +69,15 @@ public class KafkaConfigProperties {
   private String stateDir;
 
   /**
-   * Schema Registry.
+   * Schema Registry. A mock:// url selects an in-process registry, for local runs and tests.
    */
   private String schemaRegistry;
 
+  /**
+   * Number of schema ids whose writer schema is kept by each registry-aware deserializer.
+   */
+  private int schemaCacheCapacity;
+
   /**
    * Identifier for the stream processing application.
    */
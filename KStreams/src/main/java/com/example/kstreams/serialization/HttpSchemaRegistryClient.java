@@ -0,0 +1,78 @@
+package com.example.kstreams.serialization;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.apache.kafka.common.errors.SerializationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Client of a Confluent-compatible schema registry REST API.
+ * Used only on cache misses of the registry-aware serdes, so every call is a plain blocking request.
+ */
+public class HttpSchemaRegistryClient implements SchemaRegistryClient {
+
+  private static final Logger log = LoggerFactory.getLogger(HttpSchemaRegistryClient.class);
+  private static final String CONTENT_TYPE = "application/vnd.schemaregistry.v1+json";
+
+  private final String baseUrl;
+  private final Duration timeout;
+  private final HttpClient httpClient;
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Constructor.
+   *
+   * @param url the registry url, http:// is assumed when there is no scheme
+   * @param timeout the connect and request timeout
+   * @param objectMapper reads the registry responses
+   */
+  public HttpSchemaRegistryClient(final String url, final Duration timeout, final ObjectMapper objectMapper) {
+    final String withScheme = url.contains("://") ? url : "http://" + url;
+    this.baseUrl = withScheme.endsWith("/") ? withScheme.substring(0, withScheme.length() - 1) : withScheme;
+    this.timeout = timeout;
+    this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public RegisteredSchema getLatestSchema(final String subject) {
+    final JsonNode response = this.get("/subjects/" + URLEncoder.encode(subject, StandardCharsets.UTF_8) + "/versions/latest");
+    return new RegisteredSchema(response.path("id").asInt(), response.path("schema").asText());
+  }
+
+  @Override
+  public RegisteredSchema getSchemaById(final int id) {
+    final JsonNode response = this.get("/schemas/ids/" + id);
+    return new RegisteredSchema(id, response.path("schema").asText());
+  }
+
+  private JsonNode get(final String path) {
+    log.info("Schema registry lookup {}", path);
+    final HttpRequest request = HttpRequest.newBuilder(URI.create(this.baseUrl + path))
+        .timeout(this.timeout)
+        .header("Accept", CONTENT_TYPE)
+        .GET()
+        .build();
+    try {
+      final HttpResponse<String> response = this.httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+      if (response.statusCode() != 200) {
+        throw new SerializationException("Schema registry lookup " + path + " failed with " + response.statusCode() + ": " + response.body());
+      }
+      return this.objectMapper.readTree(response.body());
+    } catch (final IOException e) {
+      throw new SerializationException("Schema registry lookup " + path + " failed", e);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SerializationException("Interrupted during schema registry lookup " + path, e);
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package com.example.kstreams.serialization;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.kafka.common.errors.SerializationException;
+
+/**
+ * In-process stand-in for a schema registry, for tests and local runs without a registry.
+ * Registering the same schema text twice returns the same id, as a registry does.
+ */
+public class InMemorySchemaRegistryClient implements SchemaRegistryClient {
+
+  private final Map<Integer, RegisteredSchema> schemasById = new ConcurrentHashMap<>();
+  private final Map<String, Integer> idsBySchema = new ConcurrentHashMap<>();
+  private final Map<String, List<RegisteredSchema>> versionsBySubject = new ConcurrentHashMap<>();
+  private final AtomicInteger nextId = new AtomicInteger(1);
+  private final AtomicInteger lookups = new AtomicInteger();
+
+  /**
+   * Register a schema under a subject, as its latest version.
+   *
+   * @param subject the subject, such as orders-value
+   * @param schema the schema text
+   * @return the schema id
+   */
+  public synchronized int register(final String subject, final String schema) {
+    final int id = this.idsBySchema.computeIfAbsent(schema, text -> {
+      final RegisteredSchema registered = new RegisteredSchema(this.nextId.getAndIncrement(), text);
+      this.schemasById.put(registered.id(), registered);
+      return registered.id();
+    });
+    final List<RegisteredSchema> versions = this.versionsBySubject.computeIfAbsent(subject, name -> new ArrayList<>());
+    if (versions.isEmpty() || versions.get(versions.size() - 1).id() != id) {
+      versions.add(this.schemasById.get(id));
+    }
+    return id;
+  }
+
+  @Override
+  public synchronized RegisteredSchema getLatestSchema(final String subject) {
+    this.lookups.incrementAndGet();
+    final List<RegisteredSchema> versions = this.versionsBySubject.get(subject);
+    if (versions == null || versions.isEmpty()) {
+      throw new SerializationException("Subject not found: " + subject);
+    }
+    return versions.get(versions.size() - 1);
+  }
+
+  @Override
+  public RegisteredSchema getSchemaById(final int id) {
+    this.lookups.incrementAndGet();
+    final RegisteredSchema schema = this.schemasById.get(id);
+    if (schema == null) {
+      throw new SerializationException("Schema not found: " + id);
+    }
+    return schema;
+  }
+
+  /**
+   * Number of lookups served, to check that the serdes cache them.
+   *
+   * @return the lookup count
+   */
+  public int getLookups() {
+    return this.lookups.get();
+  }
+}
@@ -0,0 +1,199 @@
+package com.example.kstreams.serialization;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Serde timing the records through its serializer and deserializer, and counting them, their bytes and their failures.
+ * A failure is an exception, or a deserializer returning null for a record that is not, as
+ * {@link ProtobufDeserializer} does for a record it cannot parse.
+ *
+ * @param <T> the serialized type
+ */
+final class MeteredSerde<T> implements Serde<T> {
+
+  private record Meters(Timer time, Counter records, Counter bytes, Counter errors) {
+  }
+
+  private final Serde<T> serde;
+  private final Serializer<T> serializer;
+  private final Deserializer<T> deserializer;
+
+  /**
+   * Constructor.
+   *
+   * @param serde the serde to meter
+   * @param format the serialization format, such as json
+   * @param type the serialized type
+   * @param meterRegistry records the metrics
+   */
+  MeteredSerde(final Serde<T> serde, final String format, final Class<T> type, final MeterRegistry meterRegistry) {
+    this.serde = serde;
+    this.serializer = new MeteredSerializer<>(serde.serializer(), meters(format, type, "serialize", meterRegistry));
+    this.deserializer = new MeteredDeserializer<>(serde.deserializer(), meters(format, type, "deserialize", meterRegistry));
+  }
+
+  private static Meters meters(final String format, final Class<?> type, final String operation, final MeterRegistry meterRegistry) {
+    return new Meters(
+        Timer.builder("kafka.serde.time")
+            .description("Time to serialize or deserialize a record")
+            .tag("format", format)
+            .tag("type", type.getName())
+            .tag("operation", operation)
+            .register(meterRegistry),
+        Counter.builder("kafka.serde.records")
+            .description("Records through a serde")
+            .tag("format", format)
+            .tag("type", type.getName())
+            .tag("operation", operation)
+            .register(meterRegistry),
+        Counter.builder("kafka.serde.bytes")
+            .description("Serialized bytes through a serde")
+            .baseUnit("bytes")
+            .tag("format", format)
+            .tag("type", type.getName())
+            .tag("operation", operation)
+            .register(meterRegistry),
+        Counter.builder("kafka.serde.errors")
+            .description("Records a serde failed on")
+            .tag("format", format)
+            .tag("type", type.getName())
+            .tag("operation", operation)
+            .register(meterRegistry));
+  }
+
+  @Override
+  public void configure(final Map<String, ?> configs, final boolean isKey) {
+    this.serde.configure(configs, isKey);
+  }
+
+  @Override
+  public void close() {
+    this.serde.close();
+  }
+
+  @Override
+  public Serializer<T> serializer() {
+    return this.serializer;
+  }
+
+  @Override
+  public Deserializer<T> deserializer() {
+    return this.deserializer;
+  }
+
+  private record MeteredSerializer<T>(Serializer<T> serializer, Meters meters) implements Serializer<T> {
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+      this.serializer.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(final String topic, final T data) {
+      return this.serialize(topic, null, data);
+    }
+
+    @Override
+    public byte[] serialize(final String topic, final Headers headers, final T data) {
+      final long start = System.nanoTime();
+      final byte[] bytes;
+      try {
+        bytes = headers == null ? this.serializer.serialize(topic, data) : this.serializer.serialize(topic, headers, data);
+      } catch (final RuntimeException e) {
+        this.meters.errors().increment();
+        throw e;
+      } finally {
+        this.meters.time().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+      this.meters.records().increment();
+      if (bytes != null) {
+        this.meters.bytes().increment(bytes.length);
+      }
+      return bytes;
+    }
+
+    @Override
+    public void close() {
+      this.serializer.close();
+    }
+  }
+
+  private record MeteredDeserializer<T>(Deserializer<T> deserializer, Meters meters) implements Deserializer<T> {
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+      this.deserializer.configure(configs, isKey);
+    }
+
+    @Override
+    public T deserialize(final String topic, final byte[] data) {
+      final long start = System.nanoTime();
+      try {
+        return this.counted(this.deserializer.deserialize(topic, data), data == null ? -1 : data.length);
+      } catch (final RuntimeException e) {
+        this.meters.errors().increment();
+        throw e;
+      } finally {
+        this.meters.time().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+    }
+
+    @Override
+    public T deserialize(final String topic, final Headers headers, final byte[] data) {
+      final long start = System.nanoTime();
+      try {
+        return this.counted(this.deserializer.deserialize(topic, headers, data), data == null ? -1 : data.length);
+      } catch (final RuntimeException e) {
+        this.meters.errors().increment();
+        throw e;
+      } finally {
+        this.meters.time().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+    }
+
+    @Override
+    public T deserialize(final String topic, final Headers headers, final ByteBuffer data) {
+      final int length = data == null ? -1 : data.remaining();
+      final long start = System.nanoTime();
+      try {
+        return this.counted(this.deserializer.deserialize(topic, headers, data), length);
+      } catch (final RuntimeException e) {
+        this.meters.errors().increment();
+        throw e;
+      } finally {
+        this.meters.time().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+    }
+
+    /**
+     * Count a deserialized record.
+     *
+     * @param result the deserialized record
+     * @param length the record length, -1 for a null record
+     * @return the deserialized record
+     */
+    private T counted(final T result, final int length) {
+      if (result == null && length >= 0) {
+        this.meters.errors().increment();
+      } else {
+        this.meters.records().increment();
+        this.meters.bytes().increment(Math.max(length, 0));
+      }
+      return result;
+    }
+
+    @Override
+    public void close() {
+      this.deserializer.close();
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.example.kstreams.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * JSON deserializer bound to one class through an {@link ObjectReader} built once.
+ * The target type is fixed, so type headers are not read, and buffers are parsed without copying.
+ *
+ * @param <T> the deserialized type
+ */
+public class ObjectReaderJsonDeserializer<T> implements Deserializer<T> {
+
+  private final Class<T> theClass;
+  private final ObjectReader reader;
+
+  /**
+   * Constructor.
+   *
+   * @param theClass the deserialized type
+   * @param objectMapper the configured mapper the reader is built from
+   */
+  public ObjectReaderJsonDeserializer(final Class<T> theClass, final ObjectMapper objectMapper) {
+    this.theClass = theClass;
+    this.reader = objectMapper.readerFor(theClass);
+  }
+
+  @Override
+  public T deserialize(final String topic, final byte[] data) {
+    if (data == null) {
+      return null;
+    }
+    try {
+      return this.reader.readValue(data);
+    } catch (final IOException e) {
+      throw new SerializationException("Can't deserialize " + this.theClass.getSimpleName() + " from topic " + topic, e);
+    }
+  }
+
+  @Override
+  public T deserialize(final String topic, final Headers headers, final ByteBuffer data) {
+    if (data == null) {
+      return null;
+    }
+    try {
+      if (data.hasArray()) {
+        return this.reader.readValue(data.array(), data.arrayOffset() + data.position(), data.remaining());
+      }
+      return this.reader.readValue(new ByteBufferBackedInputStream(data.duplicate()));
+    } catch (final IOException e) {
+      throw new SerializationException("Can't deserialize " + this.theClass.getSimpleName() + " from topic " + topic, e);
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.example.kstreams.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+/**
+ * JSON serializer bound to one class through an {@link ObjectWriter} built once.
+ * Records are written into a per-thread {@link ByteArrayBuilder} that is reset and reused, so only the returned
+ * array is allocated per record. As with Spring's {@link JsonSerializer}, the class of each record is added as a
+ * {@code __TypeId__} header, {@code __Key_TypeId__} for keys, unless {@link JsonSerializer#ADD_TYPE_INFO_HEADERS}
+ * is configured false for consumers that do not need it.
+ *
+ * @param <T> the serialized type
+ */
+public class ObjectWriterJsonSerializer<T> implements Serializer<T> {
+
+  private final Class<T> theClass;
+  private final ObjectWriter writer;
+  private final byte[] typeId;
+  private final ThreadLocal<ByteArrayBuilder> builders = ThreadLocal.withInitial(ByteArrayBuilder::new);
+  private boolean addTypeInfo = true;
+  private String typeIdHeader = AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME;
+
+  /**
+   * Constructor.
+   *
+   * @param theClass the serialized type
+   * @param objectMapper the configured mapper the writer is built from
+   */
+  public ObjectWriterJsonSerializer(final Class<T> theClass, final ObjectMapper objectMapper) {
+    this.theClass = theClass;
+    this.writer = objectMapper.writerFor(theClass);
+    this.typeId = theClass.getName().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public void configure(final Map<String, ?> configs, final boolean isKey) {
+    this.typeIdHeader = isKey ? AbstractJavaTypeMapper.KEY_DEFAULT_CLASSID_FIELD_NAME : AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME;
+    final Object addTypeInfo = configs.get(JsonSerializer.ADD_TYPE_INFO_HEADERS);
+    if (addTypeInfo instanceof Boolean bool) {
+      this.addTypeInfo = bool;
+    } else if (addTypeInfo instanceof String string) {
+      this.addTypeInfo = Boolean.parseBoolean(string);
+    } else if (addTypeInfo != null) {
+      throw new IllegalStateException(JsonSerializer.ADD_TYPE_INFO_HEADERS + " must be Boolean or String");
+    }
+  }
+
+  @Override
+  public byte[] serialize(final String topic, final Headers headers, final T data) {
+    if (data != null && this.addTypeInfo && headers != null) {
+      // Replaces the type of a previous serialization of the record, as Spring's type mapper does.
+      headers.remove(this.typeIdHeader);
+      headers.add(this.typeIdHeader,
+          data.getClass() == this.theClass ? this.typeId : data.getClass().getName().getBytes(StandardCharsets.UTF_8));
+    }
+    return this.serialize(topic, data);
+  }
+
+  @Override
+  public byte[] serialize(final String topic, final T data) {
+    if (data == null) {
+      return null;
+    }
+    final ByteArrayBuilder builder = this.builders.get();
+    try (JsonGenerator generator = this.writer.createGenerator(builder)) {
+      this.writer.writeValue(generator, data);
+    } catch (final IOException e) {
+      builder.reset();
+      throw new SerializationException("Can't serialize " + this.theClass.getSimpleName() + " for topic " + topic, e);
+    }
+    final byte[] bytes = builder.toByteArray();
+    builder.reset();
+    return bytes;
+  }
+}
@@ -1,12 +1,24 @@
 package com.example.kstreams.serialization;
 
 import com.google.protobuf.GeneratedMessageV3;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Parser;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import org.apache.kafka.common.header.Headers;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Registry-less protobuf deserializer.
+ * The {@link Parser} of the message type is resolved once, from its default instance, and reused for every record.
+ * Records handed over as a {@link ByteBuffer} are parsed from the buffer without copying.
+ *
+ * @param <T> the protobuf type
+ */
 public class ProtobufDeserializer <T extends GeneratedMessageV3> implements Deserializer<T> {
 
   private static final Logger log = LoggerFactory.getLogger(ProtobufDeserializer.class);
@@ -15,6 +27,11 @@ public class ProtobufDeserializer <T extends GeneratedMessageV3> implements Dese
    */
   private final Class<T> clazzToDecode;
 
+  /**
+   * Parser of T, resolved once.
+   */
+  private final Parser<T> parser;
+
   /**
    * Constructor.
    *
@@ -22,25 +39,69 @@ public class ProtobufDeserializer <T extends GeneratedMessageV3> implements Dese
    */
   public ProtobufDeserializer(final Class<T> clazzToDecode) {
     this.clazzToDecode = clazzToDecode;
+    this.parser = parserFor(clazzToDecode);
   }
 
+  /**
+   * Resolve the parser of a generated message type through its static {@code getDefaultInstance()}.
+   *
+   * @param <T> the protobuf type
+   * @param clazz the generated message class
+   * @return the parser
+   */
+  @SuppressWarnings("unchecked")
+  static <T extends GeneratedMessageV3> Parser<T> parserFor(final Class<T> clazz) {
+    return (Parser<T>) defaultInstance(clazz).getParserForType();
+  }
+
+  /**
+   * Get the default instance of a generated message type.
+   *
+   * @param <T> the protobuf type
+   * @param clazz the generated message class
+   * @return the default instance
+   */
+  @SuppressWarnings("unchecked")
+  static <T extends GeneratedMessageV3> T defaultInstance(final Class<T> clazz) {
+    try {
+      final MethodHandle getDefaultInstance = MethodHandles.publicLookup()
+          .findStatic(clazz, "getDefaultInstance", MethodType.methodType(clazz));
+      return (T) getDefaultInstance.invoke();
+    } catch (final Throwable e) {
+      throw new IllegalArgumentException("Not a generated protobuf message type: " + clazz.getName(), e);
+    }
+  }
 
   @Override
   public T deserialize(final String topic, final byte[] bytes) {
+    if (log.isDebugEnabled()) {
+      log.debug("Registry-less deserializer applied for [topic: {}] with class: {}", topic, this.clazzToDecode.getSimpleName());
+    }
+    if (bytes == null) {
+      return null;
+    }
+    try {
+      return this.parser.parseFrom(bytes);
+    } catch (final InvalidProtocolBufferException e) {
+      log.warn("Failed to parse {} message on [topic: {}]: {}", this.clazzToDecode.getSimpleName(), topic, e.getMessage());
+      return null;
+    }
+  }
+
+  @Override
+  public T deserialize(final String topic, final Headers headers, final ByteBuffer data) {
+    if (log.isDebugEnabled()) {
+      log.debug("Registry-less deserializer applied for [topic: {}] with class: {}", topic, this.clazzToDecode.getSimpleName());
+    }
+    if (data == null) {
+      return null;
+    }
     try {
-      if (log.isDebugEnabled()) {
-        log.debug("Registry-less deserializer applied for [topic: {}] with class: {}", topic, this.clazzToDecode.getSimpleName());
-      }
-      if (bytes == null) {
-        return null;
-      }
-      final Method parseFromMethod = this.clazzToDecode.getMethod("parseFrom", byte[].class);
-      return (T) parseFromMethod.invoke(null, bytes);
-    } catch (final InvocationTargetException e) {
-      log.warn("Failed to parse Metric message as InvocationTargetException occurred");
+      // Parses the remaining bytes in place, without moving the buffer position.
+      return this.parser.parseFrom(data.duplicate());
+    } catch (final InvalidProtocolBufferException e) {
+      log.warn("Failed to parse {} message on [topic: {}]: {}", this.clazzToDecode.getSimpleName(), topic, e.getMessage());
       return null;
-    } catch (final ClassCastException | NoSuchMethodException | SecurityException | IllegalAccessException e) {
-      throw new RuntimeException(e);
     }
   }
 }
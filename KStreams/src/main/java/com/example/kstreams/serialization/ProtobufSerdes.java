@@ -1,18 +1,14 @@
 package com.example.kstreams.serialization;
 
 import com.google.protobuf.GeneratedMessageV3;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serdes;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
-public class ProtobufSerdes {
-
-  private static Logger log = LoggerFactory.getLogger(ProtobufSerdes.class);
-  private static final Map<String, Serde<?>> knownSerdes = new ConcurrentHashMap<>();
-  private static final Map<String, ProtobufDeserializer<?>> knownDeserializers = new ConcurrentHashMap<>();
+/**
+ * Registry-less protobuf serdes.
+ * Every call creates a new instance. Applications get shared and metered serdes from the {@link SerdeRegistry} bean.
+ */
+final class ProtobufSerdes {
 
   /**
    * Avoid instantiation.
@@ -21,28 +17,14 @@ public class ProtobufSerdes {
   }
 
   /**
-   * Get {@link Serde} instance bundled with .
-   * { @param clazz Class to be used with {@link ProtobufDeserializer}
+   * Get a {@link Serde} bundling a {@link ProtobufSerializer} and a {@link ProtobufDeserializer}.
    *
    * @param <T> denotes the protobuf type.
-   * @param clazz clazz
+   * @param clazz Class to be used with {@link ProtobufDeserializer}
    * @return Serde instance
-   * @link com.alertinnovation.awcs.sharedservices.toteinventoryservice.serde.RegistryLessProtobufSerializer } and. {@link ProtobufDeserializer}.
    */
-  @SuppressWarnings("unchecked")
-  public static <T extends GeneratedMessageV3> Serde<T> forClass(final Class<T> clazz) {
-    if (knownSerdes.containsKey(clazz.getName())) {
-      if(log.isInfoEnabled()) {
-        log.info("Found known serdes for {}", clazz.getName());
-      }
-      return (Serde<T>) knownSerdes.get(clazz.getName());
-    }
-
-    final Serde<T> tSerde = Serdes.serdeFrom(
-        new ProtobufSerializer<>(), deserializerFor(clazz)
-    );
-    knownSerdes.put(clazz.getName(), tSerde);
-    return tSerde;
+  static <T extends GeneratedMessageV3> Serde<T> forClass(final Class<T> clazz) {
+    return Serdes.serdeFrom(new ProtobufSerializer<>(), deserializerFor(clazz));
   }
 
   /**
@@ -52,29 +34,7 @@ public class ProtobufSerdes {
    * @param clazz the clazz
    * @return the protobuf deserializer
    */
-  @SuppressWarnings("unchecked")
-  public static <T extends GeneratedMessageV3> ProtobufDeserializer<T> deserializerFor(final Class<T> clazz) {
-    if(knownDeserializers.containsKey(clazz.getName())){
-      if(log.isInfoEnabled()) {
-        log.info("Found known deserializer for {}", clazz.getName());
-      }
-      return (ProtobufDeserializer<T>) knownDeserializers.get(clazz.getName());
-    }
-    final ProtobufDeserializer<T> tProtobufDeserializer = new ProtobufDeserializer<>(clazz);
-    knownDeserializers.put(clazz.getName(), tProtobufDeserializer);
-    return tProtobufDeserializer;
-  }
-
-  /**
-   * Close all.
-   */
-  public static void closeAll() {
-    log.info("Closing serdes objects for {}", knownSerdes.keySet());
-
-    knownSerdes.values().forEach(Serde::close);
-    knownDeserializers.values().forEach(ProtobufDeserializer::close);
-
-    knownDeserializers.clear();
-    knownSerdes.clear();
+  static <T extends GeneratedMessageV3> ProtobufDeserializer<T> deserializerFor(final Class<T> clazz) {
+    return new ProtobufDeserializer<>(clazz);
   }
 }
@@ -1,21 +1,66 @@
 package com.example.kstreams.serialization;
 
+import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.GeneratedMessageV3;
 import com.google.protobuf.TextFormat;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.kafka.common.serialization.Serializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Registry-less protobuf serializer.
+ * Each message is written once into an array of its exact serialized size. The array is handed to the producer,
+ * which keeps it until the record is sent, so it cannot come from a pool.
+ * Serialize time and bytes are recorded by the {@link SerdeRegistry} serde wrapping it. At debug level, one
+ * record in {@link #LOG_SAMPLE_RATE} is logged, and its text form is only rendered when it is.
+ *
+ * @param <T> the protobuf type
+ */
 public class  ProtobufSerializer<T extends GeneratedMessageV3> implements Serializer<T> {
 
   private static final Logger log = LoggerFactory.getLogger(ProtobufSerializer.class);
+
+  /**
+   * One record in this many is logged at debug level.
+   */
+  public static final long LOG_SAMPLE_RATE = 1000;
+
+  /**
+   * Renders a message as text only when the log message is formatted.
+   */
+  private record DebugString(GeneratedMessageV3 message) {
+    @Override
+    public String toString() {
+      return TextFormat.shortDebugString(this.message);
+    }
+  }
+
+  private final AtomicLong records = new AtomicLong();
+
   @Override
   public byte[] serialize(final String s, final T t) {
     if (t == null) {
-      log.warn("Serializing NULL as NULL byte array");
+      if (log.isDebugEnabled()) {
+        log.debug("Serializing NULL as NULL byte array on [topic: {}]", s);
+      }
       return null;
     }
-    log.info("Protobuf Serialization on [topic: {}], [type: {}] \n Data: \n {}", s, t.getClass(), TextFormat.shortDebugString(t));
-    return t.toByteArray();
+    final byte[] bytes = new byte[t.getSerializedSize()];
+    try {
+      final CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+      t.writeTo(output);
+      output.checkNoSpaceLeft();
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Failed to serialize " + t.getClass().getSimpleName(), e);
+    }
+
+    if (log.isDebugEnabled() && this.records.getAndIncrement() % LOG_SAMPLE_RATE == 0) {
+      log.debug("Protobuf Serialization on [topic: {}], [type: {}], [bytes: {}] (1 in {} records) \n Data: \n {}",
+          s, t.getClass(), bytes.length, LOG_SAMPLE_RATE, new DebugString(t));
+    }
+    return bytes;
   }
-}
\ No newline at end of file
+}
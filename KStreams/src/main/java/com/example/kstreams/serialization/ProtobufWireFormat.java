@@ -0,0 +1,164 @@
+package com.example.kstreams.serialization;
+
+import com.google.protobuf.Descriptors;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.utils.ByteUtils;
+
+/**
+ * Schema registry wire format of protobuf records: a zero magic byte, the 4-byte big-endian schema id, the
+ * message indexes locating the message type in the schema, then the message itself.
+ * The message indexes are a zigzag varint count followed by one zigzag varint per nesting level, with the
+ * common case of the first top-level message, [0], written as a single 0.
+ */
+public final class ProtobufWireFormat {
+
+  public static final byte MAGIC_BYTE = 0;
+
+  private static final Pattern TOKENS = Pattern.compile("//[^\\n]*|/\\*.*?\\*/|\"(?:\\\\.|[^\"\\\\])*\"|[{};]|[A-Za-z_][\\w.]*", Pattern.DOTALL);
+  private static final List<Integer> FIRST_MESSAGE = List.of(0);
+
+  /**
+   * Avoid instantiation.
+   */
+  private ProtobufWireFormat() {
+  }
+
+  /**
+   * Write the header preceding a message.
+   *
+   * @param schemaId the schema id
+   * @param messageIndexes the path of the message type in the schema
+   * @return the header
+   */
+  public static byte[] header(final int schemaId, final List<Integer> messageIndexes) {
+    final List<Integer> indexes = FIRST_MESSAGE.equals(messageIndexes) ? List.of() : messageIndexes;
+    int size = 1 + Integer.BYTES + ByteUtils.sizeOfVarint(indexes.size());
+    for (final int index : indexes) {
+      size += ByteUtils.sizeOfVarint(index);
+    }
+    final ByteBuffer buffer = ByteBuffer.allocate(size);
+    buffer.put(MAGIC_BYTE);
+    buffer.putInt(schemaId);
+    ByteUtils.writeVarint(indexes.size(), buffer);
+    indexes.forEach(index -> ByteUtils.writeVarint(index, buffer));
+    return buffer.array();
+  }
+
+  /**
+   * Read the schema id, advancing the buffer past the magic byte and the id.
+   *
+   * @param buffer a record, positioned at its start
+   * @return the schema id
+   */
+  public static int readSchemaId(final ByteBuffer buffer) {
+    if (buffer.remaining() < 1 + Integer.BYTES) {
+      throw new SerializationException("Record of " + buffer.remaining() + " bytes is too short for the schema registry wire format");
+    }
+    final byte magic = buffer.get();
+    if (magic != MAGIC_BYTE) {
+      throw new SerializationException("Unknown magic byte " + magic);
+    }
+    return buffer.getInt();
+  }
+
+  /**
+   * Read the message indexes, advancing the buffer to the message.
+   *
+   * @param buffer a record, positioned after the schema id
+   * @return the path of the message type in the schema
+   */
+  public static List<Integer> readMessageIndexes(final ByteBuffer buffer) {
+    final int count = ByteUtils.readVarint(buffer);
+    if (count == 0) {
+      return FIRST_MESSAGE;
+    }
+    if (count < 0 || count > buffer.remaining()) {
+      throw new SerializationException("Invalid message index count " + count);
+    }
+    final List<Integer> indexes = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      indexes.add(ByteUtils.readVarint(buffer));
+    }
+    return indexes;
+  }
+
+  /**
+   * Locate a message type in a .proto schema.
+   *
+   * @param schema the schema text
+   * @param descriptor the message type
+   * @return the message indexes of the type
+   * @throws SerializationException if the schema does not declare the type
+   */
+  public static List<Integer> messageIndexes(final String schema, final Descriptors.Descriptor descriptor) {
+    final String packageName = descriptor.getFile().getPackage();
+    final String name = packageName.isEmpty() ? descriptor.getFullName() : descriptor.getFullName().substring(packageName.length() + 1);
+    final List<Integer> indexes = messageIndexes(schema).get(name);
+    if (indexes == null) {
+      throw new SerializationException("Schema does not declare message " + descriptor.getFullName());
+    }
+    return indexes;
+  }
+
+  /**
+   * A brace-delimited block of a schema: the file itself, a message, or a block that cannot declare messages
+   * such as an enum, oneof or service.
+   */
+  private static final class Block {
+    private final String name;
+    private final List<Integer> path;
+    private final boolean declaresMessages;
+    private int messages;
+
+    private Block(final String name, final List<Integer> path, final boolean declaresMessages) {
+      this.name = name;
+      this.path = path;
+      this.declaresMessages = declaresMessages;
+    }
+  }
+
+  /**
+   * Message indexes of every message declared in a .proto schema, by name relative to the package.
+   * Only the structure is read: message declarations and the nesting of braces.
+   */
+  private static Map<String, List<Integer>> messageIndexes(final String schema) {
+    final Map<String, List<Integer>> indexes = new HashMap<>();
+    final Deque<Block> blocks = new ArrayDeque<>();
+    blocks.push(new Block(null, List.of(), true));
+    final Matcher matcher = TOKENS.matcher(schema);
+    String previous = null;
+    String beforePrevious = null;
+    while (matcher.find()) {
+      final String token = matcher.group();
+      if (token.startsWith("//") || token.startsWith("/*") || token.startsWith("\"")) {
+        continue;
+      }
+      final Block block = blocks.peek();
+      if ("{".equals(token)) {
+        if ("message".equals(beforePrevious) && block.declaresMessages) {
+          final List<Integer> path = new ArrayList<>(block.path);
+          path.add(block.messages++);
+          final String name = block.name == null ? previous : block.name + "." + previous;
+          indexes.put(name, List.copyOf(path));
+          blocks.push(new Block(name, path, true));
+        } else {
+          blocks.push(new Block(block.name, block.path, false));
+        }
+      } else if ("}".equals(token) && blocks.size() > 1) {
+        blocks.pop();
+      }
+      beforePrevious = previous;
+      previous = token;
+    }
+    return indexes;
+  }
+}
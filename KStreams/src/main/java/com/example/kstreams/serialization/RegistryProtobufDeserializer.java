@@ -0,0 +1,108 @@
+package com.example.kstreams.serialization;
+
+import com.google.protobuf.GeneratedMessageV3;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Parser;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Protobuf deserializer reading the schema registry wire format.
+ * Records may be written with any schema version that declares the message type: protobuf reads older and newer
+ * versions of a message with the same parser. The writer schema of each schema id is looked up once, on the first
+ * record that carries it, to find where it declares the message type, and kept in a bounded cache.
+ * Records of another message type are rejected.
+ *
+ * @param <T> the protobuf type
+ */
+public class RegistryProtobufDeserializer<T extends GeneratedMessageV3> implements Deserializer<T> {
+
+  private static final Logger log = LoggerFactory.getLogger(RegistryProtobufDeserializer.class);
+
+  public static final int DEFAULT_CACHE_CAPACITY = 1000;
+
+  private final Class<T> clazz;
+  private final Parser<T> parser;
+  private final SchemaRegistryClient registryClient;
+  private final int cacheCapacity;
+  private final Map<Integer, List<Integer>> messageIndexesBySchemaId = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param clazz the protobuf type
+   * @param registryClient looks up the writer schemas
+   * @param cacheCapacity the number of schema ids kept
+   */
+  public RegistryProtobufDeserializer(final Class<T> clazz, final SchemaRegistryClient registryClient, final int cacheCapacity) {
+    this.clazz = clazz;
+    this.parser = ProtobufDeserializer.parserFor(clazz);
+    this.registryClient = registryClient;
+    this.cacheCapacity = cacheCapacity > 0 ? cacheCapacity : DEFAULT_CACHE_CAPACITY;
+  }
+
+  @Override
+  public T deserialize(final String topic, final byte[] bytes) {
+    return bytes == null ? null : this.deserialize(topic, ByteBuffer.wrap(bytes));
+  }
+
+  @Override
+  public T deserialize(final String topic, final Headers headers, final ByteBuffer data) {
+    return data == null ? null : this.deserialize(topic, data.duplicate());
+  }
+
+  private T deserialize(final String topic, final ByteBuffer buffer) {
+    final int schemaId = ProtobufWireFormat.readSchemaId(buffer);
+    final List<Integer> messageIndexes = ProtobufWireFormat.readMessageIndexes(buffer);
+    final List<Integer> expected = this.messageIndexes(schemaId);
+    if (!expected.equals(messageIndexes)) {
+      throw new SerializationException("Record on [topic: " + topic + "] with schema " + schemaId
+          + " is not a " + this.clazz.getSimpleName() + ", its message indexes are " + messageIndexes);
+    }
+    try {
+      return this.parser.parseFrom(buffer);
+    } catch (final InvalidProtocolBufferException e) {
+      throw new SerializationException("Failed to parse " + this.clazz.getSimpleName() + " on [topic: " + topic + "]", e);
+    }
+  }
+
+  private List<Integer> messageIndexes(final int schemaId) {
+    final List<Integer> cached = this.messageIndexesBySchemaId.get(schemaId);
+    if (cached != null) {
+      return cached;
+    }
+    final SchemaRegistryClient.RegisteredSchema schema = this.registryClient.getSchemaById(schemaId);
+    List<Integer> messageIndexes;
+    try {
+      messageIndexes = ProtobufWireFormat.messageIndexes(
+          schema.schema(), ProtobufDeserializer.defaultInstance(this.clazz).getDescriptorForType());
+      log.info("Deserializing {} with schema {}", this.clazz.getSimpleName(), schemaId);
+    } catch (final SerializationException e) {
+      // Cached as no indexes, so records of a schema without the type are rejected without another lookup.
+      log.warn("Schema {} does not declare {}", schemaId, this.clazz.getSimpleName());
+      messageIndexes = List.of();
+    }
+    this.evictIfFull();
+    this.messageIndexesBySchemaId.put(schemaId, messageIndexes);
+    return messageIndexes;
+  }
+
+  /**
+   * Make room for a schema id. Writers move to new schema versions over time, so any entry will do.
+   */
+  private void evictIfFull() {
+    final Iterator<Integer> schemaIds = this.messageIndexesBySchemaId.keySet().iterator();
+    while (this.messageIndexesBySchemaId.size() >= this.cacheCapacity && schemaIds.hasNext()) {
+      schemaIds.next();
+      schemaIds.remove();
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.example.kstreams.serialization;
+
+import com.google.protobuf.GeneratedMessageV3;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+
+/**
+ * Schema registry aware protobuf serdes, the counterpart of the registry-less {@link ProtobufSerdes}.
+ * Records carry the schema id of their writer, so services can evolve a schema independently, and the registry
+ * is only called on the first record of each topic or schema id.
+ * Every call creates a new instance. Applications get shared and metered serdes from the {@link SerdeRegistry} bean.
+ */
+final class RegistryProtobufSerdes {
+
+  /**
+   * Avoid instantiation.
+   */
+  private RegistryProtobufSerdes() {
+  }
+
+  /**
+   * Get a {@link Serde} bundling a {@link RegistryProtobufSerializer} and a {@link RegistryProtobufDeserializer}.
+   *
+   * @param <T> denotes the protobuf type.
+   * @param clazz the protobuf type
+   * @param registryClient looks up the schemas
+   * @param cacheCapacity the number of schema ids kept by the deserializer
+   * @return Serde instance
+   */
+  static <T extends GeneratedMessageV3> Serde<T> forClass(
+      final Class<T> clazz,
+      final SchemaRegistryClient registryClient,
+      final int cacheCapacity) {
+    return Serdes.serdeFrom(
+        new RegistryProtobufSerializer<>(clazz, registryClient),
+        new RegistryProtobufDeserializer<>(clazz, registryClient, cacheCapacity));
+  }
+}
@@ -0,0 +1,74 @@
+package com.example.kstreams.serialization;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.GeneratedMessageV3;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.kafka.common.serialization.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Protobuf serializer writing the schema registry wire format.
+ * The schema of a record is the latest schema registered under the topic's subject, {@code <topic>-value} or
+ * {@code <topic>-key}. It is looked up on the first record of each topic and the header is reused afterwards,
+ * so the registry is not called per record. Schemas are registered by the owning service's build, not here.
+ *
+ * @param <T> the protobuf type
+ */
+public class RegistryProtobufSerializer<T extends GeneratedMessageV3> implements Serializer<T> {
+
+  private static final Logger log = LoggerFactory.getLogger(RegistryProtobufSerializer.class);
+
+  private final Class<T> clazz;
+  private final SchemaRegistryClient registryClient;
+  private final Map<String, byte[]> headersByTopic = new ConcurrentHashMap<>();
+  private boolean isKey;
+
+  /**
+   * Constructor.
+   *
+   * @param clazz the protobuf type
+   * @param registryClient looks up the schemas
+   */
+  public RegistryProtobufSerializer(final Class<T> clazz, final SchemaRegistryClient registryClient) {
+    this.clazz = clazz;
+    this.registryClient = registryClient;
+  }
+
+  @Override
+  public void configure(final Map<String, ?> configs, final boolean isKey) {
+    this.isKey = isKey;
+  }
+
+  @Override
+  public byte[] serialize(final String topic, final T t) {
+    if (t == null) {
+      return null;
+    }
+    final byte[] header = this.headersByTopic.computeIfAbsent(topic, this::header);
+    final int size = t.getSerializedSize();
+    final byte[] bytes = new byte[header.length + size];
+    System.arraycopy(header, 0, bytes, 0, header.length);
+    try {
+      final CodedOutputStream output = CodedOutputStream.newInstance(bytes, header.length, size);
+      t.writeTo(output);
+      output.checkNoSpaceLeft();
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Failed to serialize " + this.clazz.getSimpleName(), e);
+    }
+    return bytes;
+  }
+
+  private byte[] header(final String topic) {
+    final String subject = topic + (this.isKey ? "-key" : "-value");
+    final SchemaRegistryClient.RegisteredSchema schema = this.registryClient.getLatestSchema(subject);
+    final byte[] header = ProtobufWireFormat.header(
+        schema.id(),
+        ProtobufWireFormat.messageIndexes(schema.schema(), ProtobufDeserializer.defaultInstance(this.clazz).getDescriptorForType()));
+    log.info("Serializing {} on [topic: {}] with schema {} of subject {}", this.clazz.getSimpleName(), topic, schema.id(), subject);
+    return header;
+  }
+}
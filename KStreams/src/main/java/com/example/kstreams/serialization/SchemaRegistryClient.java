@@ -0,0 +1,34 @@
+package com.example.kstreams.serialization;
+
+/**
+ * Lookups against a schema registry, as used by the registry-aware serdes.
+ */
+public interface SchemaRegistryClient {
+
+  /**
+   * A registered schema.
+   *
+   * @param id the registry-wide schema id
+   * @param schema the schema text, such as a .proto file
+   */
+  record RegisteredSchema(int id, String schema) {
+  }
+
+  /**
+   * Get the latest schema registered under a subject.
+   *
+   * @param subject the subject, such as orders-value
+   * @return the schema
+   * @throws org.apache.kafka.common.errors.SerializationException if there is none or the registry fails
+   */
+  RegisteredSchema getLatestSchema(String subject);
+
+  /**
+   * Get a schema by id.
+   *
+   * @param id the schema id
+   * @return the schema
+   * @throws org.apache.kafka.common.errors.SerializationException if there is none or the registry fails
+   */
+  RegisteredSchema getSchemaById(int id);
+}
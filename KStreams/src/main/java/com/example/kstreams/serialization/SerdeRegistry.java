@@ -0,0 +1,129 @@
+package com.example.kstreams.serialization;
+
+import com.google.protobuf.GeneratedMessageV3;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shared serdes of the application, one per format and class.
+ * A serde is created on first use, exactly once even when it is first used concurrently, and kept until the
+ * registry is closed with the application. Every serde times its records and counts them, their bytes and its
+ * failures, tagged with its format, type and operation.
+ */
+public class SerdeRegistry implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(SerdeRegistry.class);
+
+  private final MeterRegistry meterRegistry;
+  private final SchemaRegistryClient schemaRegistryClient;
+  private final int schemaCacheCapacity;
+  private final Map<Class<?>, Serde<?>> jsonSerdes = new ConcurrentHashMap<>();
+  private final Map<Class<?>, Serde<?>> protobufSerdes = new ConcurrentHashMap<>();
+  private final Map<Class<?>, Serde<?>> registryProtobufSerdes = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param meterRegistry records the serde metrics
+   * @param schemaRegistryClient looks up the schemas of the registry-aware serdes
+   * @param schemaCacheCapacity the number of schema ids kept by each registry-aware deserializer
+   */
+  public SerdeRegistry(
+      final MeterRegistry meterRegistry,
+      final SchemaRegistryClient schemaRegistryClient,
+      final int schemaCacheCapacity) {
+    this.meterRegistry = meterRegistry;
+    this.schemaRegistryClient = schemaRegistryClient;
+    this.schemaCacheCapacity = schemaCacheCapacity;
+  }
+
+  /**
+   * Shared json serde for a class.
+   *
+   * @param <T> the type parameter
+   * @param theClass the class
+   * @return serde instance
+   */
+  @SuppressWarnings("unchecked")
+  public <T> Serde<T> json(final Class<T> theClass) {
+    return (Serde<T>) this.jsonSerdes.computeIfAbsent(theClass,
+        key -> new MeteredSerde<>(JsonSerdes.forClass(theClass), "json", theClass, this.meterRegistry));
+  }
+
+  /**
+   * Deserializer of the shared json serde for a class.
+   *
+   * @param <T> the type parameter
+   * @param theClass the class
+   * @return the json deserializer
+   */
+  public <T> Deserializer<T> jsonDeserializer(final Class<T> theClass) {
+    return this.json(theClass).deserializer();
+  }
+
+  /**
+   * Shared registry-less protobuf serde for a class.
+   *
+   * @param <T> denotes the protobuf type.
+   * @param clazz the protobuf type
+   * @return serde instance
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends GeneratedMessageV3> Serde<T> protobuf(final Class<T> clazz) {
+    return (Serde<T>) this.protobufSerdes.computeIfAbsent(clazz,
+        key -> new MeteredSerde<>(ProtobufSerdes.forClass(clazz), "protobuf", clazz, this.meterRegistry));
+  }
+
+  /**
+   * Deserializer of the shared registry-less protobuf serde for a class.
+   *
+   * @param <T> denotes the protobuf type.
+   * @param clazz the protobuf type
+   * @return the protobuf deserializer
+   */
+  public <T extends GeneratedMessageV3> Deserializer<T> protobufDeserializer(final Class<T> clazz) {
+    return this.protobuf(clazz).deserializer();
+  }
+
+  /**
+   * Shared schema registry aware protobuf serde for a class.
+   *
+   * @param <T> denotes the protobuf type.
+   * @param clazz the protobuf type
+   * @return serde instance
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends GeneratedMessageV3> Serde<T> registryProtobuf(final Class<T> clazz) {
+    return (Serde<T>) this.registryProtobufSerdes.computeIfAbsent(clazz,
+        key -> new MeteredSerde<>(RegistryProtobufSerdes.forClass(clazz, this.schemaRegistryClient, this.schemaCacheCapacity),
+            "registry-protobuf", clazz, this.meterRegistry));
+  }
+
+  /**
+   * Close and forget every serde.
+   */
+  @Override
+  public void close() {
+    log.info("Closing serdes objects for {}, {} and {}",
+        this.jsonSerdes.keySet(), this.protobufSerdes.keySet(), this.registryProtobufSerdes.keySet());
+    close(this.jsonSerdes);
+    close(this.protobufSerdes);
+    close(this.registryProtobufSerdes);
+  }
+
+  private static void close(final Map<Class<?>, Serde<?>> serdes) {
+    serdes.keySet().forEach(key -> serdes.computeIfPresent(key, (type, serde) -> {
+      try {
+        serde.close();
+      } catch (final RuntimeException e) {
+        log.warn("Failed to close serde of {}", type.getName(), e);
+      }
+      return null;
+    }));
+  }
+}
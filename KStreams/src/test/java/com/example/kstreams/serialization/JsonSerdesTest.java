@@ -0,0 +1,90 @@
+package com.example.kstreams.serialization;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Serde;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+public class JsonSerdesTest {
+
+  /**
+   * A typical metric record.
+   */
+  public record Metric(String name, Instant timestamp, double value, List<String> tags, Map<String, Long> counts) {
+  }
+
+  private static final Metric METRIC = new Metric("requests.latency", Instant.parse("2026-10-18T12:00:00Z"), 12.75,
+      List.of("region:eu-west-1", "service:orders"), Map.of("count", 1_024L));
+
+  private static List<String> headers(final Headers headers) {
+    return Arrays.stream(headers.toArray()).map(header -> header.key() + "=" + new String(header.value())).toList();
+  }
+
+  /**
+   * Records and type headers are the ones Spring's serializer writes, for values, keys, and with type headers off.
+   */
+  @Test
+  void jsonSerdeMatchesSpringSerializerTest() {
+    final List<Map<String, ?>> configs = List.of(Map.of(), Map.of(JsonSerializer.ADD_TYPE_INFO_HEADERS, false),
+        Map.of(JsonSerializer.ADD_TYPE_INFO_HEADERS, "false"), Map.of(JsonSerializer.ADD_TYPE_INFO_HEADERS, true));
+    for (final boolean isKey : List.of(false, true)) {
+      for (final Map<String, ?> config : configs) {
+        final Serde<Metric> serde = JsonSerdes.forClass(Metric.class);
+        serde.configure(config, isKey);
+        final JsonSerializer<Metric> spring = new JsonSerializer<>();
+        spring.configure(config, isKey);
+        final Headers headers = new RecordHeaders();
+        final Headers springHeaders = new RecordHeaders();
+
+        final byte[] bytes = serde.serializer().serialize("metrics", headers, METRIC);
+        Assertions.assertArrayEquals(spring.serialize("metrics", springHeaders, METRIC), bytes);
+        Assertions.assertEquals(headers(springHeaders), headers(headers), "key " + isKey + " with " + config);
+        serde.serializer().serialize("metrics", headers, METRIC);
+        Assertions.assertEquals(headers(springHeaders), headers(headers));
+      }
+    }
+
+    final Headers headers = new RecordHeaders();
+    JsonSerdes.forClass(Metric.class).serializer().serialize("metrics", headers, METRIC);
+    final Header typeId = headers.lastHeader("__TypeId__");
+    Assertions.assertNotNull(typeId);
+    Assertions.assertEquals(Metric.class.getName(), new String(typeId.value()));
+  }
+
+  /**
+   * Each side reads the records of the other, from arrays and buffers.
+   */
+  @Test
+  void jsonSerdeReadsSpringRecordsTest() {
+    final Serde<Metric> serde = JsonSerdes.forClass(Metric.class);
+    final Headers headers = new RecordHeaders();
+    final byte[] spring = new JsonSerializer<Metric>().serialize("metrics", headers, METRIC);
+    final byte[] bytes = serde.serializer().serialize("metrics", METRIC);
+
+    Assertions.assertEquals(METRIC, serde.deserializer().deserialize("metrics", headers, spring));
+    try (JsonDeserializer<Metric> springDeserializer = new JsonDeserializer<>(Metric.class)) {
+      Assertions.assertEquals(METRIC, springDeserializer.deserialize("metrics", bytes));
+    }
+
+    final ByteBuffer heap = ByteBuffer.allocate(bytes.length + 2).put((byte) 1).put(bytes).put((byte) 1).position(1).limit(bytes.length + 1);
+    Assertions.assertEquals(METRIC, serde.deserializer().deserialize("metrics", headers, heap));
+    Assertions.assertEquals(1, heap.position());
+    final ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    Assertions.assertEquals(METRIC, serde.deserializer().deserialize("metrics", headers, direct));
+    Assertions.assertEquals(0, direct.position());
+
+    Assertions.assertNull(serde.serializer().serialize("metrics", null));
+    Assertions.assertNull(serde.deserializer().deserialize("metrics", null));
+    Assertions.assertThrows(SerializationException.class, () -> serde.deserializer().deserialize("metrics", "{\"name\":".getBytes()));
+  }
+}
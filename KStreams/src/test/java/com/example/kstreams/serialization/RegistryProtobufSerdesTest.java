@@ -0,0 +1,239 @@
+package com.example.kstreams.serialization;
+
+import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Serde;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class RegistryProtobufSerdesTest {
+
+  /**
+   * The messages of struct.proto, as a registry would hold them.
+   */
+  private static final String STRUCT_SCHEMA = """
+      syntax = "proto3";
+      package google.protobuf;
+
+      message Struct {
+        map<string, Value> fields = 1;
+      }
+
+      message Value {
+        oneof kind {
+          NullValue null_value = 1;
+          double number_value = 2;
+          string string_value = 3;
+          bool bool_value = 4;
+          Struct struct_value = 5;
+          ListValue list_value = 6;
+        }
+      }
+
+      enum NullValue {
+        NULL_VALUE = 0;
+      }
+
+      message ListValue {
+        repeated Value values = 1;
+      }
+      """;
+
+  /**
+   * The layout of descriptor.proto, with enums, oneofs, comments and strings mentioning messages in between.
+   */
+  private static final String DESCRIPTOR_SCHEMA = """
+      syntax = "proto2";
+      package google.protobuf;
+
+      // message Commented { }
+      /* message AlsoCommented {
+           message Nested { }
+         } */
+      message FileDescriptorSet {
+        repeated FileDescriptorProto file = 1;
+      }
+
+      enum Unrelated {
+        UNRELATED_UNKNOWN = 0;
+      }
+
+      message FileDescriptorProto {
+        optional string name = 1 [default = "message Fake {"];
+        oneof choice {
+          string first = 20;
+          string second = 21;
+        }
+      }
+
+      message DescriptorProto {
+        enum Kind {
+          KIND_UNKNOWN = 0;
+        }
+        message ExtensionRange {
+          optional int32 start = 1;
+        }
+        oneof body {
+          string body = 30;
+        }
+        message ReservedRange {
+          optional int32 start = 1;
+        }
+      }
+
+      service Descriptors {
+        rpc Describe (FileDescriptorSet) returns (FileDescriptorProto) {
+          option deprecated = true;
+        }
+      }
+
+      message FieldDescriptorProto {
+      }
+      """;
+
+  private static Struct struct(final String key, final String value) {
+    return Struct.newBuilder().putFields(key, Value.newBuilder().setStringValue(value).build()).build();
+  }
+
+  /**
+   * Records carry the wire format header and read back as written, from arrays and buffers.
+   */
+  @Test
+  void registryProtobufRoundTripTest() {
+    final InMemorySchemaRegistryClient registryClient = new InMemorySchemaRegistryClient();
+    final int schemaId = registryClient.register("orders-value", STRUCT_SCHEMA);
+    final Serde<Struct> structSerde = RegistryProtobufSerdes.forClass(Struct.class, registryClient, 10);
+    final Serde<ListValue> listSerde = RegistryProtobufSerdes.forClass(ListValue.class, registryClient, 10);
+    final Struct struct = struct("id", "42");
+    final ListValue list = ListValue.newBuilder().addValues(Value.newBuilder().setNumberValue(1.5)).build();
+
+    final byte[] structBytes = structSerde.serializer().serialize("orders", struct);
+    final ByteBuffer structHeader = ByteBuffer.wrap(structBytes);
+    Assertions.assertEquals(schemaId, ProtobufWireFormat.readSchemaId(structHeader));
+    Assertions.assertEquals(0, structHeader.get());
+    Assertions.assertEquals(struct, structSerde.deserializer().deserialize("orders", structBytes));
+    Assertions.assertEquals(struct, structSerde.deserializer().deserialize("orders", new RecordHeaders(), ByteBuffer.wrap(structBytes)));
+
+    final byte[] listBytes = listSerde.serializer().serialize("orders", list);
+    final ByteBuffer listHeader = ByteBuffer.wrap(listBytes);
+    Assertions.assertEquals(schemaId, ProtobufWireFormat.readSchemaId(listHeader));
+    Assertions.assertEquals(List.of(2), ProtobufWireFormat.readMessageIndexes(listHeader));
+    Assertions.assertEquals(list, listSerde.deserializer().deserialize("orders", listBytes));
+
+    Assertions.assertNull(structSerde.serializer().serialize("orders", null));
+    Assertions.assertNull(structSerde.deserializer().deserialize("orders", null));
+  }
+
+  /**
+   * The registry is called once per topic by the serializer and once per schema id by the deserializer.
+   */
+  @Test
+  void registryProtobufLookupCachingTest() {
+    final InMemorySchemaRegistryClient registryClient = new InMemorySchemaRegistryClient();
+    registryClient.register("orders-value", STRUCT_SCHEMA);
+    registryClient.register("payments-value", STRUCT_SCHEMA);
+    final Serde<Struct> serde = RegistryProtobufSerdes.forClass(Struct.class, registryClient, 10);
+
+    final byte[] orders = serde.serializer().serialize("orders", struct("id", "1"));
+    serde.serializer().serialize("orders", struct("id", "2"));
+    Assertions.assertEquals(1, registryClient.getLookups());
+    final byte[] payments = serde.serializer().serialize("payments", struct("id", "3"));
+    Assertions.assertEquals(2, registryClient.getLookups());
+
+    for (int record = 0; record < 3; record++) {
+      serde.deserializer().deserialize("orders", orders);
+      serde.deserializer().deserialize("payments", payments);
+    }
+    Assertions.assertEquals(3, registryClient.getLookups());
+  }
+
+  /**
+   * Records of another message type, of a schema without the type, or without the magic byte are rejected.
+   */
+  @Test
+  void registryProtobufRejectionTest() {
+    final InMemorySchemaRegistryClient registryClient = new InMemorySchemaRegistryClient();
+    registryClient.register("orders-value", STRUCT_SCHEMA);
+    registryClient.register("descriptors-value", DESCRIPTOR_SCHEMA);
+    final Serde<Struct> structSerde = RegistryProtobufSerdes.forClass(Struct.class, registryClient, 10);
+    final Serde<ListValue> listSerde = RegistryProtobufSerdes.forClass(ListValue.class, registryClient, 10);
+    final Serde<DescriptorProtos.FileDescriptorProto> descriptorSerde =
+        RegistryProtobufSerdes.forClass(DescriptorProtos.FileDescriptorProto.class, registryClient, 10);
+
+    final byte[] list = listSerde.serializer().serialize("orders", ListValue.getDefaultInstance());
+    Assertions.assertThrows(SerializationException.class, () -> structSerde.deserializer().deserialize("orders", list));
+
+    final byte[] descriptor = descriptorSerde.serializer().serialize("descriptors",
+        DescriptorProtos.FileDescriptorProto.newBuilder().setName("orders.proto").build());
+    Assertions.assertThrows(SerializationException.class, () -> structSerde.deserializer().deserialize("descriptors", descriptor));
+    final int lookups = registryClient.getLookups();
+    Assertions.assertThrows(SerializationException.class, () -> structSerde.deserializer().deserialize("descriptors", descriptor));
+    Assertions.assertEquals(lookups, registryClient.getLookups());
+
+    final byte[] badMagic = structSerde.serializer().serialize("orders", struct("id", "1"));
+    badMagic[0] = 1;
+    Assertions.assertThrows(SerializationException.class, () -> structSerde.deserializer().deserialize("orders", badMagic));
+    Assertions.assertThrows(SerializationException.class, () -> structSerde.deserializer().deserialize("orders", new byte[] {0, 0}));
+    Assertions.assertThrows(SerializationException.class, () -> structSerde.serializer().serialize("unregistered", struct("id", "1")));
+  }
+
+  /**
+   * Once the cache is full, schema ids are evicted and looked up again on their next record.
+   */
+  @Test
+  void registryProtobufCacheEvictionTest() {
+    final InMemorySchemaRegistryClient registryClient = new InMemorySchemaRegistryClient();
+    final List<String> topics = List.of("orders", "payments", "refunds");
+    for (final String topic : topics) {
+      registryClient.register(topic + "-value", "// " + topic + "\n" + STRUCT_SCHEMA);
+    }
+    final Serde<Struct> serde = RegistryProtobufSerdes.forClass(Struct.class, registryClient, 3);
+    final List<byte[]> records = topics.stream().map(topic -> serde.serializer().serialize(topic, struct("topic", topic))).toList();
+    final Serde<Struct> fitting = RegistryProtobufSerdes.forClass(Struct.class, registryClient, 3);
+    final Serde<Struct> evicting = RegistryProtobufSerdes.forClass(Struct.class, registryClient, 2);
+
+    int lookups = registryClient.getLookups();
+    for (int pass = 0; pass < 2; pass++) {
+      records.forEach(record -> fitting.deserializer().deserialize("any", record));
+    }
+    Assertions.assertEquals(lookups + 3, registryClient.getLookups());
+
+    lookups = registryClient.getLookups();
+    for (int pass = 0; pass < 2; pass++) {
+      records.forEach(record -> evicting.deserializer().deserialize("any", record));
+    }
+    Assertions.assertTrue(registryClient.getLookups() > lookups + 3);
+  }
+
+  /**
+   * Message indexes follow the nesting of messages only, past enums, oneofs, services, comments and strings.
+   */
+  @Test
+  void protobufWireFormatMessageIndexesTest() {
+    Assertions.assertEquals(List.of(0), ProtobufWireFormat.messageIndexes(STRUCT_SCHEMA, Struct.getDescriptor()));
+    Assertions.assertEquals(List.of(1), ProtobufWireFormat.messageIndexes(STRUCT_SCHEMA, Value.getDescriptor()));
+    Assertions.assertEquals(List.of(2), ProtobufWireFormat.messageIndexes(STRUCT_SCHEMA, ListValue.getDescriptor()));
+
+    Assertions.assertEquals(List.of(1),
+        ProtobufWireFormat.messageIndexes(DESCRIPTOR_SCHEMA, DescriptorProtos.FileDescriptorProto.getDescriptor()));
+    Assertions.assertEquals(List.of(2),
+        ProtobufWireFormat.messageIndexes(DESCRIPTOR_SCHEMA, DescriptorProtos.DescriptorProto.getDescriptor()));
+    Assertions.assertEquals(List.of(2, 0),
+        ProtobufWireFormat.messageIndexes(DESCRIPTOR_SCHEMA, DescriptorProtos.DescriptorProto.ExtensionRange.getDescriptor()));
+    Assertions.assertEquals(List.of(2, 1),
+        ProtobufWireFormat.messageIndexes(DESCRIPTOR_SCHEMA, DescriptorProtos.DescriptorProto.ReservedRange.getDescriptor()));
+    Assertions.assertEquals(List.of(3),
+        ProtobufWireFormat.messageIndexes(DESCRIPTOR_SCHEMA, DescriptorProtos.FieldDescriptorProto.getDescriptor()));
+    Assertions.assertThrows(SerializationException.class,
+        () -> ProtobufWireFormat.messageIndexes(DESCRIPTOR_SCHEMA, Struct.getDescriptor()));
+
+    Assertions.assertArrayEquals(new byte[] {0, 0, 0, 0, 7, 0}, ProtobufWireFormat.header(7, List.of(0)));
+    Assertions.assertArrayEquals(new byte[] {0, 0, 0, 0, 7, 4, 4, 2}, ProtobufWireFormat.header(7, List.of(2, 1)));
+  }
+}
@@ -0,0 +1,141 @@
+package com.example.kstreams.serialization;
+
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serde;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+public class SerdeRegistryTest {
+
+  private static final String STRUCT_SCHEMA = """
+      syntax = "proto3";
+      package google.protobuf;
+      message Struct {
+        map<string, Value> fields = 1;
+      }
+      """;
+
+  /**
+   * A record.
+   */
+  public record Order(String id, int quantity) {
+  }
+
+  /**
+   * Declares the registry as the application does.
+   */
+  @Configuration
+  static class SerdeRegistryConfiguration {
+    @Bean
+    MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    SerdeRegistry serdeRegistry(final MeterRegistry meterRegistry) {
+      return new SerdeRegistry(meterRegistry, new InMemorySchemaRegistryClient(), 10);
+    }
+  }
+
+  private static double count(final MeterRegistry meterRegistry, final String name, final String format, final String operation) {
+    return meterRegistry.get(name).tag("format", format).tag("operation", operation).counter().count();
+  }
+
+  /**
+   * Concurrent first use of a class creates one serde.
+   */
+  @Test
+  void serdeRegistryConcurrentFirstUseTest() throws Exception {
+    final SerdeRegistry registry = new SerdeRegistry(new SimpleMeterRegistry(), new InMemorySchemaRegistryClient(), 10);
+    final ExecutorService executor = Executors.newFixedThreadPool(16);
+    final CountDownLatch start = new CountDownLatch(1);
+    final List<Future<Serde<Order>>> serdes = new ArrayList<>();
+    for (int caller = 0; caller < 64; caller++) {
+      serdes.add(executor.submit(() -> {
+        start.await();
+        return registry.json(Order.class);
+      }));
+    }
+    start.countDown();
+    final Set<Serde<Order>> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (final Future<Serde<Order>> serde : serdes) {
+      distinct.add(serde.get());
+    }
+    executor.shutdown();
+
+    Assertions.assertEquals(1, distinct.size());
+    Assertions.assertSame(distinct.iterator().next().deserializer(), registry.jsonDeserializer(Order.class));
+    Assertions.assertNotSame(registry.protobuf(Struct.class), registry.registryProtobuf(Struct.class));
+  }
+
+  /**
+   * Each serde times its records and counts them, their bytes and its failures, once per record.
+   */
+  @Test
+  void serdeRegistryMetricsTest() {
+    final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    final InMemorySchemaRegistryClient registryClient = new InMemorySchemaRegistryClient();
+    registryClient.register("orders-value", STRUCT_SCHEMA);
+    final SerdeRegistry registry = new SerdeRegistry(meterRegistry, registryClient, 10);
+
+    final Serde<Order> json = registry.json(Order.class);
+    final byte[] order = json.serializer().serialize("orders", new Order("1", 2));
+    json.deserializer().deserialize("orders", order);
+    json.deserializer().deserialize("orders", null);
+    Assertions.assertThrows(SerializationException.class, () -> json.deserializer().deserialize("orders", "{".getBytes()));
+    Assertions.assertEquals(1, count(meterRegistry, "kafka.serde.records", "json", "serialize"));
+    Assertions.assertEquals(order.length, count(meterRegistry, "kafka.serde.bytes", "json", "serialize"));
+    Assertions.assertEquals(2, count(meterRegistry, "kafka.serde.records", "json", "deserialize"));
+    Assertions.assertEquals(order.length, count(meterRegistry, "kafka.serde.bytes", "json", "deserialize"));
+    Assertions.assertEquals(1, count(meterRegistry, "kafka.serde.errors", "json", "deserialize"));
+    Assertions.assertEquals(1, meterRegistry.get("kafka.serde.time").tag("format", "json").tag("operation", "serialize").timer().count());
+
+    final Serde<Struct> protobuf = registry.protobuf(Struct.class);
+    final Struct struct = Struct.newBuilder().putFields("id", Value.newBuilder().setStringValue("1").build()).build();
+    final byte[] message = protobuf.serializer().serialize("orders", struct);
+    protobuf.deserializer().deserialize("orders", new byte[] {(byte) 0xff});
+    Assertions.assertEquals(1, count(meterRegistry, "kafka.serde.records", "protobuf", "serialize"));
+    Assertions.assertEquals(message.length, count(meterRegistry, "kafka.serde.bytes", "protobuf", "serialize"));
+    Assertions.assertEquals(1, count(meterRegistry, "kafka.serde.errors", "protobuf", "deserialize"));
+    Assertions.assertTrue(meterRegistry.getMeters().stream().allMatch(meter -> meter.getId().getName().startsWith("kafka.serde.")));
+
+    final Serde<Struct> registryProtobuf = registry.registryProtobuf(Struct.class);
+    final byte[] record = registryProtobuf.serializer().serialize("orders", struct);
+    Assertions.assertEquals(struct, registryProtobuf.deserializer().deserialize("orders", record));
+    Assertions.assertThrows(SerializationException.class, () -> registryProtobuf.serializer().serialize("payments", struct));
+    Assertions.assertEquals(1, count(meterRegistry, "kafka.serde.records", "registry-protobuf", "serialize"));
+    Assertions.assertEquals(1, count(meterRegistry, "kafka.serde.errors", "registry-protobuf", "serialize"));
+    Assertions.assertEquals(record.length, count(meterRegistry, "kafka.serde.bytes", "registry-protobuf", "deserialize"));
+  }
+
+  /**
+   * The registry forgets its serdes when the application context closes.
+   */
+  @Test
+  void serdeRegistryClosedWithContextTest() {
+    final SerdeRegistry registry;
+    final Serde<Order> serde;
+    try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(SerdeRegistryConfiguration.class)) {
+      registry = context.getBean(SerdeRegistry.class);
+      serde = registry.json(Order.class);
+      Assertions.assertSame(serde, registry.json(Order.class));
+    }
+    Assertions.assertNotSame(serde, registry.json(Order.class));
+  }
+}